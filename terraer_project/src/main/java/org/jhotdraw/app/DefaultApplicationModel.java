@@ -26,6 +26,7 @@ import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JToolBar;
 
+import org.jhotdraw.app.action.Actions;
 import org.jhotdraw.app.action.CopyAction;
 import org.jhotdraw.app.action.CopyAllToClipboard;
 import org.jhotdraw.app.action.CutAction;
@@ -40,6 +41,7 @@ import org.jhotdraw.app.action.PasteAction;
 import org.jhotdraw.app.action.RedoAction;
 import org.jhotdraw.app.action.SaveAction;
 import org.jhotdraw.app.action.SelectAllAction;
+import org.jhotdraw.app.action.ToggleDDLPreviewAction;
 import org.jhotdraw.app.action.UndoAction;
 import org.jhotdraw.app.action.ValidateModelAction;
 import org.jhotdraw.beans.AbstractBean;
@@ -226,6 +228,12 @@ public class DefaultApplicationModel
         mi = m.add(cb);
         //mi.setIcon(new ImageIcon(this.getClass().getResource("/org/jhotdraw/draw/action/images/checkModel.png")));
         mi.setIcon(null);
+        if (getAction(ToggleDDLPreviewAction.ID) != null) {
+            cb = new JCheckBoxMenuItem(getAction(ToggleDDLPreviewAction.ID));
+            Actions.configureJCheckBoxMenuItem(cb, getAction(ToggleDDLPreviewAction.ID));
+            mi = m.add(cb);
+            mi.setIcon(null);
+        }
         m.addSeparator();
         mi = m.add(getAction(SelectAllAction.ID));
         mi.setIcon(null);
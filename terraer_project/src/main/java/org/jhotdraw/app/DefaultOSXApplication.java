@@ -68,6 +68,7 @@ import org.jhotdraw.app.action.SaveAction;
 import org.jhotdraw.app.action.SaveAsAction;
 import org.jhotdraw.app.action.SelectAllAction;
 import org.jhotdraw.app.action.UndoAction;
+import org.jhotdraw.app.action.ToggleDDLPreviewAction;
 import org.jhotdraw.app.action.ValidateModelAction;
 import org.jhotdraw.gui.Worker;
 import org.jhotdraw.util.ResourceBundleUtil;
@@ -213,6 +214,7 @@ public class DefaultOSXApplication extends AbstractApplication {
         mo.putAction(CloseAction.ID, new CloseAction(this));
         mo.putAction(ValidateModelAction.ID, new ValidateModelAction(this));
         mo.putAction(GenerateDDLAction.ID, new GenerateDDLAction(this));
+        mo.putAction(ToggleDDLPreviewAction.ID, new ToggleDDLPreviewAction(this));
         
         mo.putAction(UndoAction.ID, new UndoAction(this));
         mo.putAction(RedoAction.ID, new RedoAction(this));
@@ -62,6 +62,7 @@ import org.jhotdraw.app.action.RedoAction;
 import org.jhotdraw.app.action.SaveAction;
 import org.jhotdraw.app.action.SaveAsAction;
 import org.jhotdraw.app.action.SelectAllAction;
+import org.jhotdraw.app.action.ToggleDDLPreviewAction;
 import org.jhotdraw.app.action.ToggleVisibleAction;
 import org.jhotdraw.app.action.UndoAction;
 import org.jhotdraw.app.action.ValidateModelAction;
@@ -154,7 +155,8 @@ public class DefaultSDIApplication extends AbstractApplication {
         m.putAction(CloseAction.ID, new CloseAction(this));
         m.putAction(PrintAction.ID, new PrintAction(this));
         m.putAction(ValidateModelAction.ID, new ValidateModelAction(this));
-        m.putAction(GenerateDDLAction.ID, new GenerateDDLAction(this));        
+        m.putAction(GenerateDDLAction.ID, new GenerateDDLAction(this));
+        m.putAction(ToggleDDLPreviewAction.ID, new ToggleDDLPreviewAction(this));        
         
         m.putAction(UndoAction.ID, new UndoAction(this));
         m.putAction(RedoAction.ID, new RedoAction(this));
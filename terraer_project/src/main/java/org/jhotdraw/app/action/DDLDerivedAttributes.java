@@ -0,0 +1,99 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the views of the derived attributes of the strong entities, the
+ * weak entities and the associative entities.
+ *
+ * @see DDLGenerator
+ */
+class DDLDerivedAttributes extends DDLSection {
+    DDLDerivedAttributes(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generateDerivedAttribute(m.strongEntity, m.weakEntity, m.entityRelationship, m.connection, m.derivedAttribute);
+    }
+
+   void generateDerivedAttribute(ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, ArrayList<Figure> entityRelationship, ArrayList<Figure> connection, ArrayList<Figure> derivedAttribute) throws IOException {
+	   String mycontent = new String();
+	   String mycontent2 = new String();
+
+	   for (Figure a : strongEntity) {
+		   for (Figure b : index.getIncident(a, connection)) {
+			   if (((ConnectionFigure)b).getStartFigure().equals(a)) {
+				   for (Figure c : index.getEndpoints(b, derivedAttribute)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(c)) {
+						   mycontent = "\nCREATE OR REPLACE VIEW VW_" + upperCase(a) + " AS (\n";
+						   out.write(mycontent);
+						   mycontent2 = ((AtributoDerivadoFigure)c).getSql() + "\n);";
+						   out.write(mycontent2);
+					   }
+				   }
+			   } else if (((ConnectionFigure)b).getEndFigure().equals(a)) {
+				   for (Figure c : index.getEndpoints(b, derivedAttribute)) {
+					   if (((ConnectionFigure)b).getStartFigure().equals(c)) {
+						   mycontent = "\nCREATE OR REPLACE VIEW VW_" + upperCase(a) + " AS (\n";
+						   out.write(mycontent);
+						   mycontent2 = ((AtributoDerivadoFigure)c).getSql() + "\n);";
+						   out.write(mycontent2);
+					   }
+				   }
+			   }
+		   }
+	   }
+
+	   for (Figure a : weakEntity) {
+		   for (Figure b : index.getIncident(a, connection)) {
+			   if (((ConnectionFigure)b).getStartFigure().equals(a)) {
+				   for (Figure c : index.getEndpoints(b, derivedAttribute)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(c)) {
+						   mycontent = "\nCREATE OR REPLACE VIEW VW_" + upperCase(a) + " AS (\n";
+						   out.write(mycontent);
+						   mycontent2 = ((AtributoDerivadoFigure)c).getSql() + "\n);";
+						   out.write(mycontent2);
+					   }
+				   }
+			   } else if (((ConnectionFigure)b).getEndFigure().equals(a)) {
+				   for (Figure c : index.getEndpoints(b, derivedAttribute)) {
+					   if (((ConnectionFigure)b).getStartFigure().equals(c)) {
+						   mycontent = "\nCREATE OR REPLACE VIEW VW_" + upperCase(a) + " AS (\n";
+						   out.write(mycontent);
+						   mycontent2 = ((AtributoDerivadoFigure)c).getSql() + "\n);";
+						   out.write(mycontent2);
+					   }
+				   }
+			   }
+		   }
+	   }
+
+	   for (Figure a : entityRelationship) {
+		   for (Figure b : index.getIncident(a, connection)) {
+			   if (((ConnectionFigure)b).getStartFigure().equals(a)) {
+				   for (Figure c : index.getEndpoints(b, derivedAttribute)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(c)) {
+						   mycontent = "\nCREATE OR REPLACE VIEW VW_" + upperCase(a) + " AS (\n";
+						   out.write(mycontent);
+						   mycontent2 = ((AtributoDerivadoFigure)c).getSql() + "\n);";
+						   out.write(mycontent2);
+					   }
+				   }
+			   } else if (((ConnectionFigure)b).getEndFigure().equals(a)) {
+				   for (Figure c : index.getEndpoints(b, derivedAttribute)) {
+					   if (((ConnectionFigure)b).getStartFigure().equals(c)) {
+						   mycontent = "\nCREATE OR REPLACE VIEW VW_" + upperCase(a) + " AS (\n";
+						   out.write(mycontent);
+						   mycontent2 = ((AtributoDerivadoFigure)c).getSql() + "\n);";
+						   out.write(mycontent2);
+					   }
+				   }
+			   }
+		   }
+	   }
+   }
+}
@@ -0,0 +1,60 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the CREATE TABLE statements of the associative entities.
+ *
+ * @see DDLGenerator
+ */
+class DDLEntityRelationships extends DDLSection {
+    DDLEntityRelationships(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generateEntityRelationship(m.entityRelationship, m.connection, m.attribute, m.keyAttribute, m.derivedAttribute);
+    }
+
+   public void generateEntityRelationship (ArrayList<Figure> entityRelationship, ArrayList<Figure> connection, ArrayList<Figure> attribute, ArrayList<Figure> keyAttribute, ArrayList<Figure> derivedAttribute) throws IOException {
+	   String mycontent = new String();
+	   for (Figure i: entityRelationship) {
+		   mycontent = "\nCREATE TABLE " + i.toString().toUpperCase() + "(\n";
+		   out.write(mycontent);
+		   for (Figure j: index.getIncident(i, connection)) {
+			   if (((ConnectionFigure)j).getStartFigure().equals(((EntidadeRelacionamentoFigure)i))){
+				   for (Figure k: index.getEndpoints(j, attribute)) {
+					   if (((ConnectionFigure)j).getEndFigure().equals(((AtributoFigure)k))) {
+						   mycontent = k.toString() + " " + (((AtributoFigure)k).isNullable() != true ? "NOT NULL" : "") + ",\n";
+						   out.write(mycontent);                                
+					   }
+				   }
+				   for (Figure l: index.getEndpoints(j, keyAttribute)) {
+					   if (((ConnectionFigure)j).getEndFigure().equals(((AtributoChaveFigure)l))) {
+						   mycontent = l.toString() + " " + ((AtributoChaveFigure)l).getAttributeType() + " " + (((AtributoChaveFigure)l).isNullable() != true ? "NOT NULL" : "") + ",\n";
+						   out.write(mycontent);
+					   }
+				   }                       
+			   } else if (((ConnectionFigure)j).getEndFigure().equals(((EntidadeRelacionamentoFigure)i))){
+				   for (Figure k: index.getEndpoints(j, attribute)) {
+					   if (((ConnectionFigure)j).getStartFigure().equals(((AtributoFigure)k))) {
+						   mycontent = k.toString() + " " + (((AtributoFigure)k).isNullable() != true ? "NOT NULL" : "") + ",\n";
+						   out.write(mycontent);
+					   }
+				   }
+				   for (Figure l: index.getEndpoints(j, keyAttribute)) {
+					   if (((ConnectionFigure)j).getStartFigure().equals(((AtributoChaveFigure)l))) {
+						   mycontent = l.toString() + " " + ((AtributoChaveFigure)l).getAttributeType() + " " + (((AtributoChaveFigure)l).isNullable() != true ? "NOT NULL" : "") + ",\n";
+						   out.write(mycontent);
+					   }
+				   }
+			   }                      
+		   }
+		   mycontent = ");\n";
+		   out.write(mycontent);                    
+	   }
+   }
+}
@@ -0,0 +1,537 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the keys and the triggers of the generalizations, for overlapping
+ * and then for disjoint specializations.
+ *
+ * @see DDLGenerator
+ */
+class DDLGeneralizations extends DDLSection {
+    DDLGeneralizations(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generateGenSpec(m.strongEntity, m.connection, m.keyAttribute, m.genspecDisjoint, m.genspecOverlap, m.singleLineGenSpecConn, m.doubleLineGenSpecConn, m.genSpecLineConn);
+    }
+
+    List<ArrayList<Figure>> getOuterLists(DDLGenerator.Figures m) {
+        ArrayList<ArrayList<Figure>> lists = new ArrayList<ArrayList<Figure>>(2);
+        lists.add(m.genspecOverlap);
+        lists.add(m.genspecDisjoint);
+        return lists;
+    }
+
+   public void generateGenSpec(ArrayList<Figure> strongEntity, ArrayList<Figure> connection, ArrayList<Figure> keyAttribute, ArrayList<Figure> genspecDisjoint, ArrayList<Figure> genspecOverlap, ArrayList<Figure> singleLineGenSpecConn, ArrayList<Figure> doubleLineGenSpecConn, ArrayList<Figure> genSpecLineConn) throws IOException {
+	   Locals locals = locals(GENSPEC_LOCALS);
+	   String mycontent = locals.mycontent;
+	   String mycontent2 = locals.mycontent2;
+	   String mycontent3 = locals.mycontent3;
+	   String ownerEntity = locals.ownerEntity;
+	   String ownerKey = locals.ownerKey;
+	   String ownerKeyType = locals.ownerKeyType;
+	   String specKey = locals.specKey;
+	   ArrayList<String> specName = locals.specName;
+
+	   if (genspecOverlap.size() > 0){
+		   for (Figure a : iterate(genspecOverlap)) {
+			   if (singleLineGenSpecConn.size() > 0){
+				   for (Figure b : index.getIncident(a, singleLineGenSpecConn)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getStartFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   } else if (((ConnectionFigure)b).getStartFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getEndFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   }				   
+				   }
+				   for (Figure f : index.getIncident(a, genSpecLineConn)) {
+					   if (((ConnectionFigure)f).getStartFigure().equals(a)) {
+						   for (Figure g : index.getEndpoints(f, strongEntity)) {
+							   if (((ConnectionFigure)f).getEndFigure().equals(g)) {
+								   for (Figure h: index.getIncident(g, connection)) {
+									   if (((ConnectionFigure)h).getStartFigure().equals(((EntidadeFigure)g))){
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";   
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   } else if (((ConnectionFigure)h).getEndFigure().equals(((EntidadeFigure)g))){
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }                      
+								   }
+							   }
+						   }
+					   }
+				   }
+			   } else {
+				   for (Figure b : index.getIncident(a, doubleLineGenSpecConn)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getStartFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   } else if (((ConnectionFigure)b).getStartFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getEndFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   }				   
+				   }
+				   for (Figure f : index.getIncident(a, genSpecLineConn)) {
+					   if (((ConnectionFigure)f).getStartFigure().equals(a)) {
+						   for (Figure g : index.getEndpoints(f, strongEntity)) {
+							   if (((ConnectionFigure)f).getEndFigure().equals(g)) {
+								   for (Figure h: index.getIncident(g, connection)) {
+									   if (((ConnectionFigure)h).getStartFigure().equals(((EntidadeFigure)g))){
+										   specName.add(upperCase(g));
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   } else if (((ConnectionFigure)h).getEndFigure().equals(((EntidadeFigure)g))){
+										   specName.add(upperCase(g));
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }                      
+								   }
+							   }
+						   }
+					   }
+				   }
+				   mycontent = "\nCREATE OR REPLACE TRIGGER genspecTrigger_" + ownerEntity + " AFTER INSERT OR DELETE OR UPDATE ON " + ownerEntity + "\nREFERENCING NEW AS n OLD as o FOR EACH ROW\nDECLARE ";
+				   out.write(mycontent);
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent2 = "X" + i + " number; ";
+					   out.write(mycontent2);
+				   }
+				   mycontent = "\nBEGIN\n\tIF INSTERTING THEN\n";
+				   out.write(mycontent);
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent2 = "\t\tSELECT COUNT(*) INTO X" + i + " FROM " + specName.get(i) + " c WHERE c." + specKey + " = :n." + ownerKey + ";\n";
+					   out.write(mycontent2);
+				   }
+				   mycontent = "\t\tIF(";
+				   out.write(mycontent);
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent2 = "X" + i + " + ";
+					   out.write(mycontent2);
+				   }
+				   mycontent = "< 1) THEN RAISE_APPLICATION_ERROR(-20000, 'Violação detectada!'); END IF;\n\tEND IF;\nEND;\n";
+				   out.write(mycontent);
+
+				   int errcount = 20001;
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent = "\nCREATE OR REPLACE TRIGGER genspecTrigger_" + specName.get(i) + " AFTER INSERT OR DELETE OR UPDATE ON " + specName.get(i) + "\nREFERENCING NEW AS n OLD as o FOR EACH ROW\nDECLARE ";
+					   out.write(mycontent);
+					   for (int j = 0; j < specName.size()-1; j++) {
+						   mycontent2 = "X" + j + " number; ";
+						   out.write(mycontent2);
+					   }
+					   mycontent = "\nBEGIN\n\tIF DELETING THEN\n";
+					   out.write(mycontent);
+					   int aux = 0;
+					   for (int l = 0; l < specName.size(); l++){
+						   if(i != l){
+							   mycontent2 = "\t\tSELECT COUNT(*) INTO X" + aux + " FROM " + specName.get(l) + " c WHERE c." + specKey + " = :n." + specKey + ";\n";
+							   out.write(mycontent2);
+							   aux++;
+						   }   
+					   }					   
+					   mycontent = "\t\tIF(";
+					   out.write(mycontent);
+					   for (int l = 0; l < specName.size()-1; l++) {
+						   mycontent2 = "X" + l + " + ";
+						   out.write(mycontent2);
+					   }
+					   mycontent = "< 1) THEN RAISE_APPLICATION_ERROR(-" + errcount + ", 'Violação detectada!'); END IF;\n\tEND IF;\nEND;\n";
+					   out.write(mycontent);					   
+					   errcount++;
+				   }
+			   }
+		   }
+	   }
+
+	   if (genspecDisjoint.size() > 0){
+		   for (Figure a : iterate(genspecDisjoint)) {
+			   if (singleLineGenSpecConn.size() > 0){
+				   for (Figure b : index.getIncident(a, singleLineGenSpecConn)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getStartFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   } else if (((ConnectionFigure)b).getStartFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getEndFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   }				   
+				   }
+				   for (Figure f : index.getIncident(a, genSpecLineConn)) {
+					   if (((ConnectionFigure)f).getStartFigure().equals(a)) {
+						   for (Figure g : index.getEndpoints(f, strongEntity)) {
+							   if (((ConnectionFigure)f).getEndFigure().equals(g)) {
+								   for (Figure h: index.getIncident(g, connection)) {
+									   if (((ConnectionFigure)h).getStartFigure().equals(((EntidadeFigure)g))){
+										   specName.add(upperCase(g));
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   } else if (((ConnectionFigure)h).getEndFigure().equals(((EntidadeFigure)g))){
+										   specName.add(upperCase(g));
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);                       
+									   }                      
+								   }
+							   }
+						   }
+					   }
+				   }
+				   int errcount = 20000;
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent = "\nCREATE OR REPLACE TRIGGER genspecTrigger_" + specName.get(i) + " AFTER INSERT OR DELETE OR UPDATE ON " + specName.get(i) + "\nREFERENCING NEW AS n OLD as o FOR EACH ROW\nDECLARE ";
+					   out.write(mycontent);
+					   for (int j = 0; j < specName.size()-1; j++) {
+						   mycontent2 = "X" + j + " number; ";
+						   out.write(mycontent2);
+					   }
+					   mycontent = "\nBEGIN\n\tIF INSERTING THEN\n";
+					   out.write(mycontent);
+					   int aux = 0;
+					   for (int l = 0; l < specName.size(); l++){
+						   if(i != l){
+							   mycontent2 = "\t\tSELECT COUNT(*) INTO X" + aux + " FROM " + specName.get(l) + " c WHERE c." + specKey + " = :n." + specKey + ";\n";
+							   out.write(mycontent2);
+							   aux++;
+						   }   
+					   }					   
+					   mycontent = "\t\tIF(";
+					   out.write(mycontent);
+					   for (int l = 0; l < specName.size()-1; l++) {
+						   mycontent2 = "X" + l + " + ";
+						   out.write(mycontent2);
+					   }
+					   mycontent = "!= 0) THEN RAISE_APPLICATION_ERROR(-" + errcount + ", 'Violação detectada!'); END IF;\n\tEND IF;\nEND;\n";
+					   out.write(mycontent);
+					   errcount++;
+				   }
+			   } else {
+				   for (Figure b : index.getIncident(a, doubleLineGenSpecConn)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getStartFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   } else if (((ConnectionFigure)b).getStartFigure().equals(a)) {
+						   for (Figure c : index.getEndpoints(b, strongEntity)) {
+							   if (((ConnectionFigure)b).getEndFigure().equals(c)) {
+								   for (Figure d: index.getIncident(c, connection)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }
+									   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+										   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+											   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+												   ownerEntity = upperCase(c);
+												   ownerKey = e.toString();
+												   ownerKeyType = ((AtributoChaveFigure)e).getAttributeType().toString();
+											   }
+										   }                       
+									   }                      
+								   }  
+							   }
+						   }
+					   }				   
+				   }
+				   for (Figure f : index.getIncident(a, genSpecLineConn)) {
+					   if (((ConnectionFigure)f).getStartFigure().equals(a)) {
+						   for (Figure g : index.getEndpoints(f, strongEntity)) {
+							   if (((ConnectionFigure)f).getEndFigure().equals(g)) {
+								   for (Figure h: index.getIncident(g, connection)) {
+									   if (((ConnectionFigure)h).getStartFigure().equals(((EntidadeFigure)g))){
+										   specName.add(upperCase(g));
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   } else if (((ConnectionFigure)h).getEndFigure().equals(((EntidadeFigure)g))){
+										   specName.add(upperCase(g));
+										   specKey = ownerKey + "_" + ownerEntity.toLowerCase();
+										   mycontent = "ALTER TABLE " + upperCase(g) + " ADD " + specKey + " " + ownerKeyType + " NOT NULL;\n";
+										   mycontent2 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT FK_" + upperCase(g) + " FOREIGN KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") ON DELETE CASCADE;\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(g) + " ADD CONSTRAINT PK_" + upperCase(g) + " PRIMARY KEY (" + specKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }                      
+								   }
+							   }
+						   }
+					   }
+				   }
+				   mycontent = "\nCREATE OR REPLACE TRIGGER genspecTrigger_" + ownerEntity + " AFTER INSERT OR DELETE OR UPDATE ON " + ownerEntity + "\nREFERENCING NEW AS n OLD as o FOR EACH ROW\nDECLARE ";
+				   out.write(mycontent);
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent2 = "X" + i + " number; ";
+					   out.write(mycontent2);
+				   }
+				   mycontent = "\nBEGIN\n\tIF INSTERTING THEN\n";
+				   out.write(mycontent);
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent2 = "\t\tSELECT COUNT(*) INTO X" + i + " FROM " + specName.get(i) + " c WHERE c." + specKey + " = :n." + ownerKey + ";\n";
+					   out.write(mycontent2);
+				   }
+				   mycontent = "\t\tIF(";
+				   out.write(mycontent);
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent2 = "X" + i + " + ";
+					   out.write(mycontent2);
+				   }
+				   mycontent = "< 1) THEN RAISE_APPLICATION_ERROR(-20000, 'Violação detectada!'); END IF;\n\tEND IF;\nEND;\n";
+				   out.write(mycontent);
+
+				   int errcount = 20000;
+				   for (int i = 0; i < specName.size(); i++) {
+					   mycontent = "\nCREATE OR REPLACE TRIGGER genspecTrigger_" + specName.get(i) + " AFTER INSERT OR DELETE OR UPDATE ON " + specName.get(i) + "\nREFERENCING NEW AS n OLD as o FOR EACH ROW\nDECLARE ";
+					   out.write(mycontent);
+					   for (int j = 0; j < specName.size(); j++) {
+						   mycontent2 = "X" + j + " number; ";
+						   out.write(mycontent2);
+					   }
+					   mycontent = "\nBEGIN\n\tIF INSERTING THEN\n";
+					   out.write(mycontent);
+					   int aux = 1;
+					   for (int l = 0; l < specName.size(); l++){
+						   if(i != l){
+							   mycontent2 = "\t\tSELECT COUNT(*) INTO X" + aux + " FROM " + specName.get(l) + " c WHERE c." + specKey + " = :n." + specKey + ";\n";
+							   out.write(mycontent2);
+							   aux++;
+						   }   
+					   }					   
+					   mycontent = "\t\tIF(";
+					   out.write(mycontent);
+					   for (int l = 1; l < specName.size(); l++) {
+						   mycontent2 = "X" + l + " + ";
+						   out.write(mycontent2);
+					   }
+					   mycontent = " != 0) THEN RAISE_APPLICATION_ERROR(-" + errcount + ", 'Violação detectada!'); END IF;\n\tEND IF;\n";
+					   out.write(mycontent);
+					   errcount++;
+
+					   mycontent = "\tIF DELETING THEN\n\t\tSELECT COUNT(*) INTO X0 FROM " + ownerEntity + " c WHERE c." + ownerKey + " = :o." + specKey + ";\n";
+					   out.write(mycontent);					   
+					   mycontent2 = "\t\tIF(X0 != 0) THEN RAISE_APPLICATION_ERROR(-" + errcount + ", 'Violação detectada!'); END IF;\n\tEND IF;\n";
+					   out.write(mycontent2);
+					   errcount++;
+
+					   mycontent = "\tIF UPDATING THEN\n\t\tIF(:n." + specKey + " != :o." + specKey + ") THEN\n";
+					   out.write(mycontent);
+					   mycontent = "\t\t\tSELECT COUNT(*) INTO X0 FROM " + ownerEntity + " c WHERE c." + ownerKey + " = :o." + specKey + ";\n";
+					   out.write(mycontent);					   
+					   mycontent2 = "\t\t\tIF(X0 != 0) THEN RAISE_APPLICATION_ERROR(-" + errcount + ", 'Violação detectada!'); END IF;\n";
+					   out.write(mycontent2);
+					   errcount++;
+
+					   int aux2 = 1;
+					   for (int l = 0; l < specName.size(); l++){
+						   if(i != l){
+							   mycontent2 = "\t\t\tSELECT COUNT(*) INTO X" + aux2 + " FROM " + specName.get(l) + " c WHERE c." + specKey + " = :n." + specKey + ";\n";
+							   mycontent3 = "\t\t\tIF(X" + aux2 + " != 0) THEN RAISE_APPLICATION_ERROR(-" + errcount + ", 'Violação detectada!'); END IF;\n";								   
+							   out.write(mycontent2);
+							   out.write(mycontent3);
+							   aux2++;
+							   errcount++;
+						   }   
+					   }
+					   mycontent = "\t\tEND IF;\n\tEND IF\nEND;\n";
+					   out.write(mycontent);
+				   }
+			   }
+		   }
+	   }		   
+	   locals.mycontent = mycontent;
+	   locals.mycontent2 = mycontent2;
+	   locals.mycontent3 = mycontent3;
+	   locals.ownerEntity = ownerEntity;
+	   locals.ownerKey = ownerKey;
+	   locals.ownerKeyType = ownerKeyType;
+	   locals.specKey = specKey;
+   }
+}
@@ -0,0 +1,388 @@
+package org.jhotdraw.app.action;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.jhotdraw.draw.*;
+import org.jhotdraw.io.ReplacingWriter;
+
+/**
+ * Translates an ER drawing into a relational DDL script.
+ * <p>
+ * The figures are classified once and the connections between them are
+ * indexed by an {@link ERSchemaIndex}. Each section of the script is written
+ * by a {@link DDLSection}, which looks up the neighbours of a figure in the
+ * index instead of rescanning the figure lists. This keeps the generation
+ * time proportional to the size of the drawing.
+ * <p>
+ * Statements are written to a {@code Writer} as soon as they are generated.
+ * The clean-ups of the script (dropping the comma before a closing
+ * parenthesis, dropping the "+" in front of a comparison) are applied while
+ * the text passes through, so the script never has to be held in memory.
+ * <p>
+ * The sections which span several tables can also be generated one
+ * iteration of their outer loops at a time, see {@link #setIteration}. The
+ * local variables which one iteration leaves to the next are kept in a
+ * {@link State}. This is how {@link IncrementalDDLGenerator} regenerates
+ * only the iterations which depend on a changed figure.
+ *
+ * @see GenerateDDLAction
+ */
+public class DDLGenerator {
+    /** The figure of the single iteration which is generated, or null. */
+    private Figure iteration;
+    private List<Figure> iterationList;
+    /** The local variables handed on between iterations, or null. */
+    private State state;
+    private final ArrayList<Union> unions = new ArrayList<Union>();
+    
+    private final DDLTables tables = new DDLTables(this);
+    private final DDLPrimaryKeys primaryKeys = new DDLPrimaryKeys(this);
+    private final DDLEntityRelationships entityRelationships = new DDLEntityRelationships(this);
+    private final DDLMultivaluedAttributes multivaluedAttributes = new DDLMultivaluedAttributes(this);
+    private final DDLDerivedAttributes derivedAttributes = new DDLDerivedAttributes(this);
+    /** The sections which span several tables, see PARTIAL_KEYS. */
+    private final DDLSection[] crossTableSections = {
+        new DDLPartialKeys(this),
+        new DDLGeneralizations(this),
+        new DDLRelationships(this),
+        multivaluedAttributes
+    };
+
+    /** Creates a new instance. */
+    public DDLGenerator() {
+    }
+
+    /**
+     * Generates the DDL script for the figures of the specified drawing.
+     */
+    public String generate(Drawing drawing) {
+        StringWriter w = new StringWriter();
+        try {
+            generate(drawing, w);
+        } catch (IOException e) {
+            InternalError error = new InternalError("StringWriter failed");
+            error.initCause(e);
+            throw error;
+        }
+        return w.toString();
+    }
+
+    /**
+     * Generates the DDL script for the figures of the specified drawing
+     * into the specified file, using the UTF-8 encoding.
+     */
+    public void generate(Drawing drawing, File file) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            generate(drawing, w);
+        } finally {
+            w.close();
+        }
+    }
+
+    /**
+     * Writes the DDL script for the figures of the specified drawing to the
+     * specified writer. The writer is flushed but not closed.
+     */
+    public void generate(Drawing drawing, Writer writer) throws IOException {
+        Figures m = new Figures(drawing.getFigures());
+        setIteration(null, null);
+        state = null;
+        setWeakEntityScan(null);
+        unions.clear();
+        ReplacingWriter fixups = createFixups(writer);
+        setOutput(fixups, new ERSchemaIndex(drawing));
+        
+        tables.generate(m);
+        primaryKeys.generate(m);
+        generateSection(PARTIAL_KEYS, m);
+        entityRelationships.generate(m);
+        generateSection(GENERALIZATIONS, m);
+        generateSection(RELATIONSHIPS, m);
+        generateSection(MULTIVALUED_ATTRIBUTES, m);
+        derivedAttributes.generate(m);
+    
+        fixups.finish();
+        setOutput(null, null);
+        unions.clear();
+    }
+    
+    /**
+     * The figures of a drawing, classified by their exact class.
+     */
+    static class Figures {
+        final ArrayList<Figure> strongEntity = new ArrayList<Figure>();
+        final ArrayList<Figure> weakEntity = new ArrayList<Figure>();
+        final ArrayList<Figure> connection = new ArrayList<Figure>();
+        final ArrayList<Figure> attribute = new ArrayList<Figure>();
+        final ArrayList<Figure> keyAttribute = new ArrayList<Figure>();
+        final ArrayList<Figure> partialKeyAttribute = new ArrayList <Figure>();
+        final ArrayList<Figure> derivedAttribute = new ArrayList<Figure>();
+        final ArrayList<Figure> multivaluedAttribute = new ArrayList<Figure>();
+        final ArrayList<Figure> relationship = new ArrayList<Figure>();        
+        final ArrayList<Figure> weakRelationship = new ArrayList<Figure>(); 
+        final ArrayList<Figure> entityRelationship = new ArrayList<Figure>();
+        final ArrayList<Figure> genspecDisjoint = new ArrayList<Figure>();
+        final ArrayList<Figure> genspecOverlap = new ArrayList<Figure>();
+        final ArrayList<Figure> singleLineConnectionUm = new ArrayList<Figure>();
+        final ArrayList<Figure> singleLineConnectionN = new ArrayList<Figure>();
+        final ArrayList<Figure> doubleLineConnectionUm = new ArrayList<Figure>();
+        final ArrayList<Figure> doubleLineConnectionN = new ArrayList<Figure>();
+        final ArrayList<Figure> singleLineGenSpecConn = new ArrayList<Figure>();
+        final ArrayList<Figure> doubleLineGenSpecConn = new ArrayList<Figure>();
+        final ArrayList<Figure> genSpecLineConn = new ArrayList<Figure>();
+        
+        Figures(Collection<Figure> figures) {
+            for (Figure f : figures) {
+                ArrayList<Figure> list = listFor(f);
+                if (list != null) {
+                    list.add(f);
+                }
+            }
+        }
+        
+        /**
+         * Returns the list holding figures of the class of the specified
+         * figure, or null if the figure does not take part in the script.
+         */
+        ArrayList<Figure> listFor(Figure f) {
+            if (f.getClass().equals(EntidadeFigure.class)) {
+                return strongEntity;
+            } else if (f.getClass().equals(EntidadeFracaFigure.class)) {
+                return weakEntity;
+            } else if (f.getClass().equals(ConnectionAttribute.class)){
+                return connection;
+            } else if (f.getClass().equals(LabeledLineConnectionUmFigure.class)){
+                return singleLineConnectionUm;
+            } else if (f.getClass().equals(LabeledLineConnectionMuitosFigure.class)){
+                return singleLineConnectionN;
+            } else if (f.getClass().equals(LabeledDoubleLineConnectionUmFigure.class)){
+                return doubleLineConnectionUm;
+            } else if (f.getClass().equals(LabeledDoubleLineConnectionMuitosFigure.class)){
+                return doubleLineConnectionN;
+            } else if (f.getClass().equals(AtributoFigure.class)) {
+                return attribute;
+            } else if (f.getClass().equals(AtributoChaveFigure.class)) {
+                return keyAttribute;
+            } else if (f.getClass().equals(AtributoChaveParcialFigure.class)) {
+                return partialKeyAttribute;
+            } else if (f.getClass().equals(AtributoDerivadoFigure.class)) {
+                return derivedAttribute;
+            } else if (f.getClass().equals(AtributoMultivaloradoFigure.class)) {
+                return multivaluedAttribute;
+            } else if (f.getClass().equals(RelacionamentoFracoFigure.class)){
+            	return weakRelationship;
+            } else if (f.getClass().equals(RelacionamentoFigure.class)){
+            	return relationship;
+            } else if (f.getClass().equals(EntidadeRelacionamentoFigure.class)){
+            	return entityRelationship;
+            } else if (f.getClass().equals(DisjuncaoFigure.class)) {
+				return genspecDisjoint;
+			} else if (f.getClass().equals(SobreposicaoFigure.class)) {
+				return genspecOverlap;
+			} else if (f.getClass().equals(LineConnectionGeneralizacaoFigure.class)) {
+				return singleLineGenSpecConn;
+			} else if (f.getClass().equals(DoubleLineConnectionGeneralizacaoFigure.class)) {
+				return doubleLineGenSpecConn;
+			} else if (f.getClass().equals(GeneralizacaoLineConnectionFigure.class)) {
+				return genSpecLineConn;
+			}
+            return null;
+        }
+    }
+    
+    /**
+     * Returns a writer which applies the clean-ups of the script to the
+     * text passing through it.
+     */
+    static ReplacingWriter createFixups(Writer writer) {
+        return new ReplacingWriter(
+                new ReplacingWriter(
+                new ReplacingWriter(
+                new ReplacingWriter(writer, "+  !=", "!="),
+                "+ !=", "!="),
+                "+ <", "<"),
+                ",\n);", "\n);\n");
+    }
+    
+    /**
+     * Sets the writer and the index used by the sections.
+     */
+    void setOutput(Writer out, ERSchemaIndex index) {
+        tables.setOutput(out, index);
+        primaryKeys.setOutput(out, index);
+        entityRelationships.setOutput(out, index);
+        derivedAttributes.setOutput(out, index);
+        for (DDLSection s : crossTableSections) {
+            s.setOutput(out, index);
+        }
+    }
+    
+    /** The sections which span several tables, in the order of the script. */
+    static final int PARTIAL_KEYS = 0;
+    static final int GENERALIZATIONS = 1;
+    static final int RELATIONSHIPS = 2;
+    static final int MULTIVALUED_ATTRIBUTES = 3;
+    static final int SECTION_COUNT = 4;
+    
+    /**
+     * Generates one of the sections which span several tables.
+     */
+    void generateSection(int section, Figures m) throws IOException {
+        crossTableSections[section].generate(m);
+    }
+    
+    /**
+     * Returns the lists the outer loops of a section iterate over, in the
+     * order of the loops.
+     */
+    List<ArrayList<Figure>> getOuterLists(int section, Figures m) {
+        return crossTableSections[section].getOuterLists(m);
+    }
+    
+    void generateTables(ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, ArrayList<Figure> connection, ArrayList<Figure> attribute, ArrayList<Figure> keyAttribute, ArrayList<Figure> partialKeyAttribute) throws IOException {
+        tables.generateTables(strongEntity, weakEntity, connection, attribute, keyAttribute, partialKeyAttribute);
+    }
+    
+    void generatePrimaryKey(ArrayList<Figure> strongEntity, ArrayList<Figure> connection, ArrayList<Figure> keyAttribute) throws IOException {
+        primaryKeys.generatePrimaryKey(strongEntity, connection, keyAttribute);
+    }
+    
+    void generateEntityRelationship(ArrayList<Figure> entityRelationship, ArrayList<Figure> connection, ArrayList<Figure> attribute, ArrayList<Figure> keyAttribute, ArrayList<Figure> derivedAttribute) throws IOException {
+        entityRelationships.generateEntityRelationship(entityRelationship, connection, attribute, keyAttribute, derivedAttribute);
+    }
+    
+    void generateDerivedAttribute(ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, ArrayList<Figure> entityRelationship, ArrayList<Figure> connection, ArrayList<Figure> derivedAttribute) throws IOException {
+        derivedAttributes.generateDerivedAttribute(strongEntity, weakEntity, entityRelationship, connection, derivedAttribute);
+    }
+    
+    /**
+     * Restricts the outer loops of the sections which span several tables
+     * to the iteration over the specified figure, which is a member of the
+     * specified list. The loops over other lists are skipped. Pass null to
+     * generate all iterations.
+     */
+    void setIteration(Figure figure, List<Figure> list) {
+        iteration = figure;
+        iterationList = list;
+    }
+    
+    /**
+     * Sets the local variables the section generators start with. The
+     * generators leave their variables in the state when they are done.
+     * Pass null to start each section afresh.
+     */
+    void setState(State state) {
+        this.state = state;
+    }
+    
+    /**
+     * Sets the weak entity scan used by generateMultivaluedAttribute. Pass
+     * null to let each run of the generator scan the weak entities itself.
+     */
+    void setWeakEntityScan(DDLMultivaluedAttributes.WeakEntityScan scan) {
+        multivaluedAttributes.setWeakEntityScan(scan);
+    }
+    
+    DDLMultivaluedAttributes.WeakEntityScan scanWeakEntities(Figures m) {
+        return multivaluedAttributes.scanWeakEntities(m);
+    }
+    
+    /**
+     * Forgets the lists created by union. This has to be called when the
+     * figure lists change.
+     */
+    void clearUnions() {
+        unions.clear();
+    }
+    
+    /**
+     * Returns the figures an outer loop of a section visits.
+     */
+    List<Figure> iterate(ArrayList<Figure> list) {
+        if (iteration == null) {
+            return list;
+        }
+        return (list == iterationList) ? Collections.singletonList(iteration) : Collections.<Figure>emptyList();
+    }
+    
+    DDLSection.Locals locals(int generator) {
+        return (state == null) ? new DDLSection.Locals() : state.get(generator);
+    }
+    
+    /**
+     * Returns a list holding the members of the first and then the members
+     * of the second list. The list is reused until clearUnions is called,
+     * so the index remembers the position of its members when the sections
+     * are generated one iteration at a time.
+     */
+    ArrayList<Figure> union(ArrayList<Figure> first, ArrayList<Figure> second) {
+        for (Union u : unions) {
+            if (u.first == first && u.second == second) {
+                return u.members;
+            }
+        }
+        Union u = new Union();
+        u.first = first;
+        u.second = second;
+        u.members = new ArrayList<Figure>(first.size() + second.size());
+        u.members.addAll(first);
+        u.members.addAll(second);
+        unions.add(u);
+        return u.members;
+    }
+    
+    private static class Union {
+        ArrayList<Figure> first;
+        ArrayList<Figure> second;
+        ArrayList<Figure> members;
+    }
+    
+    /**
+     * The local variables of the section generators, as one iteration of an
+     * outer loop leaves them to the next one. An iteration writes the same
+     * statements, if it starts with an equal state and the figures it reads
+     * are unchanged.
+     */
+    static class State {
+        private final DDLSection.Locals[] locals = new DDLSection.Locals[DDLSection.LOCALS_COUNT];
+        
+        private DDLSection.Locals get(int generator) {
+            if (locals[generator] == null) {
+                locals[generator] = new DDLSection.Locals();
+            }
+            return locals[generator];
+        }
+        
+        State copy() {
+            State s = new State();
+            for (int i = 0; i < locals.length; i++) {
+                if (locals[i] != null) {
+                    s.locals[i] = locals[i].copy();
+                }
+            }
+            return s;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof State) && Arrays.equals(locals, ((State) o).locals);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(locals);
+        }
+    }
+}
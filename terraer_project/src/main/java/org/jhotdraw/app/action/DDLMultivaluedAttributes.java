@@ -0,0 +1,496 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the tables of the multivalued attributes of the strong entities,
+ * the weak relationships and the associative entities.
+ *
+ * @see DDLGenerator
+ */
+class DDLMultivaluedAttributes extends DDLSection {
+    private WeakEntityScan weakEntityScan;
+
+    DDLMultivaluedAttributes(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generateMultivaluedAttribute(m.strongEntity, m.weakEntity, m.weakRelationship, m.entityRelationship, m.connection, m.keyAttribute, m.partialKeyAttribute, m.multivaluedAttribute, m.singleLineConnectionUm, m.singleLineConnectionN, m.doubleLineConnectionUm, m.doubleLineConnectionN);
+    }
+
+    List<ArrayList<Figure>> getOuterLists(DDLGenerator.Figures m) {
+        ArrayList<ArrayList<Figure>> lists = new ArrayList<ArrayList<Figure>>(3);
+        lists.add(m.strongEntity);
+        lists.add(m.weakRelationship);
+        lists.add(m.entityRelationship);
+        return lists;
+    }
+
+    /**
+     * Sets the weak entity scan used by generateMultivaluedAttribute. Pass
+     * null to let each run of the generator scan the weak entities itself.
+     */
+    void setWeakEntityScan(WeakEntityScan scan) {
+        weakEntityScan = scan;
+    }
+
+    WeakEntityScan scanWeakEntities(DDLGenerator.Figures m) {
+        return scanWeakEntities(m.weakEntity, m.connection, m.partialKeyAttribute, m.multivaluedAttribute);
+    }
+
+   /**
+    * The last partial key and the first multivalued attribute of the weak
+    * entities. Neither depends on the weak relationship that is generated,
+    * so the weak entities are scanned once per generator run.
+    */
+   static class WeakEntityScan {
+	   String partialKey;
+	   String partialKeyType;
+	   Figure weakEntity;
+	   Figure multivaluedAttribute;
+
+	   @Override
+	   public boolean equals(Object o) {
+		   if (! (o instanceof WeakEntityScan)) {
+			   return false;
+		   }
+		   WeakEntityScan that = (WeakEntityScan) o;
+		   return Arrays.asList(partialKey, partialKeyType).equals(Arrays.asList(that.partialKey, that.partialKeyType))
+				   && weakEntity == that.weakEntity && multivaluedAttribute == that.multivaluedAttribute;
+	   }
+
+	   @Override
+	   public int hashCode() {
+		   return Arrays.asList(partialKey, partialKeyType).hashCode();
+	   }
+   }
+
+   private WeakEntityScan scanWeakEntities(ArrayList<Figure> weakEntity, ArrayList<Figure> connection, ArrayList<Figure> partialKeyAttribute, ArrayList<Figure> multivaluedAttribute) {
+	   WeakEntityScan scan = new WeakEntityScan();
+	   for (Figure h: weakEntity) {
+		   for (Figure i: index.getIncident(h, connection)) {
+			   Figure other;
+			   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFracaFigure)h))){
+				   other = ((ConnectionFigure)i).getEndFigure();
+			   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFracaFigure)h))){
+				   other = ((ConnectionFigure)i).getStartFigure();
+			   } else {
+				   continue;
+			   }
+			   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+				   if (other.equals(((AtributoChaveParcialFigure)j))) {
+					   scan.partialKey = j.toString();
+					   scan.partialKeyType = ((AtributoChaveParcialFigure)j).getAttributeType().toString();
+				   }
+			   }
+			   if (scan.multivaluedAttribute == null) {
+				   for (Figure k: index.getEndpoints(i, multivaluedAttribute)) {
+					   if (other.equals(((AtributoMultivaloradoFigure)k))) {
+						   scan.weakEntity = h;
+						   scan.multivaluedAttribute = k;
+						   break;
+					   }
+				   }
+			   }
+		   }
+	   }
+	   return scan;
+   }
+
+   private void generateMultivaluedAttribute(ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, ArrayList<Figure> weakRelationship, ArrayList<Figure> entityRelationship, ArrayList<Figure> connection, ArrayList<Figure> keyAttribute, ArrayList<Figure> partialKeyAttribute, ArrayList<Figure> multivaluedAttribute, ArrayList<Figure> singleLineConnectionUm, ArrayList<Figure> singleLineConnectionN, ArrayList<Figure> doubleLineConnectionUm, ArrayList<Figure> doubleLineConnectionN) throws IOException {
+	   ArrayList<Figure> lineconnectors = union(union(singleLineConnectionUm, singleLineConnectionN), union(doubleLineConnectionUm, doubleLineConnectionN));
+	   ArrayList<Figure> slcN = new ArrayList<Figure>();
+	   ArrayList<Figure> dlcN = new ArrayList<Figure>();
+	   Locals locals = locals(MULTIVALUED_LOCALS);
+	   String entRel = locals.entRel;
+	   String partialKey = locals.partialKey;
+	   String partialKeyType = locals.partialKeyType;
+	   String ownerEntity = locals.ownerEntity;
+	   String ownerKey = locals.ownerKey;
+	   String ownerKeyType = locals.ownerKeyType;
+	   String ownerEntity2 = locals.ownerEntity2;
+	   String ownerKey2 = locals.ownerKey2;
+	   String ownerKeyType2 = locals.ownerKeyType2;
+	   String mycontent = locals.mycontent;
+	   String mycontent2 = locals.mycontent2;
+	   String mycontent3 = locals.mycontent3;
+	   boolean done = locals.done;
+	   WeakEntityScan weakEntityScan = this.weakEntityScan;
+
+	   for (Figure a: iterate(strongEntity)) {
+		   for (Figure b: index.getIncident(a, connection)) {
+			   if (((ConnectionFigure)b).getStartFigure().equals(((EntidadeFigure)a))){
+				   for (Figure c: index.getEndpoints(b, keyAttribute)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(((AtributoChaveFigure)c))) {
+						   ownerEntity = upperCase(a);
+						   ownerKey = c.toString();
+						   ownerKeyType = ((AtributoChaveFigure)c).getAttributeType().toString();
+					   }
+				   }
+				   for (Figure d: index.getEndpoints(b, multivaluedAttribute)) {
+					   if (((ConnectionFigure)b).getEndFigure().equals(((AtributoMultivaloradoFigure)d))) {
+						   mycontent = "\nCREATE TABLE " + ownerEntity + "_" + upperCase(d) + "(";
+						   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\tpk-" + lowerCase(d) + " NUMBER NOT NULL,";
+						   mycontent3 = "\n\t" + lowerCase(d) + " " + ((AtributoMultivaloradoFigure)d).getAttributeType() + " " + (((AtributoMultivaloradoFigure)d).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+						   out.write(mycontent);
+						   out.write(mycontent2);
+						   out.write(mycontent3);
+						   mycontent = "\nALTER TABLE " + ownerEntity + "_" + upperCase(d) + " ADD CONSTRAINT PK_" + ownerEntity + "_" + upperCase(d) + " PRIMARY KEY (pk-" + lowerCase(d) + ");\n";
+						   mycontent2 = "ALTER TABLE " + ownerEntity + "_" + upperCase(d) + " ADD CONSTRAINT FK_" + ownerEntity + "_" + upperCase(d) + " FOREIGN KEY (" + ownerKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+						   out.write(mycontent);
+						   out.write(mycontent2);
+					   }
+				   }          			
+			   } else if (((ConnectionFigure)b).getEndFigure().equals(((EntidadeFigure)a))){
+				   for (Figure c: index.getEndpoints(b, keyAttribute)) {
+					   if (((ConnectionFigure)b).getStartFigure().equals(((AtributoChaveFigure)c))) {
+						   ownerEntity = upperCase(a);
+						   ownerKey = c.toString();
+						   ownerKeyType = ((AtributoChaveFigure)c).getAttributeType().toString();
+					   }
+				   }
+				   for (Figure d: index.getEndpoints(b, multivaluedAttribute)) {
+					   if (((ConnectionFigure)b).getStartFigure().equals(((AtributoMultivaloradoFigure)d))) {
+						   mycontent = "\nCREATE TABLE " + ownerEntity + "_" + upperCase(d) + "(";
+						   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\tpk-" + lowerCase(d) + " NUMBER NOT NULL,";
+						   mycontent3 = "\n\t" + lowerCase(d) + " " + ((AtributoMultivaloradoFigure)d).getAttributeType() + " " + (((AtributoMultivaloradoFigure)d).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+						   out.write(mycontent);
+						   out.write(mycontent2);
+						   out.write(mycontent3);
+						   mycontent = "\nALTER TABLE " + ownerEntity + "_" + upperCase(d) + " ADD CONSTRAINT PK_" + ownerEntity + "_" + upperCase(d) + " PRIMARY KEY (pk-" + lowerCase(d) + ");\n";
+						   mycontent2 = "ALTER TABLE " + ownerEntity + "_" + upperCase(d) + " ADD CONSTRAINT FK_" + ownerEntity + "_" + upperCase(d) + " FOREIGN KEY (" + ownerKey + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+						   out.write(mycontent);
+						   out.write(mycontent2);                                
+					   }
+				   }           			            			
+			   }                      
+		   }
+	   }
+
+	   for (Figure e : iterate(weakRelationship)) {
+		   for (Figure f : index.getIncident(e, lineconnectors)) {
+			   if (((ConnectionFigure)f).getEndFigure().equals(((RelacionamentoFracoFigure)e))) {
+				   for (Figure g : index.getEndpoints(f, strongEntity)) {
+					   if (((ConnectionFigure)f).getStartFigure().equals(((EntidadeFigure)g))) {
+						   for (Figure h: index.getIncident(g, connection)) {
+							   if (((ConnectionFigure)h).getStartFigure().equals(((EntidadeFigure)g))){
+								   for (Figure i: index.getEndpoints(h, keyAttribute)) {
+									   if (((ConnectionFigure)h).getEndFigure().equals(((AtributoChaveFigure)i))) {
+										   ownerKey = i.toString();
+										   ownerKeyType = ((AtributoChaveFigure)i).getAttributeType().toString();
+									   }
+								   }
+							   } else if (((ConnectionFigure)h).getEndFigure().equals(((EntidadeFigure)g))){
+								   for (Figure i: index.getEndpoints(h, keyAttribute)) {
+									   if (((ConnectionFigure)h).getStartFigure().equals(((AtributoChaveFigure)i))) {
+										   ownerKey = i.toString();
+										   ownerKeyType = ((AtributoChaveFigure)i).getAttributeType().toString();
+									   }
+								   }                       
+							   }                      
+						   }    
+					   }
+				   }
+				   if (weakEntityScan == null) {
+					   weakEntityScan = scanWeakEntities(weakEntity, connection, partialKeyAttribute, multivaluedAttribute);
+				   }
+				   if (weakEntityScan.partialKey != null) {
+					   partialKey = weakEntityScan.partialKey;
+					   partialKeyType = weakEntityScan.partialKeyType;
+				   }
+				   if (weakEntityScan.multivaluedAttribute != null && done == false) {
+					   Figure h = weakEntityScan.weakEntity;
+					   Figure k = weakEntityScan.multivaluedAttribute;
+					   mycontent = "\nCREATE TABLE " + upperCase(h) + "_" + upperCase(k) + "(";
+					   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\t" + partialKey + " " + partialKeyType + " NOT NULL,\n\tpk-" + lowerCase(k) + " NUMBER NOT NULL,";
+					   mycontent3 = "\n\t" + lowerCase(k) + " " + ((AtributoMultivaloradoFigure)k).getAttributeType() + " " + (((AtributoMultivaloradoFigure)k).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+					   out.write(mycontent);
+					   out.write(mycontent2);
+					   out.write(mycontent3);
+					   mycontent = "ALTER TABLE " + upperCase(h) + "_" + upperCase(k) + " ADD CONSTRAINT PK_" + upperCase(h) + "_" + upperCase(k) + " PRIMARY KEY (pk-" + lowerCase(k) + ");\n";
+					   mycontent2 = "ALTER TABLE " + upperCase(h) + "_" + upperCase(k) + " ADD CONSTRAINT FK_" + upperCase(h) + "_" + upperCase(k) + " FOREIGN KEY (" + partialKey + ", " + ownerKey + ") REFERENCES " + upperCase(h) + " (" + partialKey + ", " + ownerKey + ");\n";
+					   out.write(mycontent);
+					   out.write(mycontent2);
+					   done = true;
+				   }
+			   }
+		   }
+		   done = false;
+	   }         
+
+	   for (Figure a : iterate(entityRelationship)) {
+		   //Check the number of connections to check the type of relationship
+		   for (Figure b : index.getIncident(a, singleLineConnectionN)) {
+			   if(((ConnectionFigure)b).getEndFigure().equals(a)) slcN.add(b);
+		   }
+		   for (Figure c : index.getIncident(a, doubleLineConnectionN)) {
+			   if(((ConnectionFigure)c).getEndFigure().equals(a)) dlcN.add(c);
+		   }
+
+		   entRel = upperCase(a);
+
+		   if(slcN.size() == 2){
+			   for (int i = 0; i < slcN.size()-1; i++) {
+				   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (int i = 1; i < slcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (Figure j: index.getIncident(a, connection)) {
+				   if (((ConnectionFigure)j).getStartFigure().equals(((EntidadeRelacionamentoFigure)a))){
+					   for (Figure l: index.getEndpoints(j, multivaluedAttribute)) {
+						   if (((ConnectionFigure)j).getEndFigure().equals(((AtributoMultivaloradoFigure)l))) {
+							   mycontent = "\nCREATE TABLE " + entRel + "_" + upperCase(l) + "(";
+							   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + " " + ownerKeyType2 + " NOT NULL,\n\tpk-" + lowerCase(l) + " NUMBER NOT NULL,";
+							   mycontent3 = "\n\t" + lowerCase(l) + " " + ((AtributoMultivaloradoFigure)l).getAttributeType() + " " + (((AtributoMultivaloradoFigure)l).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+							   out.write(mycontent3);
+							   mycontent = "\nALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT PK_" + entRel + "_" + upperCase(l) + " PRIMARY KEY (pk-" + lowerCase(l) + ");\n";
+							   mycontent2 = "ALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT FK_" + entRel + "_" + upperCase(l) + " FOREIGN KEY (" + ownerKey + ", " + ownerKey2 + ") REFERENCES " + entRel + " (" + ownerKey + ", " + ownerKey2 + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   }
+					   }          			
+				   } else if (((ConnectionFigure)j).getEndFigure().equals(((EntidadeRelacionamentoFigure)a))){
+					   for (Figure l: index.getEndpoints(j, multivaluedAttribute)) {
+						   if (((ConnectionFigure)j).getStartFigure().equals(((AtributoMultivaloradoFigure)l))) {
+							   mycontent = "\nCREATE TABLE " + entRel + "_" + upperCase(l) + "(";
+							   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + " " + ownerKeyType2 + " NOT NULL,\n\tpk-" + lowerCase(l) + " NUMBER NOT NULL,";
+							   mycontent3 = "\n\t" + lowerCase(l) + " " + ((AtributoMultivaloradoFigure)l).getAttributeType() + " " + (((AtributoMultivaloradoFigure)l).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+							   out.write(mycontent3);
+							   mycontent = "\nALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT PK_" + entRel + "_" + upperCase(l) + " PRIMARY KEY (pk-" + lowerCase(l) + ");\n";
+							   mycontent2 = "ALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT FK_" + entRel + "_" + upperCase(l) + " FOREIGN KEY (" + ownerKey + ", " + ownerKey2 + ") REFERENCES " + entRel + " (" + ownerKey + ", " + ownerKey2 + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);                                
+						   }
+					   }           			            			
+				   }                      
+			   }
+		   } else if (slcN.size() == 1 && dlcN.size() == 1){
+			   for (int i = 0; i < slcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (int i = 0; i < dlcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (Figure j: index.getIncident(a, connection)) {
+				   if (((ConnectionFigure)j).getStartFigure().equals(((EntidadeRelacionamentoFigure)a))){
+					   for (Figure l: index.getEndpoints(j, multivaluedAttribute)) {
+						   if (((ConnectionFigure)j).getEndFigure().equals(((AtributoMultivaloradoFigure)l))) {
+							   mycontent = "\nCREATE TABLE " + entRel + "_" + upperCase(l) + "(";
+							   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + " " + ownerKeyType2 + " NOT NULL,\n\tpk-" + lowerCase(l) + " NUMBER NOT NULL,";
+							   mycontent3 = "\n\t" + lowerCase(l) + " " + ((AtributoMultivaloradoFigure)l).getAttributeType() + " " + (((AtributoMultivaloradoFigure)l).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+							   out.write(mycontent3);
+							   mycontent = "\nALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT PK_" + entRel + "_" + upperCase(l) + " PRIMARY KEY (pk-" + lowerCase(l) + ");\n";
+							   mycontent2 = "ALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT FK_" + entRel + "_" + upperCase(l) + " FOREIGN KEY (" + ownerKey + ", " + ownerKey2 + ") REFERENCES " + entRel + " (" + ownerKey + ", " + ownerKey2 + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   }
+					   }          			
+				   } else if (((ConnectionFigure)j).getEndFigure().equals(((EntidadeRelacionamentoFigure)a))){
+					   for (Figure l: index.getEndpoints(j, multivaluedAttribute)) {
+						   if (((ConnectionFigure)j).getStartFigure().equals(((AtributoMultivaloradoFigure)l))) {
+							   mycontent = "\nCREATE TABLE " + entRel + "_" + upperCase(l) + "(";
+							   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + " " + ownerKeyType2 + " NOT NULL,\n\tpk-" + lowerCase(l) + " NUMBER NOT NULL,";
+							   mycontent3 = "\n\t" + lowerCase(l) + " " + ((AtributoMultivaloradoFigure)l).getAttributeType() + " " + (((AtributoMultivaloradoFigure)l).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+							   out.write(mycontent3);
+							   mycontent = "\nALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT PK_" + entRel + "_" + upperCase(l) + " PRIMARY KEY (pk-" + lowerCase(l) + ");\n";
+							   mycontent2 = "ALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT FK_" + entRel + "_" + upperCase(l) + " FOREIGN KEY (" + ownerKey + ", " + ownerKey2 + ") REFERENCES " + entRel + " (" + ownerKey + ", " + ownerKey2 + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);                                
+						   }
+					   }           			            			
+				   }                      
+			   }
+		   } else if (dlcN.size() == 2){
+			   for (int i = 0; i < dlcN.size()-1; i++) {
+				   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (int i = 1; i < dlcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (Figure j: index.getIncident(a, connection)) {
+				   if (((ConnectionFigure)j).getStartFigure().equals(((EntidadeRelacionamentoFigure)a))){
+					   for (Figure l: index.getEndpoints(j, multivaluedAttribute)) {
+						   if (((ConnectionFigure)j).getEndFigure().equals(((AtributoMultivaloradoFigure)l))) {
+							   mycontent = "\nCREATE TABLE " + entRel + "_" + upperCase(l) + "(";
+							   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + " " + ownerKeyType2 + " NOT NULL,\n\tpk-" + lowerCase(l) + " NUMBER NOT NULL,";
+							   mycontent3 = "\n\t" + lowerCase(l) + " " + ((AtributoMultivaloradoFigure)l).getAttributeType() + " " + (((AtributoMultivaloradoFigure)l).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+							   out.write(mycontent3);
+							   mycontent = "\nALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT PK_" + entRel + "_" + upperCase(l) + " PRIMARY KEY (pk-" + lowerCase(l) + ");\n";
+							   mycontent2 = "ALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT FK_" + entRel + "_" + upperCase(l) + " FOREIGN KEY (" + ownerKey + ", " + ownerKey2 + ") REFERENCES " + entRel + " (" + ownerKey + ", " + ownerKey2 + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   }
+					   }          			
+				   } else if (((ConnectionFigure)j).getEndFigure().equals(((EntidadeRelacionamentoFigure)a))){
+					   for (Figure l: index.getEndpoints(j, multivaluedAttribute)) {
+						   if (((ConnectionFigure)j).getStartFigure().equals(((AtributoMultivaloradoFigure)l))) {
+							   mycontent = "\nCREATE TABLE " + entRel + "_" + upperCase(l) + "(";
+							   mycontent2 = "\n\t" + ownerKey + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + " " + ownerKeyType2 + " NOT NULL,\n\tpk-" + lowerCase(l) + " NUMBER NOT NULL,";
+							   mycontent3 = "\n\t" + lowerCase(l) + " " + ((AtributoMultivaloradoFigure)l).getAttributeType() + " " + (((AtributoMultivaloradoFigure)l).isNullable() != true ? "NOT NULL" : "") + "\n);\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+							   out.write(mycontent3);
+							   mycontent = "\nALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT PK_" + entRel + "_" + upperCase(l) + " PRIMARY KEY (pk-" + lowerCase(l) + ");\n";
+							   mycontent2 = "ALTER TABLE " + entRel + "_" + upperCase(l) + " ADD CONSTRAINT FK_" + entRel + "_" + upperCase(l) + " FOREIGN KEY (" + ownerKey + ", " + ownerKey2 + ") REFERENCES " + entRel + " (" + ownerKey + ", " + ownerKey2 + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);                                
+						   }
+					   }           			            			
+				   }                      
+			   }
+		   }
+		   slcN.clear();
+		   dlcN.clear();
+	   }
+	   locals.entRel = entRel;
+	   locals.partialKey = partialKey;
+	   locals.partialKeyType = partialKeyType;
+	   locals.ownerEntity = ownerEntity;
+	   locals.ownerKey = ownerKey;
+	   locals.ownerKeyType = ownerKeyType;
+	   locals.ownerEntity2 = ownerEntity2;
+	   locals.ownerKey2 = ownerKey2;
+	   locals.ownerKeyType2 = ownerKeyType2;
+	   locals.mycontent = mycontent;
+	   locals.mycontent2 = mycontent2;
+	   locals.mycontent3 = mycontent3;
+	   locals.done = done;
+   }
+}
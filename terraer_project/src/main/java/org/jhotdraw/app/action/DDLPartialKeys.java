@@ -0,0 +1,752 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the columns, primary keys and foreign keys, which the weak
+ * relationships add to the tables of their weak entities.
+ *
+ * @see DDLGenerator
+ */
+class DDLPartialKeys extends DDLSection {
+    DDLPartialKeys(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generatePartialKey(m.strongEntity, m.weakEntity, m.connection, m.singleLineConnectionUm, m.singleLineConnectionN, m.doubleLineConnectionUm, m.doubleLineConnectionN, m.keyAttribute, m.partialKeyAttribute, m.weakRelationship, m.genspecDisjoint, m.genspecOverlap, m.singleLineGenSpecConn, m.doubleLineGenSpecConn, m.genSpecLineConn);
+    }
+
+    List<ArrayList<Figure>> getOuterLists(DDLGenerator.Figures m) {
+        ArrayList<ArrayList<Figure>> lists = new ArrayList<ArrayList<Figure>>(1);
+        lists.add(m.weakRelationship);
+        return lists;
+    }
+
+   public void generatePartialKey(ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, ArrayList<Figure> connection, ArrayList<Figure> singleLineConnectionUm, ArrayList<Figure> singleLineConnectionN, ArrayList<Figure> doubleLineConnectionUm, ArrayList<Figure> doubleLineConnectionN, ArrayList<Figure> keyAttribute, ArrayList<Figure> partialKeyAttribute, ArrayList<Figure> weakRelationship, ArrayList<Figure> genspecDisjoint, ArrayList<Figure> genspecOverlap, ArrayList<Figure> singleLineGenSpecConn, ArrayList<Figure> doubleLineGenSpecConn, ArrayList<Figure> genSpecLineConn) throws IOException {
+	   ArrayList<Figure> lineconnectors = union(union(singleLineConnectionUm, singleLineConnectionN), union(doubleLineConnectionUm, doubleLineConnectionN));
+
+	   ArrayList<Figure> genspecFigures = union(genspecDisjoint, genspecOverlap);
+	   ArrayList<Figure> genspecConnectors = union(singleLineGenSpecConn, doubleLineGenSpecConn);
+
+	   Locals locals = locals(PARTIAL_KEY_LOCALS);
+	   String mycontent = locals.mycontent;
+	   String mycontent2 = locals.mycontent2;
+	   String mycontent3 = locals.mycontent3;
+	   String ownerEntity = locals.ownerEntity;
+	   String keyAtt = locals.keyAtt;
+	   String keyAttType = locals.keyAttType;
+	   String keyAttNullable = locals.keyAttNullable;
+
+	   if(genspecFigures.isEmpty()){
+		   partialKeyGenerator(strongEntity, weakEntity, connection, singleLineConnectionUm, singleLineConnectionN, doubleLineConnectionUm, doubleLineConnectionN, keyAttribute, partialKeyAttribute, weakRelationship);
+	   } else if (!genspecFigures.isEmpty()){
+		   for (Figure f : iterate(weakRelationship)) {
+			   for (Figure g : index.getIncident(f, lineconnectors)) {
+				   if (((ConnectionFigure)g).getEndFigure().equals(((RelacionamentoFracoFigure)f))) {
+					   for (Figure h : index.getEndpoints(g, strongEntity)) {
+						   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFigure)h))) {
+							   for (Figure i : index.getIncident(h, genSpecLineConn)) {
+								   if(((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j : index.getEndpoints(i, genspecFigures)){
+										   if(((ConnectionFigure)i).getStartFigure().equals(j)){
+											   for (Figure k : index.getIncident(j, genspecConnectors)){
+												   if (((ConnectionFigure)k).getStartFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getEndFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   } else if (((ConnectionFigure)k).getEndFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getStartFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   }
+											   }
+										   }
+									   }
+								   }
+							   }
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFigure)h))){    							   
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }                       
+								   }                      
+							   }    
+						   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFigure)h))) {
+							   for (Figure i : index.getIncident(h, genSpecLineConn)) {
+								   if(((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j : index.getEndpoints(i, genspecFigures)){
+										   if(((ConnectionFigure)i).getStartFigure().equals(j)){
+											   for (Figure k : index.getIncident(j, genspecConnectors)){
+												   if (((ConnectionFigure)k).getStartFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getEndFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   } else if (((ConnectionFigure)k).getEndFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getStartFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   }
+											   }
+										   }
+									   }
+								   }
+							   }
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFigure)h))){    							   
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }                       
+								   }                      
+							   }    
+						   }
+					   }
+					   for (Figure h : index.getEndpoints(g, weakEntity)) {
+						   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFracaFigure)h))) {
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }                       
+								   }                      
+							   }    
+						   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFracaFigure)h))) {
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }                       
+								   }                      
+							   }    
+						   }
+					   }
+				   } else if (((ConnectionFigure)g).getStartFigure().equals(((RelacionamentoFracoFigure)f))) {
+					   for (Figure h : index.getEndpoints(g, strongEntity)) {
+						   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFigure)h))) {
+							   for (Figure i : index.getIncident(h, genSpecLineConn)) {
+								   if(((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j : index.getEndpoints(i, genspecFigures)){
+										   if(((ConnectionFigure)i).getStartFigure().equals(j)){
+											   for (Figure k : index.getIncident(j, genspecConnectors)){
+												   if (((ConnectionFigure)k).getStartFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getEndFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   } else if (((ConnectionFigure)k).getEndFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getStartFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   }
+											   }
+										   }
+									   }
+								   }
+							   }
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFigure)h))){    							   
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }                       
+								   }                      
+							   }    
+						   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFigure)h))) {
+							   for (Figure i : index.getIncident(h, genSpecLineConn)) {
+								   if(((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j : index.getEndpoints(i, genspecFigures)){
+										   if(((ConnectionFigure)i).getStartFigure().equals(j)){
+											   for (Figure k : index.getIncident(j, genspecConnectors)){
+												   if (((ConnectionFigure)k).getStartFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getEndFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   } else if (((ConnectionFigure)k).getEndFigure().equals(j)){
+													   for (Figure l : index.getEndpoints(k, strongEntity)){
+														   if (((ConnectionFigure)k).getStartFigure().equals(l)){
+															   for (Figure m: index.getIncident(l, connection)) {
+																   if (((ConnectionFigure)m).getStartFigure().equals(((EntidadeFigure)l))){    							   
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getEndFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }
+																   } else if (((ConnectionFigure)m).getEndFigure().equals(((EntidadeFigure)l))){
+																	   for (Figure n: index.getEndpoints(m, keyAttribute)) {
+																		   if (((ConnectionFigure)m).getStartFigure().equals(((AtributoChaveFigure)n))) {
+																			   ownerEntity = upperCase(l);
+																			   keyAtt = n.toString();
+																			   keyAttType = ((AtributoChaveFigure)n).getAttributeType().toString();
+																			   keyAttNullable = (((AtributoChaveFigure)n).isNullable() != true ? "NOT NULL" : "");
+																		   }
+																	   }                       
+																   }                      
+															   }
+														   }
+													   }
+												   }
+											   }
+										   }
+									   }
+								   }
+							   }
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFigure)h))){    							   
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFigure)h))){
+									   for (Figure j: index.getEndpoints(i, keyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveFigure)j))) {
+											   ownerEntity = upperCase(h);
+											   keyAtt = j.toString();
+											   keyAttType = ((AtributoChaveFigure)j).getAttributeType().toString();
+											   keyAttNullable = (((AtributoChaveFigure)j).isNullable() != true ? "NOT NULL" : "");
+										   }
+									   }                       
+								   }                      
+							   }    
+						   }
+					   }
+					   for (Figure h : index.getEndpoints(g, weakEntity)) {
+						   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFracaFigure)h))) {
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }                       
+								   }                      
+							   }    
+						   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFracaFigure)h))) {
+							   for (Figure i: index.getIncident(h, connection)) {
+								   if (((ConnectionFigure)i).getStartFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getEndFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }
+								   } else if (((ConnectionFigure)i).getEndFigure().equals(((EntidadeFracaFigure)h))){
+									   for (Figure j: index.getEndpoints(i, partialKeyAttribute)) {
+										   if (((ConnectionFigure)i).getStartFigure().equals(((AtributoChaveParcialFigure)j))) {
+											   mycontent = "\nALTER TABLE " + upperCase(h) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+											   mycontent2 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT FK_" + upperCase(h) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+											   mycontent3 = "ALTER TABLE " + upperCase(h) + " ADD CONSTRAINT PK_" + upperCase(h) + " PRIMARY KEY (" + j.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+											   out.write(mycontent);
+											   out.write(mycontent2);
+											   out.write(mycontent3);
+										   }
+									   }                       
+								   }                      
+							   }    
+						   }
+					   }
+				   }
+			   }
+		   }
+	   }
+	   locals.mycontent = mycontent;
+	   locals.mycontent2 = mycontent2;
+	   locals.mycontent3 = mycontent3;
+	   locals.ownerEntity = ownerEntity;
+	   locals.keyAtt = keyAtt;
+	   locals.keyAttType = keyAttType;
+	   locals.keyAttNullable = keyAttNullable;
+   }
+   
+   public void partialKeyGenerator(ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, ArrayList<Figure> connection, ArrayList<Figure> singleLineConnectionUm, ArrayList<Figure> singleLineConnectionN, ArrayList<Figure> doubleLineConnectionUm, ArrayList<Figure> doubleLineConnectionN, ArrayList<Figure> keyAttribute, ArrayList<Figure> partialKeyAttribute, ArrayList<Figure> weakRelationship) throws IOException {
+	   ArrayList<Figure> lineconnectors = union(union(singleLineConnectionUm, singleLineConnectionN), union(doubleLineConnectionUm, doubleLineConnectionN));
+
+	   Locals locals = locals(PARTIAL_KEY_GENERATOR_LOCALS);
+	   String mycontent = locals.mycontent;
+	   String mycontent2 = locals.mycontent2;
+	   String mycontent3 = locals.mycontent3;
+	   String ownerEntity = locals.ownerEntity;
+	   String keyAtt = locals.keyAtt;
+	   String keyAttType = locals.keyAttType;
+	   String keyAttNullable = locals.keyAttNullable;
+
+	   for (Figure a : iterate(weakRelationship)) {
+		   for (Figure b : index.getIncident(a, lineconnectors)) {
+			   if (((ConnectionFigure)b).getEndFigure().equals(((RelacionamentoFracoFigure)a))){
+				   for (Figure c : index.getEndpoints(b, strongEntity)) {
+					   if(((ConnectionFigure)b).getStartFigure().equals(((EntidadeFigure)c))){
+						   for (Figure d: index.getIncident(c, connection)) {
+							   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){    							   
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }
+							   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }                       
+							   }                      
+						   } 
+					   } else if(((ConnectionFigure)b).getEndFigure().equals(((EntidadeFigure)c))){
+						   for (Figure d: index.getIncident(c, connection)) {
+							   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){    							   
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }
+							   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }                       
+							   }                      
+						   } 
+					   }
+				   }
+				   for (Figure f : index.getEndpoints(b, weakEntity)) {
+					   if (((ConnectionFigure)b).getStartFigure().equals(((EntidadeFracaFigure)f))) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }                       
+							   }                      
+						   }    
+					   } else if (((ConnectionFigure)b).getEndFigure().equals(((EntidadeFracaFigure)f))) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }                       
+							   }                      
+						   }    
+					   }
+				   }
+			   } else if (((ConnectionFigure)b).getStartFigure().equals(((RelacionamentoFracoFigure)a))){
+				   for (Figure c : index.getEndpoints(b, strongEntity)) {
+					   if(((ConnectionFigure)b).getStartFigure().equals(((EntidadeFigure)c))){
+						   for (Figure d: index.getIncident(c, connection)) {
+							   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){    							   
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }
+							   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }                       
+							   }                      
+						   } 
+					   } else if(((ConnectionFigure)b).getEndFigure().equals(((EntidadeFigure)c))){
+						   for (Figure d: index.getIncident(c, connection)) {
+							   if (((ConnectionFigure)d).getStartFigure().equals(((EntidadeFigure)c))){    							   
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getEndFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }
+							   } else if (((ConnectionFigure)d).getEndFigure().equals(((EntidadeFigure)c))){
+								   for (Figure e: index.getEndpoints(d, keyAttribute)) {
+									   if (((ConnectionFigure)d).getStartFigure().equals(((AtributoChaveFigure)e))) {
+										   ownerEntity = upperCase(c);
+										   keyAtt = e.toString();
+										   keyAttType = ((AtributoChaveFigure)e).getAttributeType().toString();
+										   keyAttNullable = (((AtributoChaveFigure)e).isNullable() != true ? "NOT NULL" : "");
+									   }
+								   }                       
+							   }                      
+						   } 
+					   }
+				   }
+				   for (Figure f : index.getEndpoints(b, weakEntity)) {
+					   if (((ConnectionFigure)b).getStartFigure().equals(((EntidadeFracaFigure)f))) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }                       
+							   }                      
+						   }    
+					   } else if (((ConnectionFigure)b).getEndFigure().equals(((EntidadeFracaFigure)f))) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(((EntidadeFracaFigure)f))){
+								   for (Figure h: index.getEndpoints(g, partialKeyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveParcialFigure)h))) {
+										   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + keyAtt + "_" + ownerEntity.toLowerCase() + " " + keyAttType + " " + keyAttNullable + ";\n";  
+										   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + keyAtt + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + keyAtt + ");\n";
+										   mycontent3 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT PK_" + upperCase(f) + " PRIMARY KEY (" + h.toString() + ", " + keyAtt + "_" + ownerEntity.toLowerCase() + ");\n" ;
+										   out.write(mycontent);
+										   out.write(mycontent2);
+										   out.write(mycontent3);
+									   }
+								   }                       
+							   }                      
+						   }    
+					   }
+				   }
+			   }
+		   }
+	   }
+	   locals.mycontent = mycontent;
+	   locals.mycontent2 = mycontent2;
+	   locals.mycontent3 = mycontent3;
+	   locals.ownerEntity = ownerEntity;
+	   locals.keyAtt = keyAtt;
+	   locals.keyAttType = keyAttType;
+	   locals.keyAttNullable = keyAttNullable;
+   }
+}
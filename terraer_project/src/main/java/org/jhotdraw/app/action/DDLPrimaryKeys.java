@@ -0,0 +1,58 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the primary key constraints of the strong entities. An entity
+ * with several key attributes gets a numbered constraint for each of them.
+ *
+ * @see DDLGenerator
+ */
+class DDLPrimaryKeys extends DDLSection {
+    DDLPrimaryKeys(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generatePrimaryKey(m.strongEntity, m.connection, m.keyAttribute);
+    }
+
+   public void generatePrimaryKey(ArrayList<Figure> strongEntity, ArrayList<Figure> connection, ArrayList<Figure> keyAttribute) throws IOException {
+	   String mycontent = new String();
+	   ArrayList<String> multipleKeyAtt = new ArrayList<String>();
+	   for (Figure i: strongEntity) {
+		   for (Figure j: index.getIncident(i, connection)) {
+			   if (((ConnectionFigure)j).getStartFigure().equals(((EntidadeFigure)i))){
+				   for (Figure k: index.getEndpoints(j, keyAttribute)) {
+					   if (((ConnectionFigure)j).getEndFigure().equals(((AtributoChaveFigure)k))) {
+						   mycontent = "\nALTER TABLE " + upperCase(i) + " ADD CONSTRAINT PK_" + upperCase(i) + " PRIMARY KEY (" + k.toString() + ");\n" ;
+						   multipleKeyAtt.add(mycontent);
+					   }
+				   }
+			   } else if (((ConnectionFigure)j).getEndFigure().equals(((EntidadeFigure)i))){
+				   for (Figure k: index.getEndpoints(j, keyAttribute)) {
+					   if (((ConnectionFigure)j).getStartFigure().equals(((AtributoChaveFigure)k))) {
+						   mycontent = "\nALTER TABLE " + upperCase(i) + " ADD CONSTRAINT PK_" + upperCase(i) + " PRIMARY KEY (" + k.toString() + ");\n" ;
+						   multipleKeyAtt.add(mycontent);
+					   }
+				   }                       
+			   }                      
+		   }
+		   if(multipleKeyAtt.size() >= 2){
+			   int num = 1;
+			   for (int l = 0; l < multipleKeyAtt.size(); l++) {
+				   String aux = String.format("%02d", num);
+				   out.write(multipleKeyAtt.get(l).replaceAll(" PRIMARY KEY", "_<" + aux + "> PRIMARY KEY"));
+				   num++;
+			   }
+		   } else if (!multipleKeyAtt.isEmpty() && multipleKeyAtt.size() < 2 ){
+			   out.write(mycontent);
+			   multipleKeyAtt.clear();
+		   }
+		   multipleKeyAtt.clear();
+	   }
+   }
+}
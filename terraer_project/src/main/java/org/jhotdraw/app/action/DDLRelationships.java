@@ -0,0 +1,1065 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the foreign keys and the tables of the relationships, and the
+ * foreign keys and the triggers of the associative entities.
+ *
+ * @see DDLGenerator
+ */
+class DDLRelationships extends DDLSection {
+    DDLRelationships(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generateRelationships(m.strongEntity, m.connection, m.keyAttribute, m.singleLineConnectionUm, m.singleLineConnectionN, m.doubleLineConnectionUm, m.doubleLineConnectionN, m.relationship, m.entityRelationship);
+    }
+
+    List<ArrayList<Figure>> getOuterLists(DDLGenerator.Figures m) {
+        ArrayList<ArrayList<Figure>> lists = new ArrayList<ArrayList<Figure>>(2);
+        lists.add(m.relationship);
+        lists.add(m.entityRelationship);
+        return lists;
+    }
+
+   public void generateRelationships(ArrayList<Figure> strongEntity, ArrayList<Figure> connection, ArrayList<Figure> keyAttribute, ArrayList<Figure> singleLineConnectionUm,	ArrayList<Figure> singleLineConnectionN, ArrayList<Figure> doubleLineConnectionUm,	ArrayList<Figure> doubleLineConnectionN, ArrayList<Figure> relationship, ArrayList<Figure> entityRelationship) throws IOException {
+	   ArrayList<Figure> slcN = new ArrayList<Figure>();
+	   ArrayList<Figure> dlcN = new ArrayList<Figure>();
+	   Locals locals = locals(RELATIONSHIP_LOCALS);
+	   String entRel = locals.entRel;
+	   String ownerEntity = locals.ownerEntity;
+	   String ownerKey = locals.ownerKey;
+	   String ownerKeyType = locals.ownerKeyType;
+	   String ownerEntity2 = locals.ownerEntity2;
+	   String ownerKey2 = locals.ownerKey2;
+	   String ownerKeyType2 = locals.ownerKeyType2;
+	   String mycontent = locals.mycontent;
+	   String mycontent2 = locals.mycontent2;
+	   String mycontent3 = locals.mycontent3;
+
+	   if (entityRelationship.isEmpty()) {
+		   relationshipGenerator(strongEntity, connection, keyAttribute, singleLineConnectionUm, singleLineConnectionN, doubleLineConnectionUm, doubleLineConnectionN, relationship);
+	   } else if (!entityRelationship.isEmpty()) {
+		   relationshipGenerator(strongEntity, connection, keyAttribute, singleLineConnectionUm, singleLineConnectionN, doubleLineConnectionUm, doubleLineConnectionN, relationship);
+		   for (Figure a : iterate(entityRelationship)) {
+			   //Check the number of connections to check the type of relationship
+			   for (Figure b : index.getIncident(a, singleLineConnectionN)) {
+				   if(((ConnectionFigure)b).getEndFigure().equals(a)) slcN.add(b);
+			   }
+			   for (Figure c : index.getIncident(a, doubleLineConnectionN)) {
+				   if(((ConnectionFigure)c).getEndFigure().equals(a)) dlcN.add(c);
+			   }
+
+			   entRel = upperCase(a);
+
+			   if(slcN.size() == 2){
+				   for (int i = 0; i < slcN.size()-1; i++) {
+					   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)slcN.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   for (int i = 1; i < slcN.size(); i++) {
+					   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)slcN.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   mycontent = "\nALTER TABLE " + entRel + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL";
+				   mycontent2 = "\nALTER TABLE " + entRel + " ADD " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + " " + ownerKeyType2 + " NOT NULL";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   mycontent = "\nALTER TABLE " + entRel + " ADD CONSTRAINT FK_" + entRel + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+				   mycontent2 = "\nALTER TABLE " + entRel + " ADD CONSTRAINT FK2_" + entRel + " FOREING KEY (" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ") REFERENCES " + ownerEntity2 + " (" + ownerKey2 + ");\n";
+				   mycontent3 = "\nALTER TABLE " + entRel + " ADD CONSTRAINT PK_" + entRel + " PRIMARY KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ", " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ");\n";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   out.write(mycontent3);
+			   } else if (slcN.size() == 1 && dlcN.size() == 1){
+				   for (int i = 0; i < slcN.size(); i++) {
+					   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)slcN.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   for (int i = 0; i < dlcN.size(); i++) {
+					   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)dlcN.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   mycontent = "\nALTER TABLE " + entRel + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL";
+				   mycontent2 = "\nALTER TABLE " + entRel + " ADD " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + " " + ownerKeyType2 + " NOT NULL";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   mycontent = "\nALTER TABLE " + entRel + " ADD CONSTRAINT FK_" + entRel + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+				   mycontent2 = "\nALTER TABLE " + entRel + " ADD CONSTRAINT FK2_" + entRel + " FOREING KEY (" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ") REFERENCES " + ownerEntity2 + " (" + ownerKey2 + ");\n";
+				   mycontent3 = "\nALTER TABLE " + entRel + " ADD CONSTRAINT PK_" + entRel + " PRIMARY KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ", " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ");\n";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   out.write(mycontent3);
+			   } else if (dlcN.size() == 2){
+				   for (int i = 0; i < dlcN.size()-1; i++) {
+					   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)dlcN.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   for (int i = 1; i < dlcN.size(); i++) {
+					   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)dlcN.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   mycontent = "\nALTER TABLE " + entRel + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL";
+				   mycontent2 = "\nALTER TABLE " + entRel + " ADD " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + " " + ownerKeyType2 + " NOT NULL";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   mycontent = "\nALTER TABLE " + entRel + " ADD CONSTRAINT FK_" + entRel + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+				   mycontent2 = "\nALTER TABLE " + entRel + " ADD CONSTRAINT FK2_" + entRel + " FOREING KEY (" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ") REFERENCES " + ownerEntity2 + " (" + ownerKey2 + ");\n";
+				   mycontent3 = "\nALTER TABLE " + entRel + " ADD CONSTRAINT PK_" + entRel + " PRIMARY KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ", " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ");\n";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   out.write(mycontent3);
+			   }
+			   slcN.clear();
+			   dlcN.clear();
+		   }
+	   }
+	   locals.entRel = entRel;
+	   locals.ownerEntity = ownerEntity;
+	   locals.ownerKey = ownerKey;
+	   locals.ownerKeyType = ownerKeyType;
+	   locals.ownerEntity2 = ownerEntity2;
+	   locals.ownerKey2 = ownerKey2;
+	   locals.ownerKeyType2 = ownerKeyType2;
+	   locals.mycontent = mycontent;
+	   locals.mycontent2 = mycontent2;
+	   locals.mycontent3 = mycontent3;
+   }   
+   
+   public void relationshipGenerator(ArrayList<Figure> strongEntity, ArrayList<Figure> connection, ArrayList<Figure> keyAttribute, ArrayList<Figure> singleLineConnectionUm,	ArrayList<Figure> singleLineConnectionN, ArrayList<Figure> doubleLineConnectionUm,	ArrayList<Figure> doubleLineConnectionN, ArrayList<Figure> relationship) throws IOException {
+	   ArrayList<Figure> slcUm = new ArrayList<Figure>();
+	   ArrayList<Figure> slcN = new ArrayList<Figure>();
+	   ArrayList<Figure> dlcUm = new ArrayList<Figure>();
+	   ArrayList<Figure> dlcN = new ArrayList<Figure>();
+	   Locals locals = locals(RELATIONSHIP_GENERATOR_LOCALS);
+	   String ownerEntity = locals.ownerEntity;
+	   String ownerKey = locals.ownerKey;
+	   String ownerKeyType = locals.ownerKeyType;
+	   String ownerEntity2 = locals.ownerEntity2;
+	   String ownerKey2 = locals.ownerKey2;
+	   String ownerKeyType2 = locals.ownerKeyType2;
+	   String mycontent = locals.mycontent;
+	   String mycontent2 = locals.mycontent2;
+	   String mycontent3 = locals.mycontent3;
+	   String mycontent4 = locals.mycontent4;
+
+	   for (Figure a : iterate(relationship)) {
+		   //Check the number of connections to check the type of relationship
+		   for (Figure b : index.getIncident(a, singleLineConnectionUm)) {
+			   if(((ConnectionFigure)b).getEndFigure().equals(a)) slcUm.add(b);
+			   if(((ConnectionFigure)b).getStartFigure().equals(a)) slcUm.add(b);
+		   }
+		   for (Figure c : index.getIncident(a, singleLineConnectionN)) {
+			   if(((ConnectionFigure)c).getEndFigure().equals(a)) slcN.add(c);
+			   if(((ConnectionFigure)c).getStartFigure().equals(a)) slcN.add(c);
+		   }
+		   for (Figure d : index.getIncident(a, doubleLineConnectionUm)) {
+			   if(((ConnectionFigure)d).getEndFigure().equals(a)) dlcUm.add(d);
+			   if(((ConnectionFigure)d).getStartFigure().equals(a)) dlcUm.add(d);
+		   }
+		   for (Figure e : index.getIncident(a, doubleLineConnectionN)) {
+			   if(((ConnectionFigure)e).getEndFigure().equals(a)) dlcN.add(e);
+			   if(((ConnectionFigure)e).getStartFigure().equals(a)) dlcN.add(e);
+		   }
+		   //1-1 Relationship (both partial participation)
+		   if (slcUm.size() == 2){
+			   for (int i = 0; i < slcUm.size()-1; i++) {
+				   for (Figure f : index.getEndpoints(slcUm.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcUm.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)slcUm.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (int i = 1; i < slcUm.size(); i++) {
+				   for (Figure f : index.getEndpoints(slcUm.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcUm.get(i)).getStartFigure().equals(f)) {
+						   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + ";\n";
+						   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+						   out.write(mycontent);
+						   out.write(mycontent2);
+					   } else if (((ConnectionFigure)slcUm.get(i)).getEndFigure().equals(f)) {
+						   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + ";\n";
+						   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+						   out.write(mycontent);
+						   out.write(mycontent2);
+					   }
+				   }
+			   }
+		   } else if (slcUm.size() == 1) {
+			   for (int i = 0; i < slcUm.size(); i++) {
+				   for (Figure f : index.getEndpoints(slcUm.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcUm.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)slcUm.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   if (dlcUm.size() > 0) {
+				   for (int i = 0; i < dlcUm.size(); i++) {
+					   for (Figure f : index.getEndpoints(dlcUm.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcUm.get(i)).getStartFigure().equals(f)) {
+							   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL;\n";
+							   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   } else if (((ConnectionFigure)dlcUm.get(i)).getEndFigure().equals(f)) {
+							   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL;\n";
+							   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   }
+					   }
+				   } 
+			   } else if (slcN.size() > 0) {
+				   for (int i = 0; i < slcN.size(); i++) {
+					   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+							   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + ";\n";
+							   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   } else if (((ConnectionFigure)slcN.get(i)).getEndFigure().equals(f)) {
+							   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + ";\n";
+							   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   }
+					   }
+				   } 
+			   } else if (dlcN.size() > 0) {
+				   for (int i = 0; i < dlcN.size(); i++) {
+					   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+							   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL;\n";
+							   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   } else if (((ConnectionFigure)dlcN.get(i)).getEndFigure().equals(f)) {
+							   mycontent = "\nALTER TABLE " + upperCase(f) + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL;\n";
+							   mycontent2 = "ALTER TABLE " + upperCase(f) + " ADD CONSTRAINT FK_" + upperCase(f) + " FOREIGN KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+							   out.write(mycontent);
+							   out.write(mycontent2);
+						   }
+					   }
+				   } 
+			   }
+		   } else if (dlcUm.size() > 0) {
+			   if(dlcUm.size() == 2){
+				   for (int i = 0; i < dlcUm.size()-1; i++) {
+					   for (Figure f : index.getEndpoints(dlcUm.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcUm.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)dlcUm.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   for (int i = 1; i < dlcUm.size(); i++) {
+					   for (Figure f : index.getEndpoints(dlcUm.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcUm.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)dlcUm.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity2 = upperCase(f);
+											   ownerKey2 = h.toString();
+											   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   mycontent = "\nCREATE TABLE " + ownerEntity + "_" + ownerEntity2 + "(\n\t" + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + " " + ownerKeyType2 + " NOT NULL\n);\n";
+				   mycontent2 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+				   mycontent3 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK2_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ") REFERENCES " + ownerEntity2 + " (" + ownerKey2 + ");\n";
+				   mycontent4 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT PK_" + ownerEntity + "_" + ownerEntity2 + " PRIMARY KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ", " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ");\n";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   out.write(mycontent3);
+				   out.write(mycontent4);
+			   } else if (dlcUm.size() == 1) {
+				   for (int i = 0; i < dlcUm.size(); i++) {
+					   for (Figure f : index.getEndpoints(dlcUm.get(i), strongEntity)) {
+						   if (((ConnectionFigure)dlcUm.get(i)).getStartFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   } else if (((ConnectionFigure)dlcUm.get(i)).getEndFigure().equals(f)) {
+							   for (Figure g: index.getIncident(f, connection)) {
+								   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }		            			
+								   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+									   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+										   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+											   ownerEntity = upperCase(f);
+											   ownerKey = h.toString();
+											   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+										   }
+									   }			            			
+								   }                      
+							   }
+						   }
+					   }
+				   }
+				   if (dlcN.size() > 0) {
+					   for (int j = 0; j < dlcN.size(); j++) {
+						   for (Figure k : index.getEndpoints(dlcN.get(j), strongEntity)) {
+							   if (((ConnectionFigure)dlcN.get(j)).getStartFigure().equals(k)) {
+								   ownerEntity2 = upperCase(k);
+							   } else if (((ConnectionFigure)dlcN.get(j)).getEndFigure().equals(k)) {
+								   ownerEntity2 = upperCase(k);
+							   }
+						   }
+					   }
+				   }
+				   mycontent = "\nALTER TABLE " + ownerEntity2 + " ADD " + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL;\n";
+				   mycontent2 = "\nALTER TABLE " + ownerEntity2 + " ADD CONSTRAINT FK_" + ownerEntity2 + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ") INITIALLY DEFERRED DEFERREABLE;\n";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   mycontent = "\nCREATE OR REPLACE TRIGGER relTrigger_" + ownerEntity + " AFTER INSERT OR DELETE OR UPDATE ON " + ownerEntity + "\nREFERENCING NEW AS n OLD AS o FOR EACH ROW\nDECLARE X number;\nBEGIN\n\tIF INSERTING THEN";
+				   mycontent2 = "\n\t\tSELECT COUNT (*) INTO X FROM " + ownerEntity2 + " c WHERE c." + ownerKey + "_" + ownerEntity.toLowerCase() + " = :n." + ownerKey + "_" + ownerEntity.toLowerCase() + ";\n\t\tIF (X = 0) THEN RAISE_APPLICATION_ERROR(-20000, 'Violacao detectada!'); END IF;\n\tELSEIF UPDATING THEN\n\t\tIF(:n." + ownerKey + "_" + ownerEntity.toLowerCase() + " != :o." + ownerKey + "_" + ownerEntity.toLowerCase() + ") THEN";
+				   mycontent3 = "\n\t\t\tSELECT COUNT (*) INTO X FROM " + ownerEntity2 + " c WHERE c." + ownerKey + "_" + ownerEntity.toLowerCase() + " = :o." + ownerKey + "_" + ownerEntity.toLowerCase() + ";\n\t\t\tIF (X != 0) THEN RAISE_APPLICATION_ERROR(-20001, 'Violacao detectada!'); END IF;";
+				   mycontent4 = "\n\t\t\tSELECT COUNT (*) INTO X FROM " + ownerEntity2 + " c WHERE c." + ownerKey + "_" + ownerEntity.toLowerCase() + " = :n." + ownerKey + "_" + ownerEntity.toLowerCase() + ";\n\t\t\tIF (X = 0) THEN RAISE_APPLICATION_ERROR(-20002, 'Violacao detectada!'); END IF;\n\t\tEND IF;\n\tELSEIF DELETING THEN";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   out.write(mycontent3);
+				   out.write(mycontent4);
+				   mycontent = "\n\t\t\tSELECT COUNT (*) INTO X FROM " + ownerEntity2 + " c WHERE c." + ownerKey + "_" + ownerEntity.toLowerCase() + " = :o." + ownerKey + "_" + ownerEntity.toLowerCase() + ";\n\t\tIF (X != 0) THEN RAISE_APPLICATION_ERROR(-20003, 'Violacao detectada!'); END IF;\n\tEND IF\nEND;\n";
+				   mycontent2 = "\nCREATE OR REPLACE TRIGGER relTrigger_" + ownerEntity2 + " AFTER INSERT OR DELETE OR UPDATE ON " + ownerEntity2 + "\nREFERENCING NEW AS n OLD AS o FOR EACH ROW\nDECLARE Y number; PRAGMA AUTONOMOUS_TRANSACTION;\nBEGIN\n\tIF DELETING THEN";
+				   mycontent3 = "\n\t\tSELECT COUNT (*) INTO Y FROM " + ownerEntity2 + " c WHERE c." + ownerKey + "_" + ownerEntity.toLowerCase() + " = :o." + ownerKey + "_" + ownerEntity.toLowerCase() + ";\n\t\tIF (Y != 0) THEN RAISE_APPLICATION_ERROR(-20004, 'Violacao detectada!'); END IF;\n\tELSEIF UPDATING THEN\n\t\tIF(:o." + ownerKey + "_" + ownerEntity.toLowerCase() + " != :n." + ownerKey + "_" + ownerEntity.toLowerCase() + ") THEN";
+				   mycontent4 = "\n\t\t\tSELECT COUNT (*) INTO Y FROM " + ownerEntity2 + " c WHERE c." + ownerKey + "_" + ownerEntity.toLowerCase() + " = :o." + ownerKey + "_" + ownerEntity.toLowerCase() + ";\n\t\t\tIF (Y != 0) THEN RAISE_APPLICATION_ERROR(-20005, 'Violacao detectada!'); END IF;\n\t\tEND IF;\n\tEND IF;\nEND;";
+				   out.write(mycontent);
+				   out.write(mycontent2);
+				   out.write(mycontent3);
+				   out.write(mycontent4);
+			   } 
+		   }else if(slcN.size() == 2){
+			   for (int i = 0; i < slcN.size()-1; i++) {
+				   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)slcN.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (int i = 1; i < slcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)slcN.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   mycontent = "\nCREATE TABLE " + ownerEntity + "_" + ownerEntity2 + "(\n\t" + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + " " + ownerKeyType2 + " NOT NULL\n);\n";
+			   mycontent2 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+			   mycontent3 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK2_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ") REFERENCES " + ownerEntity2 + " (" + ownerKey2 + ");\n";
+			   mycontent4 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT PK_" + ownerEntity + "_" + ownerEntity2 + " PRIMARY KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ", " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ");\n";
+			   out.write(mycontent);
+			   out.write(mycontent2);
+			   out.write(mycontent3);
+			   out.write(mycontent4);
+		   } else if (slcN.size() == 1 && dlcN.size() == 1){
+			   for (int i = 0; i < slcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(slcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)slcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)slcN.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (int i = 0; i < dlcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)dlcN.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   mycontent = "\nCREATE TABLE " + ownerEntity + "_" + ownerEntity2 + "(\n\t" + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + " " + ownerKeyType2 + " NOT NULL\n);\n";
+			   mycontent2 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+			   mycontent3 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK2_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ") REFERENCES " + ownerEntity2 + " (" + ownerKey2 + ");\n";
+			   mycontent4 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT PK_" + ownerEntity + "_" + ownerEntity2 + " PRIMARY KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ", " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ");\n";
+			   out.write(mycontent);
+			   out.write(mycontent2);
+			   out.write(mycontent3);
+			   out.write(mycontent4);
+		   } else if (dlcN.size() == 2){
+			   for (int i = 0; i < dlcN.size()-1; i++) {
+				   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)dlcN.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity = upperCase(f);
+										   ownerKey = h.toString();
+										   ownerKeyType = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   for (int i = 1; i < dlcN.size(); i++) {
+				   for (Figure f : index.getEndpoints(dlcN.get(i), strongEntity)) {
+					   if (((ConnectionFigure)dlcN.get(i)).getStartFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   } else if (((ConnectionFigure)dlcN.get(i)).getEndFigure().equals(f)) {
+						   for (Figure g: index.getIncident(f, connection)) {
+							   if (((ConnectionFigure)g).getStartFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getEndFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }		            			
+							   } else if (((ConnectionFigure)g).getEndFigure().equals(f)){
+								   for (Figure h: index.getEndpoints(g, keyAttribute)) {
+									   if (((ConnectionFigure)g).getStartFigure().equals(((AtributoChaveFigure)h))) {
+										   ownerEntity2 = upperCase(f);
+										   ownerKey2 = h.toString();
+										   ownerKeyType2 = ((AtributoChaveFigure)h).getAttributeType().toString();
+									   }
+								   }			            			
+							   }                      
+						   }
+					   }
+				   }
+			   }
+			   mycontent = "\nCREATE TABLE " + ownerEntity + "_" + ownerEntity2 + "(\n\t" + ownerKey + "_" + ownerEntity.toLowerCase() + " " + ownerKeyType + " NOT NULL,\n\t" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + " " + ownerKeyType2 + " NOT NULL\n);\n";
+			   mycontent2 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ") REFERENCES " + ownerEntity + " (" + ownerKey + ");\n";
+			   mycontent3 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT FK2_" + ownerEntity + "_" + ownerEntity2 + " FOREING KEY (" + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ") REFERENCES " + ownerEntity2 + " (" + ownerKey2 + ");\n";
+			   mycontent4 = "\nALTER TABLE " + ownerEntity + "_" + ownerEntity2 + " ADD CONSTRAINT PK_" + ownerEntity + "_" + ownerEntity2 + " PRIMARY KEY (" + ownerKey + "_" + ownerEntity.toLowerCase() + ", " + ownerKey2 + "_" + ownerEntity2.toLowerCase() + ");\n";
+			   out.write(mycontent);
+			   out.write(mycontent2);
+			   out.write(mycontent3);
+			   out.write(mycontent4);
+		   }
+		   slcUm.clear();
+		   slcN.clear();
+		   dlcUm.clear();
+		   dlcN.clear();
+	   }	   
+	   locals.ownerEntity = ownerEntity;
+	   locals.ownerKey = ownerKey;
+	   locals.ownerKeyType = ownerKeyType;
+	   locals.ownerEntity2 = ownerEntity2;
+	   locals.ownerKey2 = ownerKey2;
+	   locals.ownerKeyType2 = ownerKeyType2;
+	   locals.mycontent = mycontent;
+	   locals.mycontent2 = mycontent2;
+	   locals.mycontent3 = mycontent3;
+	   locals.mycontent4 = mycontent4;
+   }
+}
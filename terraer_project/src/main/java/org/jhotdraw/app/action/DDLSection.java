@@ -0,0 +1,160 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jhotdraw.draw.ERSchemaIndex;
+import org.jhotdraw.draw.Figure;
+import org.jhotdraw.interfaces.SQLIdentifierElement;
+
+/**
+ * A section of the DDL script written by {@link DDLGenerator}.
+ * <p>
+ * The generator hands the same writer and {@link ERSchemaIndex} to all of
+ * its sections. The sections which span several tables visit the figures of
+ * their outer loops through {@link #iterate}, and keep the variables which
+ * one iteration leaves to the next in the {@link Locals} of the generator,
+ * so that they can be generated one iteration at a time.
+ */
+abstract class DDLSection {
+    /** The generators which hand their local variables on, see Locals. */
+    final static int PARTIAL_KEY_LOCALS = 0;
+    final static int PARTIAL_KEY_GENERATOR_LOCALS = 1;
+    final static int GENSPEC_LOCALS = 2;
+    final static int RELATIONSHIP_LOCALS = 3;
+    final static int RELATIONSHIP_GENERATOR_LOCALS = 4;
+    final static int MULTIVALUED_LOCALS = 5;
+    final static int LOCALS_COUNT = 6;
+
+    private final DDLGenerator generator;
+    protected Writer out;
+    protected ERSchemaIndex index;
+
+    DDLSection(DDLGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Writes the section for the specified figures.
+     */
+    abstract void generate(DDLGenerator.Figures m) throws IOException;
+
+    /**
+     * Returns the lists the outer loops of the section iterate over, in the
+     * order of the loops. Returns an empty list, if the section can only be
+     * generated as a whole.
+     */
+    List<ArrayList<Figure>> getOuterLists(DDLGenerator.Figures m) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Sets the writer and the index used by the section.
+     */
+    void setOutput(Writer out, ERSchemaIndex index) {
+        this.out = out;
+        this.index = index;
+    }
+
+    /**
+     * Returns the figures an outer loop of the section visits.
+     */
+    protected List<Figure> iterate(ArrayList<Figure> list) {
+        return generator.iterate(list);
+    }
+
+    /**
+     * Returns the local variables of the specified generator.
+     */
+    protected Locals locals(int localsIndex) {
+        return generator.locals(localsIndex);
+    }
+
+    /**
+     * Returns a list holding the members of the first and then the members
+     * of the second list, see DDLGenerator.
+     */
+    protected ArrayList<Figure> union(ArrayList<Figure> first, ArrayList<Figure> second) {
+        return generator.union(first, second);
+    }
+
+    /**
+     * Returns the upper case SQL identifier of a figure, which is cached by
+     * the figures named by a text.
+     */
+    protected static String upperCase(Figure f) {
+        if (f instanceof SQLIdentifierElement) {
+            return ((SQLIdentifierElement) f).getSQLIdentifier().getUpperCase();
+        }
+        return f.toString().toUpperCase().replaceAll("\\s+", "_");
+    }
+
+    /**
+     * Returns the lower case SQL identifier of a figure.
+     */
+    protected static String lowerCase(Figure f) {
+        if (f instanceof SQLIdentifierElement) {
+            return ((SQLIdentifierElement) f).getSQLIdentifier().getLowerCase();
+        }
+        return f.toString().toLowerCase().replaceAll("\\s+", "_");
+    }
+
+    /**
+     * The union of the local variables of the section generators, which
+     * outlive a single iteration of their outer loop.
+     */
+    static class Locals implements Cloneable {
+        String mycontent = "";
+        String mycontent2 = "";
+        String mycontent3 = "";
+        String mycontent4 = "";
+        String ownerEntity = "";
+        String ownerKey = "";
+        String ownerKeyType = "";
+        String ownerEntity2 = "";
+        String ownerKey2 = "";
+        String ownerKeyType2 = "";
+        String entRel = "";
+        String partialKey = "";
+        String partialKeyType = "";
+        String keyAtt = "";
+        String keyAttType = "";
+        String keyAttNullable = "";
+        String specKey = "";
+        ArrayList<String> specName = new ArrayList<String>();
+        boolean done;
+
+        Locals copy() {
+            try {
+                Locals l = (Locals) clone();
+                l.specName = new ArrayList<String>(specName);
+                return l;
+            } catch (CloneNotSupportedException e) {
+                throw new InternalError(e.getMessage());
+            }
+        }
+
+        private Object[] values() {
+            return new Object[] {
+                mycontent, mycontent2, mycontent3, mycontent4,
+                ownerEntity, ownerKey, ownerKeyType, ownerEntity2, ownerKey2, ownerKeyType2,
+                entRel, partialKey, partialKeyType, keyAtt, keyAttType, keyAttNullable,
+                specKey, specName, done
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof Locals) && Arrays.equals(values(), ((Locals) o).values());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.jhotdraw.draw.*;
+
+/**
+ * Writes the CREATE TABLE statements of the strong and the weak entities
+ * with the columns of their attributes, key attributes and partial key
+ * attributes.
+ *
+ * @see DDLGenerator
+ */
+class DDLTables extends DDLSection {
+    DDLTables(DDLGenerator generator) {
+        super(generator);
+    }
+
+    void generate(DDLGenerator.Figures m) throws IOException {
+        generateTables(m.strongEntity, m.weakEntity, m.connection, m.attribute, m.keyAttribute, m.partialKeyAttribute);
+    }
+
+	public void generateTables (ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, ArrayList<Figure> connection, ArrayList<Figure> attribute, ArrayList<Figure> keyAttribute, ArrayList<Figure> partialKeyAttribute) throws IOException {
+		String mycontent = new String();
+		for (Figure i: strongEntity) {
+			mycontent = "CREATE TABLE " + upperCase(i) + "(\n";
+			out.write(mycontent);
+			for (Figure j: index.getIncident(i, connection)) {
+				if (((ConnectionFigure)j).getStartFigure().equals(((EntidadeFigure)i))){
+					for (Figure k: index.getEndpoints(j, attribute)) {
+						if (((ConnectionFigure)j).getEndFigure().equals(((AtributoFigure)k))) {
+							mycontent = k.toString() + " " + (((AtributoFigure)k).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);                                
+						}
+					}
+					for (Figure l: index.getEndpoints(j, keyAttribute)) {
+						if (((ConnectionFigure)j).getEndFigure().equals(((AtributoChaveFigure)l))) {
+							mycontent = l.toString() + " " + ((AtributoChaveFigure)l).getAttributeType() + " " + (((AtributoChaveFigure)l).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);
+						}
+					}            			           			
+				} else if (((ConnectionFigure)j).getEndFigure().equals(((EntidadeFigure)i))){
+					for (Figure k: index.getEndpoints(j, attribute)) {
+						if (((ConnectionFigure)j).getStartFigure().equals(((AtributoFigure)k))) {
+							mycontent = k.toString() + " " + (((AtributoFigure)k).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);
+						}
+					}
+					for (Figure l: index.getEndpoints(j, keyAttribute)) {
+						if (((ConnectionFigure)j).getStartFigure().equals(((AtributoChaveFigure)l))) {
+							mycontent = l.toString() + " " + ((AtributoChaveFigure)l).getAttributeType() + " " + (((AtributoChaveFigure)l).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);
+						}
+					}            			            			
+				}                      
+			}
+			mycontent = ");\n";
+			out.write(mycontent);
+		}
+
+		for (Figure a: weakEntity) {
+			mycontent = "CREATE TABLE " + upperCase(a) + "(\n";
+			out.write(mycontent);
+			for (Figure b: index.getIncident(a, connection)) {
+				if (((ConnectionFigure)b).getStartFigure().equals(((EntidadeFracaFigure)a))){
+					for (Figure c: index.getEndpoints(b, attribute)) {
+						if (((ConnectionFigure)b).getEndFigure().equals(((AtributoFigure)c))) {
+							mycontent = c.toString() + " " + (((AtributoFigure)c).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);                                
+						}
+					}
+					for (Figure d: index.getEndpoints(b, partialKeyAttribute)) {
+						if (((ConnectionFigure)b).getEndFigure().equals(((AtributoChaveParcialFigure)d))) {
+							mycontent = d.toString() + " " + ((AtributoChaveParcialFigure)d).getAttributeType() + " " + (((AtributoChaveParcialFigure)d).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);
+						}
+					}
+				} else if (((ConnectionFigure)b).getEndFigure().equals(((EntidadeFracaFigure)a))){
+					for (Figure c: index.getEndpoints(b, attribute)) {
+						if (((ConnectionFigure)b).getStartFigure().equals(((AtributoFigure)c))) {
+							mycontent = c.toString() + " " + (((AtributoFigure)c).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);
+						}
+					}
+					for (Figure d: index.getEndpoints(b, partialKeyAttribute)) {
+						if (((ConnectionFigure)b).getStartFigure().equals(((AtributoChaveParcialFigure)d))) {
+							mycontent = d.toString() + " " + ((AtributoChaveParcialFigure)d).getAttributeType() + " " + (((AtributoChaveParcialFigure)d).isNullable() != true ? "NOT NULL" : "") + ",\n";
+							out.write(mycontent);
+						}
+					}
+				}                      
+			}
+			mycontent = ");\n";
+			out.write(mycontent); 
+		}
+	}
+}
@@ -0,0 +1,642 @@
+package org.jhotdraw.app.action;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.jhotdraw.draw.*;
+import org.jhotdraw.interfaces.AttributeTypeElement;
+import org.jhotdraw.io.ReplacingWriter;
+
+/**
+ * Keeps the DDL script of a drawing up to date while the drawing is edited.
+ * <p>
+ * The statements which belong to a single table - the CREATE TABLE statement
+ * of an entity, its primary key constraints and the views of its derived
+ * attributes - are cached per table. The sections which span several tables
+ * (partial keys, generalizations, relationships and multivalued attributes)
+ * are cached per iteration of their outer loops, together with the local
+ * variables each iteration hands on to the next one (see
+ * {@link DDLGenerator#setIteration}).
+ * <p>
+ * {@link #invalidate} records the figures which have changed. While a table
+ * or an iteration is generated, the {@link ERSchemaIndex} records the figures
+ * it reads, and {@link #getScript} regenerates only the tables and the
+ * iterations which read a changed figure or one of the figures at the ends
+ * of a changed connection. An iteration which leaves different variables
+ * behind than before regenerates its successor as well. The connections of a
+ * figure are looked up in the drawing, so editing a figure costs time in
+ * proportion to the parts of the script which depend on it. Adding, removing
+ * or reordering figures classifies the figures of the drawing anew, but
+ * doesn't regenerate any other statements.
+ * <p>
+ * Changes which don't affect the script, such as moving a figure, are
+ * recognized by comparing the state of the figure with the state it had when
+ * the script was generated.
+ * <p>
+ * The script is identical to the one produced by {@link DDLGenerator}.
+ */
+public class IncrementalDDLGenerator {
+    private final static int TABLE = 0;
+    private final static int PRIMARY_KEY = 1;
+    private final static int VIEW = 2;
+    private final static ArrayList<Figure> NONE = new ArrayList<Figure>();
+
+    /**
+     * Cached statements, and the figures which have been read to generate
+     * them.
+     */
+    private static class Entry {
+        final Figure figure;
+        final Set<Figure> reads = newIdentitySet();
+
+        Entry(Figure figure) {
+            this.figure = figure;
+        }
+    }
+
+    /** The statements of a table, indexed by TABLE, PRIMARY_KEY and VIEW. */
+    private static class Table extends Entry {
+        final String[] statements = new String[3];
+
+        Table(Figure owner) {
+            super(owner);
+        }
+    }
+
+    /** The statements of one iteration of the outer loops of a section. */
+    private static class Iteration extends Entry {
+        final int section;
+        String statements;
+        /** The variables left to the next iteration. */
+        DDLGenerator.State state;
+        /** The figure of the preceding iteration at the time of generation. */
+        Figure predecessor;
+
+        Iteration(int section, Figure figure) {
+            super(figure);
+            this.section = section;
+        }
+    }
+
+    private final Drawing drawing;
+    private final DDLGenerator generator = new DDLGenerator();
+    /** The figures of the drawing, classified by their class, or null. */
+    private DDLGenerator.Figures m;
+    /** Position of each classified figure in its list. */
+    private final IdentityHashMap<Figure, Integer> positions = new IdentityHashMap<Figure, Integer>();
+    private ERSchemaIndex index;
+    private final IdentityHashMap<Figure, Table> tables = new IdentityHashMap<Figure, Table>();
+    /** The iterations of each section, by the figure of the outer loop. */
+    private final ArrayList<IdentityHashMap<Figure, Iteration>> iterations = new ArrayList<IdentityHashMap<Figure, Iteration>>();
+    /** Cached statements which have read a figure. */
+    private final IdentityHashMap<Figure, Set<Entry>> readers = new IdentityHashMap<Figure, Set<Entry>>();
+    /** State of each classified figure at the time the script was generated. */
+    private final IdentityHashMap<Figure, Object> states = new IdentityHashMap<Figure, Object>();
+    private final Set<Figure> dirty = newIdentitySet();
+    private DDLMultivaluedAttributes.WeakEntityScan weakEntityScan;
+    private final Set<Figure> weakEntityScanReads = newIdentitySet();
+
+    private String script;
+    private int tableCount;
+    private int iterationCount;
+
+    /** Creates a new instance. */
+    public IncrementalDDLGenerator(Drawing drawing) {
+        this.drawing = drawing;
+        for (int i = 0; i < DDLGenerator.SECTION_COUNT; i++) {
+            iterations.add(new IdentityHashMap<Figure, Iteration>());
+        }
+    }
+
+    /**
+     * Informs the generator that the specified figure has been added,
+     * removed, changed or moved to the front or the back of the drawing.
+     */
+    public void invalidate(Figure f) {
+        dirty.add(f);
+    }
+
+    /**
+     * Returns true, if the script has to be updated.
+     */
+    public boolean isInvalid() {
+        return script == null || ! dirty.isEmpty();
+    }
+
+    /**
+     * Returns the number of tables which have been regenerated by the last
+     * update of the script.
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * Returns the number of iterations of the sections spanning several
+     * tables which have been regenerated by the last update of the script.
+     */
+    public int getIterationCount() {
+        return iterationCount;
+    }
+
+    /**
+     * Returns the DDL script of the drawing, updating it if necessary.
+     */
+    public String getScript() {
+        if (isInvalid()) {
+            try {
+                update();
+            } catch (IOException e) {
+                InternalError error = new InternalError("StringWriter failed");
+                error.initCause(e);
+                throw error;
+            }
+        }
+        return script;
+    }
+
+    private void update() throws IOException {
+        boolean isFirst = m == null;
+        boolean hadGeneralizations = ! isFirst && hasGeneralizations();
+        boolean hadSingleLineGenSpecConns = ! isFirst && ! m.singleLineGenSpecConn.isEmpty();
+        boolean isReordered = isFirst;
+        Set<Figure> changed = newIdentitySet();
+
+        if (isFirst) {
+            classify();
+            for (Figure f : drawing.getFigures()) {
+                if (m.listFor(f) != null) {
+                    states.put(f, stateOf(f));
+                }
+            }
+        } else {
+            for (Figure f : dirty) {
+                if (m.listFor(f) == null) {
+                    continue;
+                }
+                Object oldState = states.get(f);
+                if (drawing.contains(f)) {
+                    Object newState = stateOf(f);
+                    states.put(f, newState);
+                    if (oldState == null) {
+                        isReordered = true;
+                        changed.add(f);
+                        addEnds(f, newState, changed);
+                        changed.addAll(drawing.getConnections(f));
+                    } else {
+                        if (! newState.equals(oldState)) {
+                            changed.add(f);
+                            addEnds(f, oldState, changed);
+                            addEnds(f, newState, changed);
+                        }
+                        if (isOutOfOrder(f)) {
+                            // The order of the query results has changed.
+                            isReordered = true;
+                            changed.add(f);
+                        }
+                    }
+                } else if (oldState != null) {
+                    states.remove(f);
+                    isReordered = true;
+                    changed.add(f);
+                    addEnds(f, oldState, changed);
+                }
+            }
+            if (isReordered) {
+                classify();
+            }
+        }
+        dirty.clear();
+
+        // Find the cached statements which depend on the changes.
+        Set<Table> staleTables = new HashSet<Table>();
+        ArrayList<Set<Iteration>> staleIterations = new ArrayList<Set<Iteration>>();
+        for (int section = 0; section < DDLGenerator.SECTION_COUNT; section++) {
+            staleIterations.add(new HashSet<Iteration>());
+        }
+        for (Figure f : changed) {
+            Set<Entry> entries = readers.get(f);
+            if (entries != null) {
+                for (Entry e : entries) {
+                    if (e instanceof Table) {
+                        staleTables.add((Table) e);
+                    } else {
+                        staleIterations.get(((Iteration) e).section).add((Iteration) e);
+                    }
+                }
+            }
+        }
+        if (isReordered) {
+            addTables(m.strongEntity, staleTables);
+            addTables(m.weakEntity, staleTables);
+            addTables(m.entityRelationship, staleTables);
+            for (Iterator<Table> i = tables.values().iterator(); i.hasNext(); ) {
+                Table t = i.next();
+                if (! states.containsKey(t.figure)) {
+                    forget(t);
+                    i.remove();
+                }
+            }
+            for (int section = 0; section < DDLGenerator.SECTION_COUNT; section++) {
+                addIterations(section, staleIterations.get(section));
+            }
+            if (hadGeneralizations != hasGeneralizations()) {
+                // generatePartialKey switches to another generator.
+                staleIterations.get(DDLGenerator.PARTIAL_KEYS).addAll(iterations.get(DDLGenerator.PARTIAL_KEYS).values());
+            }
+            if (hadSingleLineGenSpecConns == m.singleLineGenSpecConn.isEmpty()) {
+                // generateGenSpec takes the other branch for each generalization.
+                staleIterations.get(DDLGenerator.GENERALIZATIONS).addAll(iterations.get(DDLGenerator.GENERALIZATIONS).values());
+            }
+        }
+        updateWeakEntityScan(isReordered, changed, staleIterations.get(DDLGenerator.MULTIVALUED_ATTRIBUTES));
+
+        tableCount = 0;
+        for (Table t : staleTables) {
+            if (tables.get(t.figure) == t) {
+                generate(t);
+            }
+        }
+        iterationCount = 0;
+        for (int section = 0; section < DDLGenerator.SECTION_COUNT; section++) {
+            generate(section, staleIterations.get(section));
+        }
+        generator.setOutput(null, null);
+
+        // The statements are put together in the order of DDLGenerator.
+        StringWriter w = new StringWriter();
+        ReplacingWriter out = DDLGenerator.createFixups(w);
+        write(out, m.strongEntity, TABLE);
+        write(out, m.weakEntity, TABLE);
+        write(out, m.strongEntity, PRIMARY_KEY);
+        write(out, DDLGenerator.PARTIAL_KEYS);
+        write(out, m.entityRelationship, TABLE);
+        write(out, DDLGenerator.GENERALIZATIONS);
+        write(out, DDLGenerator.RELATIONSHIPS);
+        write(out, DDLGenerator.MULTIVALUED_ATTRIBUTES);
+        write(out, m.strongEntity, VIEW);
+        write(out, m.weakEntity, VIEW);
+        write(out, m.entityRelationship, VIEW);
+        out.finish();
+        script = w.toString();
+    }
+
+    /**
+     * Classifies the figures of the drawing. The lists of the previous
+     * classification are dropped, and with them everything the index and the
+     * generator remember about them.
+     */
+    private void classify() {
+        m = new DDLGenerator.Figures(Collections.<Figure>emptyList());
+        positions.clear();
+        for (Figure f : drawing.getFigures()) {
+            ArrayList<Figure> list = m.listFor(f);
+            if (list != null) {
+                positions.put(f, list.size());
+                list.add(f);
+            }
+        }
+        index = new ERSchemaIndex(drawing);
+        generator.clearUnions();
+    }
+
+    private boolean hasGeneralizations() {
+        return ! m.genspecDisjoint.isEmpty() || ! m.genspecOverlap.isEmpty();
+    }
+
+    /**
+     * Returns true, if a classified figure is no longer between its
+     * neighbors in its list in the drawing order. Neighbors which have been
+     * removed from the drawing are skipped.
+     */
+    private boolean isOutOfOrder(Figure f) {
+        List<Figure> list = m.listFor(f);
+        int i = positions.get(f);
+        int z = drawing.indexOf(f);
+        for (int j = i - 1; j >= 0; j--) {
+            int y = drawing.indexOf(list.get(j));
+            if (y != -1) {
+                if (y > z) {
+                    return true;
+                }
+                break;
+            }
+        }
+        for (int j = i + 1; j < list.size(); j++) {
+            int y = drawing.indexOf(list.get(j));
+            if (y != -1) {
+                return y < z;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the start and end figure of a connection with the specified
+     * state to a set.
+     */
+    private static void addEnds(Figure f, Object state, Set<Figure> set) {
+        if (f instanceof ConnectionFigure) {
+            for (Object end : (List<?>) state) {
+                if (end != null) {
+                    set.add((Figure) end);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the tables of owning figures, which don't have one yet.
+     */
+    private void addTables(List<Figure> owners, Set<Table> stale) {
+        for (Figure f : owners) {
+            if (! tables.containsKey(f)) {
+                Table t = new Table(f);
+                tables.put(f, t);
+                stale.add(t);
+            }
+        }
+    }
+
+    /**
+     * Creates the iterations of a section which don't exist yet, and drops
+     * the iterations of removed figures. Iterations which follow another
+     * iteration than before have to be regenerated.
+     */
+    private void addIterations(int section, Set<Iteration> stale) {
+        IdentityHashMap<Figure, Iteration> cached = iterations.get(section);
+        for (Iterator<Iteration> i = cached.values().iterator(); i.hasNext(); ) {
+            Iteration it = i.next();
+            if (! states.containsKey(it.figure)) {
+                forget(it);
+                stale.remove(it);
+                i.remove();
+            }
+        }
+        Figure predecessor = null;
+        for (List<Figure> list : generator.getOuterLists(section, m)) {
+            for (Figure f : list) {
+                Iteration it = cached.get(f);
+                if (it == null) {
+                    it = new Iteration(section, f);
+                    cached.put(f, it);
+                    stale.add(it);
+                } else if (it.predecessor != predecessor) {
+                    stale.add(it);
+                }
+                predecessor = f;
+            }
+        }
+    }
+
+    /**
+     * Scans the weak entities again, if a figure the scan has read or a weak
+     * entity has changed. If the result differs, the iterations which use it
+     * have to be regenerated.
+     */
+    private void updateWeakEntityScan(boolean isReordered, Set<Figure> changed, Set<Iteration> stale) {
+        boolean isStale = isReordered;
+        for (Iterator<Figure> i = changed.iterator(); i.hasNext() && ! isStale; ) {
+            Figure f = i.next();
+            isStale = weakEntityScanReads.contains(f) || m.listFor(f) == m.weakEntity;
+        }
+        if (isStale) {
+            weakEntityScanReads.clear();
+            generator.setOutput(null, index);
+            index.setReads(weakEntityScanReads);
+            DDLMultivaluedAttributes.WeakEntityScan scan = generator.scanWeakEntities(m);
+            index.setReads(null);
+            if (! scan.equals(weakEntityScan)
+                    || changed.contains(scan.weakEntity)
+                    || changed.contains(scan.multivaluedAttribute)) {
+                IdentityHashMap<Figure, Iteration> cached = iterations.get(DDLGenerator.MULTIVALUED_ATTRIBUTES);
+                for (Figure f : m.weakRelationship) {
+                    stale.add(cached.get(f));
+                }
+            }
+            weakEntityScan = scan;
+        }
+        generator.setWeakEntityScan(weakEntityScan);
+    }
+
+    private void generate(Table t) throws IOException {
+        forget(t);
+        ArrayList<Figure> single = singleton(t.figure);
+        List<Figure> list = m.listFor(t.figure);
+        String[] s = t.statements;
+        index.setReads(t.reads);
+        if (list == m.strongEntity) {
+            s[TABLE] = generate(single, NONE, TABLE);
+            s[PRIMARY_KEY] = generate(single, NONE, PRIMARY_KEY);
+            s[VIEW] = generate(single, NONE, VIEW);
+        } else if (list == m.weakEntity) {
+            s[TABLE] = generate(NONE, single, TABLE);
+            s[PRIMARY_KEY] = "";
+            s[VIEW] = generate(NONE, single, VIEW);
+        } else {
+            StringWriter w = new StringWriter();
+            generator.setOutput(w, index);
+            generator.generateEntityRelationship(single, m.connection, m.attribute, m.keyAttribute, m.derivedAttribute);
+            s[TABLE] = w.toString();
+            s[PRIMARY_KEY] = "";
+            w = new StringWriter();
+            generator.setOutput(w, index);
+            generator.generateDerivedAttribute(NONE, NONE, single, m.connection, m.derivedAttribute);
+            s[VIEW] = w.toString();
+        }
+        index.setReads(null);
+        t.reads.add(t.figure);
+        remember(t);
+        tableCount++;
+    }
+
+    private String generate(ArrayList<Figure> strongEntity, ArrayList<Figure> weakEntity, int statement) throws IOException {
+        StringWriter w = new StringWriter();
+        generator.setOutput(w, index);
+        switch (statement) {
+            case TABLE :
+                generator.generateTables(strongEntity, weakEntity, m.connection, m.attribute, m.keyAttribute, m.partialKeyAttribute);
+                break;
+            case PRIMARY_KEY :
+                generator.generatePrimaryKey(strongEntity, m.connection, m.keyAttribute);
+                break;
+            case VIEW :
+                generator.generateDerivedAttribute(strongEntity, weakEntity, NONE, m.connection, m.derivedAttribute);
+                break;
+        }
+        return w.toString();
+    }
+
+    /**
+     * Regenerates the stale iterations of a section in the order of the
+     * section. Each iteration starts with the variables left behind by its
+     * predecessor. If they differ from the variables it left behind before,
+     * the following iteration is regenerated as well.
+     */
+    private void generate(int section, Collection<Iteration> stale) throws IOException {
+        if (stale.isEmpty()) {
+            return;
+        }
+        List<ArrayList<Figure>> lists = generator.getOuterLists(section, m);
+        IdentityHashMap<Figure, Iteration> cached = iterations.get(section);
+        int length = 0;
+        for (List<Figure> list : lists) {
+            length += list.size();
+        }
+        int[] starts = new int[stale.size()];
+        int count = 0;
+        for (Iteration it : stale) {
+            starts[count++] = positionOf(lists, it.figure);
+        }
+        Arrays.sort(starts);
+
+        int next = 0;
+        while (next < count) {
+            int p = starts[next];
+            Figure predecessor = (p == 0) ? null : figureAt(lists, p - 1);
+            DDLGenerator.State state = (p == 0) ? new DDLGenerator.State() : cached.get(predecessor).state;
+            boolean isChanged;
+            do {
+                Iteration it = cached.get(figureAt(lists, p));
+                DDLGenerator.State oldState = it.state;
+                generate(it, state.copy(), predecessor);
+                state = it.state;
+                predecessor = it.figure;
+                p++;
+                while (next < count && starts[next] < p) {
+                    next++;
+                }
+                isChanged = ! state.equals(oldState);
+            } while (isChanged && p < length);
+        }
+    }
+
+    private void generate(Iteration it, DDLGenerator.State state, Figure predecessor) throws IOException {
+        forget(it);
+        StringWriter w = new StringWriter();
+        generator.setOutput(w, index);
+        generator.setIteration(it.figure, m.listFor(it.figure));
+        generator.setState(state);
+        index.setReads(it.reads);
+        generator.generateSection(it.section, m);
+        index.setReads(null);
+        generator.setIteration(null, null);
+        generator.setState(null);
+        it.reads.add(it.figure);
+        it.statements = w.toString();
+        it.state = state;
+        it.predecessor = predecessor;
+        remember(it);
+        iterationCount++;
+    }
+
+    /**
+     * Returns the position of a figure in the concatenation of the lists.
+     */
+    private int positionOf(List<ArrayList<Figure>> lists, Figure f) {
+        List<Figure> list = m.listFor(f);
+        int offset = 0;
+        for (List<Figure> l : lists) {
+            if (l == list) {
+                return offset + positions.get(f);
+            }
+            offset += l.size();
+        }
+        throw new IllegalArgumentException("not an iteration: " + f);
+    }
+
+    private static Figure figureAt(List<ArrayList<Figure>> lists, int position) {
+        for (List<Figure> l : lists) {
+            if (position < l.size()) {
+                return l.get(position);
+            }
+            position -= l.size();
+        }
+        throw new IndexOutOfBoundsException("position: " + position);
+    }
+
+    private void write(ReplacingWriter out, List<Figure> owners, int statement) throws IOException {
+        for (Figure f : owners) {
+            out.write(tables.get(f).statements[statement]);
+        }
+    }
+
+    private void write(ReplacingWriter out, int section) throws IOException {
+        IdentityHashMap<Figure, Iteration> cached = iterations.get(section);
+        for (List<Figure> list : generator.getOuterLists(section, m)) {
+            for (Figure f : list) {
+                out.write(cached.get(f).statements);
+            }
+        }
+    }
+
+    private static ArrayList<Figure> singleton(Figure f) {
+        ArrayList<Figure> list = new ArrayList<Figure>(1);
+        list.add(f);
+        return list;
+    }
+
+    private static Set<Figure> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<Figure, Boolean>());
+    }
+
+    /**
+     * Registers cached statements as a reader of the figures they have read.
+     */
+    private void remember(Entry e) {
+        for (Figure f : e.reads) {
+            Set<Entry> entries = readers.get(f);
+            if (entries == null) {
+                entries = new HashSet<Entry>();
+                readers.put(f, entries);
+            }
+            entries.add(e);
+        }
+    }
+
+    /**
+     * Unregisters cached statements as a reader, before they are
+     * regenerated or dropped.
+     */
+    private void forget(Entry e) {
+        for (Figure f : e.reads) {
+            Set<Entry> entries = readers.get(f);
+            if (entries != null) {
+                entries.remove(e);
+                if (entries.isEmpty()) {
+                    readers.remove(f);
+                }
+            }
+        }
+        e.reads.clear();
+    }
+
+    /**
+     * Returns the state of a figure which is relevant for the script.
+     */
+    private static Object stateOf(Figure f) {
+        if (f instanceof ConnectionFigure) {
+            ConnectionFigure c = (ConnectionFigure) f;
+            return Arrays.<Object>asList(c.getStartFigure(), c.getEndFigure());
+        }
+        StringBuilder buf = new StringBuilder();
+        buf.append(f.toString());
+        if (f instanceof AttributeTypeElement) {
+            AttributeTypeElement a = (AttributeTypeElement) f;
+            buf.append('\0').append(a.getAttributeType()).append('\0').append(a.isNullable());
+        }
+        if (f instanceof AtributoDerivadoFigure) {
+            buf.append('\0').append(((AtributoDerivadoFigure) f).getSql());
+        }
+        return buf.toString();
+    }
+}
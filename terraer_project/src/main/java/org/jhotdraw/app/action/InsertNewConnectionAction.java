@@ -36,8 +36,7 @@ public class InsertNewConnectionAction implements ActionListener {
 		LineConnectionFigure newConection = createConnection(c);
 		newConection.setStartConnector(lcf.getStartConnector());
 		newConection.setEndConnector(lcf.getEndConnector());
-		draw.remove(lcf);
-		draw.add(newConection);
+		replace(draw, lcf, newConection);
 		
 		final Figure remFigure = lcf;
         final Figure addedFigure = newConection;
@@ -48,17 +47,29 @@ public class InsertNewConnectionAction implements ActionListener {
             }
             public void undo() throws CannotUndoException {
                 super.undo();
-                addedDrawing.remove(addedFigure);
-                addedDrawing.add(remFigure);
+                replace(addedDrawing, addedFigure, remFigure);
             }
             public void redo() throws CannotRedoException {
                 super.redo();
-                addedDrawing.remove(remFigure);
-                addedDrawing.add(addedFigure);
+                replace(addedDrawing, remFigure, addedFigure);
             }
         });
 	}
 	
+	/*
+	 * Replaces a figure in one update of the drawing, so that the view
+	 * repaints and the figure tree reloads only once.
+	 */
+	private static void replace(Drawing draw, Figure oldFigure, Figure newFigure) {
+		draw.beginUpdate();
+		try {
+			draw.remove(oldFigure);
+			draw.add(newFigure);
+		} finally {
+			draw.endUpdate();
+		}
+	}
+	
 	public LineConnectionFigure createConnection(Class c){
 		if (c.equals(ConnectionAttribute.class)){
 			return new ConnectionAttribute();
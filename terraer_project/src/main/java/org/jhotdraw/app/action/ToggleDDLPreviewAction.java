@@ -0,0 +1,36 @@
+package org.jhotdraw.app.action;
+
+import java.awt.event.ActionEvent;
+
+import org.jhotdraw.app.Application;
+import org.jhotdraw.app.Project;
+import org.jhotdraw.samples.draw.TerraProject;
+import org.jhotdraw.util.ResourceBundleUtil;
+
+/**
+ * Shows or hides the DDL preview of the current project.
+ * Is selected, when the preview is visible.
+ */
+public class ToggleDDLPreviewAction extends AbstractProjectAction {
+    private static final long serialVersionUID = 1L;
+    public final static String ID = "ddlPreview";
+
+    /** Creates a new instance. */
+    public ToggleDDLPreviewAction(Application app) {
+        super(app);
+        ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+        labels.configureAction(this, ID);
+        setPropertyName(TerraProject.DDL_PREVIEW_VISIBLE_PROPERTY);
+    }
+
+    @Override
+    protected void updateProperty() {
+        Project p = getCurrentProject();
+        putValue(Actions.SELECTED_KEY, p instanceof TerraProject && ((TerraProject) p).isDDLPreviewVisible());
+    }
+
+    public void actionPerformed(ActionEvent evt) {
+        TerraProject p = (TerraProject) getCurrentProject();
+        p.setDDLPreviewVisible(! p.isDDLPreviewVisible());
+    }
+}
@@ -14,11 +14,23 @@
 
 package org.jhotdraw.app.action;
 
+import java.awt.Color;
 import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
 
 import org.jhotdraw.app.Application;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.DrawingView;
 import org.jhotdraw.draw.Figure;
 import org.jhotdraw.draw.LineConnectionFigure;
+import org.jhotdraw.draw.ModelValidationTask;
+import org.jhotdraw.gui.ModelValidationPanel;
+import org.jhotdraw.gui.Worker;
 import org.jhotdraw.samples.draw.DrawProject;
 import org.jhotdraw.util.ResourceBundleUtil;
 /**
@@ -34,6 +46,15 @@ import org.jhotdraw.util.ResourceBundleUtil;
 public class ValidateModelAction extends AbstractProjectAction {
     public final static String ID = "validateModel";
     public final static String ID2 = "validateModel2";
+    
+    private JFrame reportFrame;
+    private ModelValidationPanel reportPanel;
+    /**
+     * Counts the times validation has been switched on or off. A validation
+     * task only applies its result, if the count has not changed since the
+     * task was started.
+     */
+    private int generation;
    
     /** Creates a new instance. */
     public ValidateModelAction(Application app) {
@@ -44,22 +65,98 @@ public class ValidateModelAction extends AbstractProjectAction {
     }
     
     public void actionPerformed(ActionEvent evt) {
-    	ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+    	DrawProject project = (DrawProject) getCurrentProject();
+    	final DrawingView view = project.getEditor().getActiveView();
+    	final ArrayList<LineConnectionFigure> connections = new ArrayList<LineConnectionFigure>();
+    	for (Figure f : view.getDrawing().getFigures()){
+    		if (f instanceof LineConnectionFigure){
+    			connections.add((LineConnectionFigure) f);
+    		}
+    	}
     	
+    	generation++;
     	if (LineConnectionFigure.validateEnabled){
-    		//labels.configureAction(this, ID2);
     		LineConnectionFigure.validateEnabled = false;
-    	}else{
-    		//labels.configureAction(this, ID);
-    		LineConnectionFigure.validateEnabled = true;
-    	}    	
-    	
-    	DrawProject project = (DrawProject) getCurrentProject();
-    	for (Figure f : project.getEditor().getActiveView().getDrawing().getFigures()){
-    		if (f instanceof LineConnectionFigure){
-    			((LineConnectionFigure) f).updateConnection();
+    		Drawing drawing = view.getDrawing();
+    		drawing.beginUpdate();
+    		try {
+    			for (LineConnectionFigure c : connections){
+    				c.setValidationColor(c.getStartFigure(), c.getEndFigure(), Color.black);
+    			}
+    		} finally {
+    			drawing.endUpdate();
     		}
+    		closeReport();
+    		return;
     	}
+    	LineConnectionFigure.validateEnabled = true;
     	
+    	// The rules are evaluated on a snapshot of the connections off the
+    	// event dispatch thread. The colors are applied in one update of the
+    	// drawing at the end.
+    	final ModelValidationTask task = new ModelValidationTask(connections);
+    	final long start = System.currentTimeMillis();
+    	final int taskGeneration = generation;
+    	new Worker() {
+    		public Object construct() {
+    			try {
+    				ForkJoinPool.commonPool().invoke(task);
+    				return null;
+    			} catch (Throwable e) {
+    				return e;
+    			}
+    		}
+    		public void finished(Object value) {
+    			// Drop the result, if validation has been switched off, or off
+    			// and on again, while the task was running
+    			if (taskGeneration != generation || ! LineConnectionFigure.validateEnabled) {
+    				return;
+    			}
+    			if (value != null) {
+    				LineConnectionFigure.validateEnabled = false;
+    				ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+    				JOptionPane.showMessageDialog(view.getComponent(), String.valueOf(((Throwable) value).getMessage()), labels.getString(ID2), JOptionPane.ERROR_MESSAGE);
+    				return;
+    			}
+    			ArrayList<LineConnectionFigure> violations = new ArrayList<LineConnectionFigure>();
+    			Drawing drawing = view.getDrawing();
+    			drawing.beginUpdate();
+    			try {
+    				for (int i = 0, n = task.getConnectionCount(); i < n; i++){
+    					LineConnectionFigure c = task.getConnection(i);
+    					boolean valid = task.isValid(i);
+    					c.setValidationColor(task.getStartFigure(i), task.getEndFigure(i), valid ? Color.black : Color.red);
+    					if (! valid){
+    						violations.add(c);
+    					}
+    				}
+    			} finally {
+    				drawing.endUpdate();
+    			}
+    			showReport(view, violations, task.getConnectionCount(), System.currentTimeMillis() - start);
+    		}
+    	}.start();
+    }
+    
+    private void showReport(DrawingView view, List<LineConnectionFigure> violations, int count, long millis) {
+    	if (reportPanel == null || reportPanel.getView() != view){
+    		closeReport();
+    		ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+    		reportPanel = new ModelValidationPanel(view);
+    		reportFrame = new JFrame(labels.getString("validationReport"));
+    		reportFrame.getContentPane().add(reportPanel);
+    		reportFrame.setSize(400, 300);
+    	}
+    	reportPanel.setViolations(violations, count, millis);
+    	reportFrame.setVisible(true);
+    }
+    
+    private void closeReport() {
+    	if (reportPanel != null){
+    		reportPanel.dispose();
+    		reportFrame.dispose();
+    		reportPanel = null;
+    		reportFrame = null;
+    	}
     }
 }
@@ -29,8 +29,8 @@ import java.awt.Stroke;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 
 import org.jhotdraw.geom.Dimension2DDouble;
@@ -54,30 +54,68 @@ import org.jhotdraw.xml.DOMOutput;
  * <br>1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
 public abstract class AbstractAttributedFigure extends AbstractFigure {
-    private HashMap<AttributeKey, Object> attributes = new HashMap<AttributeKey,Object>();
+    private final static Object[] NO_VALUES = new Object[0];
+    private final static long[] NO_BITS = new long[0];
+    
+    /**
+     * The attribute values, indexed by the ordinal of their key. The array
+     * is as long as the largest ordinal which has been set.
+     */
+    private Object[] values = NO_VALUES;
+    /** Bit set of the ordinals which have a value. */
+    private long[] present = NO_BITS;
     /**
+     * Bit set of the forbidden attributes, or null.
      * Forbidden attributes can't be set by the setAttribute() operation.
      * They can only be changed by setAttribute().
      */
-    private HashSet<AttributeKey> forbiddenAttributes;
+    private long[] forbidden;
+    
+    /**
+     * The restore data of the attributes, a copy of the arrays.
+     */
+    private static class RestoreData {
+        private Object[] values;
+        private long[] present;
+        
+        private RestoreData(Object[] values, long[] present) {
+            this.values = values;
+            this.present = present;
+        }
+    }
     
     /** Creates a new instance. */
     public AbstractAttributedFigure() {
     }
     
+    private static boolean isSet(long[] bits, int i) {
+        return bits != null && (i >> 6) < bits.length && (bits[i >> 6] & (1L << i)) != 0;
+    }
     
-    public void setAttributeEnabled(AttributeKey key, boolean b) {
-        if (forbiddenAttributes == null) {
-            forbiddenAttributes = new HashSet<AttributeKey>();
+    /**
+     * Sets or clears a bit, and returns the bit set, which has been grown if
+     * necessary.
+     */
+    private static long[] setBit(long[] bits, int i, boolean b) {
+        if ((i >> 6) >= bits.length) {
+            if (! b) {
+                return bits;
+            }
+            bits = Arrays.copyOf(bits, (i >> 6) + 1);
         }
         if (b) {
-            forbiddenAttributes.remove(key);
+            bits[i >> 6] |= 1L << i;
         } else {
-            forbiddenAttributes.add(key);
+            bits[i >> 6] &= ~(1L << i);
         }
+        return bits;
+    }
+    
+    public void setAttributeEnabled(AttributeKey key, boolean b) {
+        forbidden = setBit((forbidden == null) ? NO_BITS : forbidden, key.getOrdinal(), ! b);
     }
     public boolean isAttributeEnabled(AttributeKey key) {
-        return forbiddenAttributes == null || ! forbiddenAttributes.contains(key);
+        return ! isSet(forbidden, key.getOrdinal());
     }
     
     public void setAttributes(Map<AttributeKey, Object> map) {
@@ -86,14 +124,30 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
         }
     }
     public Map<AttributeKey, Object> getAttributes() {
-        return new HashMap<AttributeKey,Object>(attributes);
+        HashMap<AttributeKey,Object> map = new HashMap<AttributeKey,Object>();
+        for (int i = 0; i < values.length; i++) {
+            if (isSet(present, i)) {
+                map.put(AttributeKey.forOrdinal(i), values[i]);
+            }
+        }
+        return map;
     }
     public Object getAttributesRestoreData() {
-        return getAttributes();
+        return new RestoreData(values.clone(), present.clone());
     }
+    /**
+     * Restores the attributes. The attributes are set again with
+     * setAttribute, so that subclasses can update their state.
+     */
     public void restoreAttributesTo(Object restoreData) {
-        attributes.clear();
-        setAttributes((HashMap<AttributeKey,Object>) restoreData);
+        RestoreData data = (RestoreData) restoreData;
+        values = NO_VALUES;
+        present = NO_BITS;
+        for (int i = 0; i < data.values.length; i++) {
+            if (isSet(data.present, i)) {
+                setAttribute(AttributeKey.forOrdinal(i), data.values[i]);
+            }
+        }
     }
     /**
      * Sets an attribute of the figure.
@@ -101,9 +155,16 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
      * the figure interface.
      */
     public void setAttribute(AttributeKey key, Object newValue) {
-        if (forbiddenAttributes == null
-                || ! forbiddenAttributes.contains(key)) {
-            Object oldValue = attributes.put(key, newValue);
+        int i = key.getOrdinal();
+        if (! isSet(forbidden, i)) {
+            Object oldValue = null;
+            if (i >= values.length) {
+                values = Arrays.copyOf(values, i + 1);
+            } else {
+                oldValue = values[i];
+            }
+            values[i] = newValue;
+            present = setBit(present, i, true);
             fireAttributeChanged(key, oldValue, newValue);
         }
     }
@@ -111,7 +172,7 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
      * Gets an attribute from the figure.
      */
     public Object getAttribute(AttributeKey key) {
-        return hasAttribute(key) ? attributes.get(key) : key.getDefaultValue();
+        return hasAttribute(key) ? values[key.getOrdinal()] : key.getDefaultValue();
     }
     
     
@@ -121,7 +182,7 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
             drawFill(g);
         }
         if (STROKE_COLOR.get(this) != null && STROKE_WIDTH.get(this) > 0d) {
-            g.setStroke(AttributeKeys.getStroke(this));
+            g.setStroke(LevelOfDetail.getStroke(g, this));
             g.setColor(STROKE_COLOR.get(this));
             
             drawStroke(g);
@@ -189,9 +250,10 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
     
     public AbstractAttributedFigure clone() {
         AbstractAttributedFigure that = (AbstractAttributedFigure) super.clone();
-        that.attributes = new HashMap<AttributeKey,Object>(this.attributes);
-        if (this.forbiddenAttributes != null) {
-            that.forbiddenAttributes = new HashSet<AttributeKey>(this.forbiddenAttributes);
+        that.values = this.values.clone();
+        that.present = this.present.clone();
+        if (this.forbidden != null) {
+            that.forbidden = this.forbidden.clone();
         }
         return that;
     }
@@ -200,10 +262,12 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
         Figure prototype = (Figure) out.getPrototype();
         
         boolean isElementOpen = false;
-        for (Map.Entry<AttributeKey, Object> entry : attributes.entrySet()) {
-            AttributeKey key = entry.getKey();
-            if (forbiddenAttributes == null
-                    || ! forbiddenAttributes.contains(key)) {
+        for (int i = 0; i < values.length; i++) {
+            if (! isSet(present, i)) {
+                continue;
+            }
+            AttributeKey<?> key = AttributeKey.forOrdinal(i);
+            if (! isSet(forbidden, i)) {
                 Object prototypeValue = key.get(prototype);
                 Object attributeValue = key.get(this);
                 if (prototypeValue != attributeValue ||
@@ -214,7 +278,7 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
                         isElementOpen = true;
                     }
                     out.openElement(key.getKey());
-                    out.writeObject(entry.getValue());
+                    out.writeObject(values[i]);
                     out.closeElement();
                 }
             }
@@ -232,8 +296,7 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
                 Object value = in.readObject();
                 AttributeKey key = getAttributeKey(name);
                 if (key != null && key.isAssignable(value)) {
-                    if (forbiddenAttributes == null
-                            || ! forbiddenAttributes.contains(key)) {
+                    if (! isSet(forbidden, key.getOrdinal())) {
                         setAttribute(key, value);
                     }
                 }
@@ -252,8 +315,10 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
      * Applies all attributes of this figure to that figure.
      */
     protected void applyAttributesTo(Figure that) {
-        for (Map.Entry<AttributeKey, Object> entry : attributes.entrySet()) {
-            that.setAttribute(entry.getKey(), entry.getValue());
+        for (int i = 0; i < values.length; i++) {
+            if (isSet(present, i)) {
+                that.setAttribute(AttributeKey.forOrdinal(i), values[i]);
+            }
         }
     }
     
@@ -279,12 +344,13 @@ public abstract class AbstractAttributedFigure extends AbstractFigure {
     public void removeAttribute(AttributeKey key) {
         if (hasAttribute(key)) {
             Object oldValue = getAttribute(key);
-            attributes.remove(key);
+            values[key.getOrdinal()] = null;
+            present = setBit(present, key.getOrdinal(), false);
             fireAttributeChanged(key, oldValue, key.getDefaultValue());
         }
     }
     
     public boolean hasAttribute(AttributeKey key) {
-        return attributes.containsKey(key);
+        return isSet(present, key.getOrdinal());
     }
 }
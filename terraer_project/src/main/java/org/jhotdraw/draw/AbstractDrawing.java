@@ -21,6 +21,9 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 
 import javax.swing.JPanel;
 import javax.swing.event.EventListenerList;
@@ -48,16 +51,25 @@ import org.jhotdraw.xml.DOMOutput;
  * <br>1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
 public abstract class AbstractDrawing extends AbstractBean implements Drawing {
-    private final static Object lock = new JPanel().getTreeLock();
     protected EventListenerList listenerList = new EventListenerList();
     private FontRenderContext fontRenderContext;
     private java.util.List<InputFormat> inputFormats = new java.util.LinkedList<InputFormat>();
     private java.util.List<OutputFormat> outputFormats = new java.util.LinkedList<OutputFormat>();
+    /** Connections of the drawing which start or end at each figure. */
+    private IdentityHashMap<Figure,ArrayList<ConnectionFigure>> incident = new IdentityHashMap<Figure,ArrayList<ConnectionFigure>>();
+    /** Start and end figure of each connection, as entered into incident. */
+    private IdentityHashMap<ConnectionFigure,Figure[]> endpoints = new IdentityHashMap<ConnectionFigure,Figure[]>();
+    /** Nesting depth of beginUpdate. */
+    private int updateDepth;
+    /** Union of the areas invalidated during an update, or null. */
+    private Rectangle2D.Double updateArea;
+    /** Figures reordered during an update, or null. */
+    private ArrayList<Figure> updateReordered;
     
     /** Creates a new instance. */
     public AbstractDrawing() {
     	DOMStorableInputOutputFormat ioFormat = new DOMStorableInputOutputFormat(
-                new DrawFigureFactory()
+                DrawFigureFactory.getInstance()
                 );
         inputFormats.add(ioFormat);
         inputFormats.add(new ImageInputFormat(new ImageFigure()));
@@ -86,8 +98,55 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
         addAll(getFigureCount(), figures);
     }
     public final void addAll(int index, Collection<Figure> figures) {
-        for (Figure f : figures) {
-            add(index++, f);
+        beginUpdate();
+        try {
+            for (Figure f : figures) {
+                add(index++, f);
+            }
+        } finally {
+            endUpdate();
+        }
+    }
+    
+    public void beginUpdate() {
+        if (updateDepth++ == 0) {
+            TerraFigureTree.beginUpdateIfCreated();
+        }
+    }
+    public void endUpdate() {
+        if (updateDepth == 0) {
+            throw new IllegalStateException("endUpdate without beginUpdate");
+        }
+        if (--updateDepth == 0) {
+            Rectangle2D.Double area = updateArea;
+            ArrayList<Figure> reordered = updateReordered;
+            updateArea = null;
+            updateReordered = null;
+            TerraFigureTree.endUpdateIfCreated();
+            if (area != null) {
+                fireAreaInvalidated(area);
+            }
+            if (reordered != null) {
+                firePropertyChange(FIGURE_ORDER_PROPERTY, null, reordered);
+            }
+        }
+    }
+    public boolean isUpdating() {
+        return updateDepth > 0;
+    }
+    /**
+     * Adds an area to the union of the areas invalidated during an update.
+     * Areas with NaN coordinates are left out, so that they don't spoil
+     * the union.
+     */
+    private void addUpdateArea(Rectangle2D.Double r) {
+        if (Double.isNaN(r.x + r.y + r.width + r.height)) {
+            return;
+        }
+        if (updateArea == null) {
+            updateArea = (Rectangle2D.Double) r.clone();
+        } else {
+            updateArea.add(r);
         }
     }
     
@@ -108,8 +167,41 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
     
     public void removeAll(Collection<Figure> toBeRemoved) {
         CompositeEdit edit = new CompositeEdit("Figuren entfernen");
-        for (Figure f : new ArrayList<Figure>(toBeRemoved)) {
-            remove(f);
+        beginUpdate();
+        try {
+            // The figures are removed at once from the back to the front. This
+            // keeps the z-index of each removal event valid, when the events
+            // are undone in reverse order.
+            final IdentityHashMap<Figure,Integer> indices = new IdentityHashMap<Figure,Integer>();
+            ArrayList<Figure> removed = new ArrayList<Figure>(toBeRemoved.size());
+            for (Figure f : new ArrayList<Figure>(toBeRemoved)) {
+                if (indices.containsKey(f)) {
+                    continue;
+                }
+                if (contains(f)) {
+                    indices.put(f, indexOf(f));
+                    removed.add(f);
+                } else {
+                    fireAreaInvalidated(f.getDrawingArea());
+                }
+            }
+            Collections.sort(removed, new Comparator<Figure>() {
+                public int compare(Figure f1, Figure f2) {
+                    return indices.get(f2) - indices.get(f1);
+                }
+            });
+            basicRemoveAll(removed);
+            for (Figure f : removed) {
+                fireFigureRemoved(f, indices.get(f));
+            }
+            // Connections, which request their removal, are removed after the
+            // figures they were connected to.
+            for (Figure f : removed) {
+                f.removeNotify(this);
+                TerraFigureTree.removeIfCreated(f);
+            }
+        } finally {
+            endUpdate();
         }
     }
     public void basicAddAll(int index, Collection<Figure> figures) {
@@ -126,6 +218,70 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
         }
     }
     
+    public java.util.List<ConnectionFigure> getConnections(Figure figure) {
+        ArrayList<ConnectionFigure> list = incident.get(figure);
+        return (list == null) ? Collections.<ConnectionFigure>emptyList() : Collections.unmodifiableList(list);
+    }
+    public void connectionChanged(ConnectionFigure connection) {
+        if (endpoints.containsKey(connection)) {
+            removeIncident(connection);
+            addIncident(connection);
+        }
+    }
+    /**
+     * Enters a connection, which has been added to the drawing, into the
+     * lists of the connections of its start and end figure. Subclasses call
+     * this method for each figure they add.
+     */
+    protected void addIncident(Figure figure) {
+        if (figure instanceof ConnectionFigure) {
+            ConnectionFigure c = (ConnectionFigure) figure;
+            Figure[] ends = { c.getStartFigure(), c.getEndFigure() };
+            endpoints.put(c, ends);
+            attach(ends[0], c);
+            if (ends[1] != ends[0]) {
+                attach(ends[1], c);
+            }
+        }
+    }
+    /**
+     * Removes a connection, which has been removed from the drawing, from
+     * the lists of the connections of its start and end figure. Subclasses
+     * call this method for each figure they remove.
+     */
+    protected void removeIncident(Figure figure) {
+        if (figure instanceof ConnectionFigure) {
+            Figure[] ends = endpoints.remove(figure);
+            if (ends != null) {
+                detach(ends[0], (ConnectionFigure) figure);
+                detach(ends[1], (ConnectionFigure) figure);
+            }
+        }
+    }
+    private void attach(Figure owner, ConnectionFigure c) {
+        if (owner != null) {
+            ArrayList<ConnectionFigure> list = incident.get(owner);
+            if (list == null) {
+                list = new ArrayList<ConnectionFigure>(4);
+                incident.put(owner, list);
+            }
+            list.add(c);
+        }
+    }
+    private void detach(Figure owner, ConnectionFigure c) {
+        ArrayList<ConnectionFigure> list = incident.get(owner);
+        if (list != null) {
+            for (int i = list.size() - 1; i >= 0; i--) {
+                if (list.get(i) == c) {
+                    list.remove(i);
+                }
+            }
+            if (list.isEmpty()) {
+                incident.remove(owner);
+            }
+        }
+    }
+    
     /**
      * Calls basicAdd and then calls figure.addNotify and firesFigureAdded.
      */
@@ -134,10 +290,18 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
     }
     public final void add(int index, Figure figure) {
         basicAdd(index, figure);
+        notifyAdded(index, figure);
+    }
+    
+    /**
+     * Calls figure.addNotify and fires figureAdded for a figure which has
+     * been added with basicAdd.
+     */
+    private void notifyAdded(int index, Figure figure) {
         figure.addNotify(this);
         fireFigureAdded(figure, index);
         fireAreaInvalidated(figure.getDrawingArea());
-        TerraFigureTree.getInstance().add(figure);
+        TerraFigureTree.addIfCreated(figure);
     }
     
     
@@ -157,7 +321,7 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
             basicRemove(figure);
             figure.removeNotify(this);
             fireFigureRemoved(figure, index);
-            TerraFigureTree.getInstance().remove(figure);
+            TerraFigureTree.removeIfCreated(figure);
         } else {
             fireAreaInvalidated(figure.getDrawingArea());
         }
@@ -167,6 +331,19 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
      * notification on this event type.
      */
     protected void fireAreaInvalidated(Rectangle2D.Double dirtyRegion) {
+        fireAreaInvalidated(null, dirtyRegion);
+    }
+    /**
+     *  Notify all listenerList that have registered interest for
+     * notification on this event type. The figure is the figure of the drawing
+     * whose area has been invalidated, or null if the area does not belong to
+     * a single figure.
+     */
+    protected void fireAreaInvalidated(Figure figure, Rectangle2D.Double dirtyRegion) {
+        if (updateDepth > 0) {
+            addUpdateArea(dirtyRegion);
+            return;
+        }
         DrawingEvent event = null;
         // Notify all listeners that have registered interest for
         // Guaranteed to return a non-null array
@@ -177,11 +354,26 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
             if (listeners[i] == DrawingListener.class) {
                 // Lazily create the event:
                 if (event == null)
-                    event = new DrawingEvent(this, null, dirtyRegion);
+                    event = new DrawingEvent(this, figure, dirtyRegion);
                 ((DrawingListener)listeners[i+1]).areaInvalidated(event);
             }
         }
     }
+    /**
+     * Notifies the listeners of FIGURE_ORDER_PROPERTY that a figure has been
+     * brought to front or sent to back. During an update, the figure is
+     * collected and passed on by endUpdate.
+     */
+    protected void fireFigureOrderChanged(Figure figure) {
+        if (updateDepth > 0) {
+            if (updateReordered == null) {
+                updateReordered = new ArrayList<Figure>();
+            }
+            updateReordered.add(figure);
+            return;
+        }
+        firePropertyChange(FIGURE_ORDER_PROPERTY, null, Collections.singletonList(figure));
+    }
     /**
      *  Notify all listenerList that have registered interest for
      * notification on this event type.
@@ -209,6 +401,9 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
      * notification on this event type.
      */
     protected void fireFigureAdded(Figure f, int zIndex) {
+        if (updateDepth > 0) {
+            addUpdateArea(f.getDrawingArea());
+        }
         DrawingEvent event = null;
         // Notify all listeners that have registered interest for
         // Guaranteed to return a non-null array
@@ -230,6 +425,9 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
      * notification on this event type.
      */
     protected void fireFigureRemoved(Figure f, int zIndex) {
+        if (updateDepth > 0) {
+            addUpdateArea(f.getDrawingArea());
+        }
         DrawingEvent event = null;
         // Notify all listeners that have registered interest for
         // Guaranteed to return a non-null array
@@ -256,13 +454,27 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
         fontRenderContext = frc;
     }
     
+    /**
+     * Reads all figures first, and then adds them with basicAddAll, so that
+     * subclasses can index them in bulk.
+     */
     public void read(DOMInput in) throws IOException {
         in.openElement("figures");
+        ArrayList<Figure> figures = new ArrayList<Figure>(in.getElementCount());
         for (int i=0; i < in.getElementCount(); i++) {
-            Figure f;
-            add(f = (Figure) in.readObject(i));
+            figures.add((Figure) in.readObject(i));
         }
         in.closeElement();
+        int index = getFigureCount();
+        basicAddAll(index, figures);
+        beginUpdate();
+        try {
+            for (Figure f : figures) {
+                notifyAdded(index++, f);
+            }
+        } finally {
+            endUpdate();
+        }
     }
     
     public void write(DOMOutput out) throws IOException {
@@ -274,9 +486,19 @@ public abstract class AbstractDrawing extends AbstractBean implements Drawing {
     }
     /**
      * The drawing view synchronizes on the lock when drawing a drawing.
+     * The lock is looked up on first use, so that drawings can be created
+     * without a user interface.
      */
     public Object getLock() {
-        return lock;
+        return LockHolder.lock;
+    }
+    
+    /**
+     * Holds the lock. The class is initialized by the first call to
+     * getLock, and class initialization is thread safe.
+     */
+    private static class LockHolder {
+        private final static Object lock = new JPanel().getTreeLock();
     }
     
     public void setOutputFormats(java.util.List<OutputFormat> formats) {
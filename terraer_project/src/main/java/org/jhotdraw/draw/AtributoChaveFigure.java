@@ -19,6 +19,7 @@ import java.io.IOException;
 
 import org.jhotdraw.enums.AttributeTypeEnum;
 import org.jhotdraw.interfaces.AttributeTypeElement;
+import org.jhotdraw.interfaces.SQLIdentifierElement;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.xml.DOMInput;
 import org.jhotdraw.xml.DOMOutput;
@@ -34,7 +35,7 @@ import org.jhotdraw.xml.DOMOutput;
  *          2.0 2006-01-14 Changed to support double precison coordinates. <br>
  *          1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
-public class AtributoChaveFigure extends GroupFigure implements AttributeTypeElement {
+public class AtributoChaveFigure extends CullableGroupFigure implements AttributeTypeElement, SQLIdentifierElement {
 
 	private TextFigure tf;
 	private EllipseFigure ef;
@@ -92,7 +93,11 @@ public class AtributoChaveFigure extends GroupFigure implements AttributeTypeEle
 
 	public String toString() {
 		//return tf.getText().replaceAll("\\s+", "_") + ( this.attributeType != null ? " " + this.getAttributeType() : "");
-		return tf.getText().replaceAll("\\s+", "_");
+		return getSQLIdentifier().getName();
+	}
+
+	public SQLIdentifier getSQLIdentifier() {
+		return EventFunctions.getSQLIdentifier();
 	}
 
 	public void read(DOMInput in) throws IOException {
@@ -18,6 +18,7 @@ import java.awt.Color;
 import java.awt.geom.Point2D.Double;
 import java.io.IOException;
 
+import org.jhotdraw.interfaces.SQLIdentifierElement;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.xml.DOMInput;
 import org.jhotdraw.xml.DOMOutput;
@@ -33,7 +34,7 @@ import org.jhotdraw.xml.DOMOutput;
  * <br>2.0 2006-01-14 Changed to support double precison coordinates.
  * <br>1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
-public class AtributoDerivadoFigure extends GroupFigure {
+public class AtributoDerivadoFigure extends CullableGroupFigure implements SQLIdentifierElement {
 	private TextFigure tf;
 	private EllipseFigure ef;
     private static int counter = 0;
@@ -86,7 +87,11 @@ public class AtributoDerivadoFigure extends GroupFigure {
 	}
 	
 	public String toString(){
-		return tf.getText().replaceAll("\\s+", "_");
+		return getSQLIdentifier().getName();
+	}
+
+	public SQLIdentifier getSQLIdentifier() {
+		return EventFunctions.getSQLIdentifier();
 	}
 
     public void read(DOMInput in) throws IOException {
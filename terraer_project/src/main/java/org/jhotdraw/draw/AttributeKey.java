@@ -14,6 +14,8 @@
 
 package org.jhotdraw.draw;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.swing.undo.AbstractUndoableEdit;
@@ -48,9 +50,19 @@ import org.jhotdraw.util.ResourceBundleUtil;
  * <br>1.0 7. Juni 2006 Created.
  */
 public class AttributeKey<T> {
+    /** The first key created with each name. */
+    private static HashMap<String,AttributeKey<?>> keysByName = new HashMap<String,AttributeKey<?>>();
+    /**
+     * The first key created with each name, by ordinal. The array is
+     * replaced by a longer copy when a key is registered, so that it can be
+     * read without locking.
+     */
+    private static volatile AttributeKey<?>[] keysByOrdinal = new AttributeKey<?>[0];
+    
     private String key;
     private T defaultValue;
     private boolean isNullValueAllowed;
+    private int ordinal;
     
     /** Creates a new instance. */
     public AttributeKey(String key) {
@@ -63,6 +75,36 @@ public class AttributeKey<T> {
         this.key = key;
         this.defaultValue = defaultValue;
         this.isNullValueAllowed = isNullValueAllowed;
+        this.ordinal = register(this);
+    }
+    
+    private static synchronized int register(AttributeKey<?> key) {
+        AttributeKey<?> registered = keysByName.get(key.key);
+        if (registered != null) {
+            return registered.ordinal;
+        }
+        keysByName.put(key.key, key);
+        AttributeKey<?>[] keys = Arrays.copyOf(keysByOrdinal, keysByOrdinal.length + 1);
+        keys[keys.length - 1] = key;
+        keysByOrdinal = keys;
+        return keys.length - 1;
+    }
+    
+    /**
+     * Returns the ordinal of the key. The ordinals are numbered densely from
+     * 0 in the order in which the key names are first used, and keys with
+     * equal names have equal ordinals. Figures use the ordinal as index
+     * into their attribute arrays.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+    
+    /**
+     * Returns the first key created with the name of the specified ordinal.
+     */
+    public static AttributeKey<?> forOrdinal(int ordinal) {
+        return keysByOrdinal[ordinal];
     }
     
     public String getKey() {
@@ -136,7 +136,9 @@ public class BezierFigure extends AbstractAttributedFigure {
     
     protected void drawCaps(Graphics2D g) {
         if (getNodeCount() > 1) {
-            if (START_DECORATION.get(this) != null) {
+            // Decorations which would only be a few pixels large are not
+            // drawn with a reduced level of detail
+            if (START_DECORATION.get(this) != null && ! isCulled(g, START_DECORATION.get(this))) {
                 BezierPath cp = getCappedPath();
                 Point2D.Double p1 = path.get(0,0);
                 Point2D.Double p2 = cp.get(0,0);
@@ -145,7 +147,7 @@ public class BezierFigure extends AbstractAttributedFigure {
                 }
                 START_DECORATION.get(this).draw(g, this, p1, p2);
             }
-            if (END_DECORATION.get(this) != null) {
+            if (END_DECORATION.get(this) != null && ! isCulled(g, END_DECORATION.get(this))) {
                 BezierPath cp = getCappedPath();
                 Point2D.Double p1 = path.get(path.size()-1,0);
                 Point2D.Double p2 = cp.get(path.size()-1,0);
@@ -157,6 +159,10 @@ public class BezierFigure extends AbstractAttributedFigure {
         }
     }
     
+    private boolean isCulled(Graphics2D g, LineDecoration decoration) {
+        return LevelOfDetail.toPixels(g, decoration.getDecorationRadius(this) * 2) < LevelOfDetail.MIN_FIGURE_SIZE;
+    }
+    
     protected void drawFill(Graphics2D g) {
         if (isClosed() || FILL_OPEN_PATH.get(this)) {
             double grow = AttributeKeys.getPerpendicularFillGrowth(this);
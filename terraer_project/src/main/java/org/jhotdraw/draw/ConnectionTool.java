@@ -23,6 +23,7 @@ import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -212,6 +213,7 @@ public class ConnectionTool extends AbstractTool {
             createdFigure.setStartPoint(anchor);
             createdFigure.setEndPoint(anchor);
             getDrawing().add(createdFigure);
+            getView().freezeStaticLayer(Collections.<Figure>singleton(createdFigure));
             Rectangle r = new Rectangle(getView().drawingToView(anchor));
             r.grow(ANCHOR_WIDTH,ANCHOR_WIDTH);
             fireAreaInvalidated(r);
@@ -251,7 +253,7 @@ public class ConnectionTool extends AbstractTool {
     }
     
 	public void unaryRelationshipHandle() {
-		for (Figure f : getDrawing().getFigures()) {
+		for (Figure f : getDrawing().getConnections(createdFigure.getStartFigure())) {
 			if (f.equals(createdFigure) || !(f instanceof LineConnectionFigure))
 				continue;
 			 
@@ -296,6 +298,9 @@ public class ConnectionTool extends AbstractTool {
      * figure.
      */
     public void mouseReleased(MouseEvent e) {
+        if (createdFigure != null) {
+            getView().unfreezeStaticLayer();
+        }
         if (createdFigure != null && startConnector != null && endConnector != null) {
             createdFigure.willChange();
             createdFigure.setStartConnector(startConnector);
@@ -371,7 +376,7 @@ public class ConnectionTool extends AbstractTool {
 		List<LabeledLineInterface> connectors = new LinkedList<>();
 		
 		/*Pelo metodo numberInCorrectSideHandle, o relacionamento é sempre o StartConnector*/
-		List<Figure> figures = ((QuadTreeDrawing)this.getDrawing()).findFigures(createdFigure.getStartConnector().getBounds());
+		List<Figure> figures = getDrawing().sort(new ArrayList<Figure>(getDrawing().getConnections(createdFigure.getStartFigure())));
 			if (figures != null && !figures.isEmpty()){
 				for (Figure f : figures){
 					if (f instanceof LabeledLineInterface){
@@ -412,6 +417,7 @@ public class ConnectionTool extends AbstractTool {
     }
     public void deactivate(DrawingEditor editor) {
     	if (createdFigure != null) {
+            getView().unfreezeStaticLayer();
             getDrawing().remove(createdFigure);
             createdFigure = null;
         }
@@ -0,0 +1,34 @@
+/*
+ * @(#)CullableGroupFigure.java  1.0  October 17, 2026
+ *
+ * Copyright (c) 1996-2007 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.draw;
+
+import java.awt.Graphics2D;
+/**
+ * A group figure which is not drawn at all, when it is too small to be
+ * seen with a reduced level of detail.
+ *
+ * @see LevelOfDetail#isCulled
+ *
+ * @version 1.0 October 17, 2026 Created.
+ */
+public abstract class CullableGroupFigure extends GroupFigure {
+    private static final long serialVersionUID = 1L;
+
+    public void draw(Graphics2D g) {
+        if (! LevelOfDetail.isCulled(g, getBounds())) {
+            super.draw(g);
+        }
+    }
+}
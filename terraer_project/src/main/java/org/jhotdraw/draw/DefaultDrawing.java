@@ -28,6 +28,7 @@ import javax.swing.event.UndoableEditEvent;
 import javax.swing.event.UndoableEditListener;
 
 import org.jhotdraw.geom.Dimension2DDouble;
+import org.jhotdraw.geom.SpatialIndex;
 import org.jhotdraw.util.ReversedList;
 /**
  * DefaultDrawing to be used for drawings that contain only a few figures.
@@ -66,11 +67,13 @@ public class DefaultDrawing
     public void basicAdd(int index, Figure figure) {
         figures.add(index, figure);
         figure.addFigureListener(figureHandler);
+        addIncident(figure);
         invalidateSortOrder();
     }
     public void basicRemove(Figure figure) {
         figures.remove(figure);
         figure.removeFigureListener(figureHandler);
+        removeIncident(figure);
         invalidateSortOrder();
     }
     
@@ -187,6 +190,15 @@ public class DefaultDrawing
         }
         return intersection;
     }
+    public void forEachIntersecting(Rectangle2D.Double bounds, SpatialIndex.Visitor<? super Figure> visitor) {
+        ensureSorted();
+        for (int i = 0, n = figures.size(); i < n; i++) {
+            Figure f = figures.get(i);
+            if (f.getDrawingArea().intersects(bounds)) {
+                visitor.visit(f);
+            }
+        }
+    }
     public java.util.List<Figure> findFiguresWithin(Rectangle2D.Double bounds) {
         LinkedList<Figure> contained = new LinkedList<Figure>();
         for (Figure f : figures) {
@@ -224,6 +236,7 @@ public class DefaultDrawing
             figures.add(figure);
             invalidateSortOrder();
             fireAreaInvalidated(figure.getDrawingArea());
+            fireFigureOrderChanged(figure);
         }
     }
     public void sendToBack(Figure figure) {
@@ -231,6 +244,7 @@ public class DefaultDrawing
             figures.add(0, figure);
             invalidateSortOrder();
             fireAreaInvalidated(figure.getDrawingArea());
+            fireFigureOrderChanged(figure);
         }
     }
     
@@ -277,11 +291,11 @@ public class DefaultDrawing
         }
         
         @Override public void figureAreaInvalidated(FigureEvent e) {
-            fireAreaInvalidated(e.getInvalidatedArea());
+            fireAreaInvalidated(e.getFigure(), e.getInvalidatedArea());
         }
         @Override public void figureChanged(FigureEvent e) {
             invalidateSortOrder();
-            fireAreaInvalidated(e.getInvalidatedArea());
+            fireAreaInvalidated(e.getFigure(), e.getInvalidatedArea());
         }
         
         @Override public void figureRequestRemove(FigureEvent e) {
@@ -19,15 +19,19 @@ import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.event.MouseEvent;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -46,6 +50,7 @@ import javax.swing.undo.CannotUndoException;
 import org.jhotdraw.app.EditableComponent;
 import org.jhotdraw.app.action.ConnectionRecommendationAction;
 import org.jhotdraw.geom.Dimension2DDouble;
+import org.jhotdraw.geom.SpatialIndex;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.util.ReversedList;
 /**
@@ -78,6 +83,11 @@ public class DefaultDrawingView
      * Set this to true to turn on debugging output on System.out.
      */
     private final static boolean DEBUG = false;
+    /**
+     * The system property, which turns the tile cache on when it is set to
+     * "true".
+     */
+    public final static String TILE_CACHE_PROPERTY = "org.jhotdraw.draw.DefaultDrawingView.tileCache";
     
     private Drawing drawing;
     private Set<Figure> dirtyFigures = new HashSet<Figure>();
@@ -101,6 +111,21 @@ public class DefaultDrawingView
         }
     };
     private Rectangle2D.Double cachedDrawingArea;
+    /** The tile cache, or null, if painting is not cached. */
+    private TileCache tileCache;
+    /**
+     * The figures which are moved by the current interaction, or null, if
+     * the static layer is not frozen.
+     */
+    private Set<Figure> movingFigures;
+    /**
+     * The background, the grid and the figures which are not moving,
+     * rasterized for the bounds staticLayerBounds, or null.
+     */
+    private Image staticLayer;
+    private Rectangle staticLayerBounds;
+    private Point2D.Double staticLayerOrigin;
+    private double staticLayerScale;
     
     /** Creates new instance. */
     public DefaultDrawingView() {
@@ -116,6 +141,9 @@ public class DefaultDrawingView
             }
         });
         setTransferHandler(new DefaultDrawingViewTransferHandler());
+        if ("true".equalsIgnoreCase(System.getProperty(TILE_CACHE_PROPERTY))) {
+            tileCache = new TileCache(this);
+        }
     }
     
     /** This method is called from within the constructor to
@@ -162,37 +190,217 @@ public class DefaultDrawingView
             emptyDrawingLabel.setHorizontalAlignment(JLabel.CENTER);
         }
         firePropertyChange("emptyDrawingMessage", oldValue, newValue);
+        invalidateTiles();
         repaint();
     }
     public String getEmptyDrawingMessage() {
         return (emptyDrawingLabel == null) ? null : emptyDrawingLabel.getText();
     }
     
+    /**
+     * Turns the tile cache on or off. With the tile cache, the background,
+     * the grid and the drawing are rasterized into tiles, which are reused
+     * until the drawing changes in their area. Scrolling and repainting
+     * handles then only copy tiles.
+     */
+    public void setTileCacheEnabled(boolean newValue) {
+        tileCache = (newValue) ? new TileCache(this) : null;
+        repaint();
+    }
+    public boolean isTileCacheEnabled() {
+        return tileCache != null;
+    }
+    /**
+     * Returns the tile cache, or null, if the tile cache is turned off.
+     */
+    public TileCache getTileCache() {
+        return tileCache;
+    }
+    
+    /**
+     * Drops all tiles of the tile cache.
+     */
+    protected void invalidateTiles() {
+        if (tileCache != null) {
+            tileCache.clear();
+        }
+    }
+    /**
+     * Drops the tiles of the tile cache, which intersect the specified area
+     * of the drawing.
+     */
+    protected void invalidateTiles(Rectangle2D.Double r) {
+        if (tileCache != null) {
+            tileCache.invalidate(r);
+        }
+    }
+    
     /**
      * Paints the drawing view.
      * Uses rendering hints for fast painting. Paints the background, the
-     * grid, the drawing, the handles and the current tool.
+     * grid, the drawing, the handles and the current tool. If the tile
+     * cache is on, the background, the grid and the drawing are copied
+     * from the tile cache. If the static layer is frozen, only the moving
+     * figures are drawn on top of the static layer.
      */
     public void paintComponent(Graphics gr) {
         
         Graphics2D g = (Graphics2D) gr;
+        setRenderingHints(g);
+        
+        if (movingFigures != null && validateStaticLayer(g.getClipBounds())) {
+            g.drawImage(staticLayer, staticLayerBounds.x, staticLayerBounds.y, null);
+            drawFigures(g, true);
+        } else if (tileCache != null) {
+            tileCache.paint(g);
+        } else {
+            drawBackground(g);
+            drawGrid(g);
+            drawDrawing(g);
+        }
+        
+        drawHandles(g);
+        drawTool(g);
+    }
+    /**
+     * Paints the background, the grid and the drawing into a tile of the
+     * tile cache.
+     */
+    void paintTile(Graphics2D g) {
+        setRenderingHints(g);
+        drawBackground(g);
+        drawGrid(g);
+        drawDrawing(g);
+    }
+    /**
+     * Rasterizes the static layer for the visible area of the view, if it
+     * does not cover the clip bounds or if the view has been scrolled or
+     * zoomed. Returns false, if the clip bounds are not visible.
+     */
+    private boolean validateStaticLayer(Rectangle clip) {
+        if (clip == null) {
+            return false;
+        }
+        Point2D.Double origin = viewToDrawing(new Point(0, 0));
+        if (staticLayer == null || staticLayerScale != scaleFactor
+                || ! origin.equals(staticLayerOrigin)
+                || ! staticLayerBounds.contains(clip)) {
+            Rectangle r = getVisibleRect();
+            if (r.isEmpty() || ! r.contains(clip)) {
+                return false;
+            }
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            if (gc != null) {
+                staticLayer = gc.createCompatibleImage(r.width, r.height, Transparency.OPAQUE);
+            } else {
+                staticLayer = new BufferedImage(r.width, r.height, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D g = (Graphics2D) staticLayer.getGraphics();
+            g.translate(-r.x, -r.y);
+            g.setClip(r);
+            setRenderingHints(g);
+            drawBackground(g);
+            drawGrid(g);
+            drawFigures(g, false);
+            g.dispose();
+            staticLayerBounds = r;
+            staticLayerOrigin = origin;
+            staticLayerScale = scaleFactor;
+        }
+        return true;
+    }
+    /**
+     * Draws the moving figures, or the figures which are not moving,
+     * in the clip bounds of the graphics.
+     */
+    private void drawFigures(Graphics2D gr, final boolean moving) {
+        final Graphics2D g = (Graphics2D) gr.create();
+        AffineTransform tx = g.getTransform();
+        tx.translate(-translate.x * scaleFactor, -translate.y * scaleFactor);
+        tx.scale(scaleFactor, scaleFactor);
+        g.setTransform(tx);
+        
+        drawing.setFontRenderContext(g.getFontRenderContext());
+        Rectangle2D clip = g.getClipBounds();
+        drawing.forEachIntersecting(
+                new Rectangle2D.Double(clip.getX(), clip.getY(), clip.getWidth(), clip.getHeight()),
+                new SpatialIndex.Visitor<Figure>() {
+            public void visit(Figure f) {
+                if (movingFigures.contains(f) == moving) {
+                    f.draw(g);
+                }
+            }
+        });
+        
+        g.dispose();
+    }
+    
+    public void freezeStaticLayer(Collection<Figure> figures) {
+        unfreezeStaticLayer();
+        if (drawing != null) {
+            movingFigures = new HashSet<Figure>();
+            for (Figure f : figures) {
+                addMovingFigure(f);
+            }
+        }
+    }
+    private void addMovingFigure(Figure f) {
+        if (movingFigures.add(f)) {
+            if (f instanceof CompositeFigure) {
+                for (Figure child : ((CompositeFigure) f).getChildren()) {
+                    addMovingFigure(child);
+                }
+            }
+            for (Figure c : drawing.getConnections(f)) {
+                addMovingFigure(c);
+            }
+        }
+    }
+    public void unfreezeStaticLayer() {
+        if (movingFigures != null) {
+            // The moving figures have been drawn on top of all other figures,
+            // repaint them in their Z-order.
+            Rectangle2D.Double r = null;
+            for (Figure f : movingFigures) {
+                if (r == null) {
+                    r = f.getDrawingArea();
+                } else {
+                    r.add(f.getDrawingArea());
+                }
+            }
+            if (r != null && staticLayerBounds != null) {
+                repaint(r);
+            }
+            movingFigures = null;
+            staticLayer = null;
+            staticLayerBounds = null;
+        }
+    }
+    /**
+     * Unfreezes the static layer, if the specified figure of the drawing
+     * changes, but is not moving.
+     */
+    private void validateMovingFigure(Figure f) {
+        if (movingFigures != null && ! movingFigures.contains(f)) {
+            unfreezeStaticLayer();
+        }
+    }
+    
+    private void setRenderingHints(Graphics2D g) {
+        // Reduce the level of detail of the figures when zoomed out. The
+        // many thin lines of an overview are drawn without antialiasing.
+        boolean isReduced = scaleFactor < LevelOfDetail.SCALE_THRESHOLD;
         
         // Set rendering hints for speed
         g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, (isReduced) ? RenderingHints.VALUE_ANTIALIAS_OFF : RenderingHints.VALUE_ANTIALIAS_ON);
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
         g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, (Options.isFractionalMetrics()) ? RenderingHints.VALUE_FRACTIONALMETRICS_ON : RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
         g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
         g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
         g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, (Options.isTextAntialiased()) ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
-        
-        drawBackground(g);
-        drawGrid(g);
-        drawDrawing(g);
-        
-        drawHandles(g);
-        drawTool(g);
+        g.setRenderingHint(LevelOfDetail.KEY_SCALE_FACTOR, (isReduced) ? Double.valueOf(scaleFactor) : null);
     }
     /**
      * Prints the drawing view.
@@ -314,14 +522,19 @@ public class DefaultDrawingView
     }
     
     public void setDrawing(Drawing d) {
+        Drawing oldValue = this.drawing;
         if (this.drawing != null) {
             this.drawing.removeDrawingListener(this);
             clearSelection();
         }
+        movingFigures = null;
+        staticLayer = null;
+        staticLayerBounds = null;
         this.drawing = d;
         if (this.drawing != null) {
             this.drawing.addDrawingListener(this);
         }
+        invalidateTiles();
         invalidateDimension();
         invalidate();
         if (getParent() != null) {
@@ -334,6 +547,7 @@ public class DefaultDrawingView
             }
         }
         repaint();
+        firePropertyChange("drawing", oldValue, d);
     }
     
     protected void repaint(Rectangle2D.Double r) {
@@ -343,6 +557,8 @@ public class DefaultDrawingView
     }
     
     public void areaInvalidated(DrawingEvent evt) {
+        validateMovingFigure(evt.getFigure());
+        invalidateTiles(evt.getInvalidatedArea());
         repaint(evt.getInvalidatedArea());
         invalidateDimension();
     }
@@ -351,19 +567,26 @@ public class DefaultDrawingView
         invalidateDimension();
     }
     public void figureAdded(DrawingEvent evt) {
-        // Repaint the whole drawing to remove the message label
+        validateMovingFigure(evt.getFigure());
+        // Repaint the whole drawing to remove the message label. During an
+        // update, the drawing fires the invalidated area at the end.
         if (evt.getDrawing().getFigureCount() == 1) {
+            invalidateTiles();
             repaint();
-        } else {
+        } else if (! evt.getDrawing().isUpdating()) {
+            invalidateTiles(evt.getInvalidatedArea());
             repaint(evt.getInvalidatedArea());
         }
         invalidateDimension();
     }
     public void figureRemoved(DrawingEvent evt) {
+        validateMovingFigure(evt.getFigure());
         // Repaint the whole drawing to draw the message label
         if (evt.getDrawing().getFigureCount() == 0) {
+            invalidateTiles();
             repaint();
-        } else {
+        } else if (! evt.getDrawing().isUpdating()) {
+            invalidateTiles(evt.getInvalidatedArea());
             repaint(evt.getInvalidatedArea());
         }
         removeFromSelection(evt.getFigure());
@@ -698,6 +921,8 @@ public class DefaultDrawingView
     public void setConstrainer(Constrainer newValue) {
         Constrainer oldValue = constrainer;
         constrainer = newValue;
+        staticLayer = null;
+        invalidateTiles();
         repaint();
         firePropertyChange("constrainer", oldValue, newValue);
     }
@@ -866,15 +1091,26 @@ public class DefaultDrawingView
                 super.undo();
                 clearSelection();
                 Drawing d = getDrawing();
-                for (DrawingEvent evt : deletionEvents) {
-                    d.add(evt.getIndex(), evt.getFigure());
+                d.beginUpdate();
+                try {
+                    for (DrawingEvent evt : deletionEvents) {
+                        d.add(evt.getIndex(), evt.getFigure());
+                    }
+                } finally {
+                    d.endUpdate();
                 }
                 addToSelection(selectedFigures);
             }
             public void redo() throws CannotRedoException {
                 super.redo();
-                for (DrawingEvent evt : new ReversedList<DrawingEvent>(deletionEvents)) {
-                getDrawing().remove(evt.getFigure());
+                Drawing d = getDrawing();
+                d.beginUpdate();
+                try {
+                    for (DrawingEvent evt : new ReversedList<DrawingEvent>(deletionEvents)) {
+                        d.remove(evt.getFigure());
+                    }
+                } finally {
+                    d.endUpdate();
                 }
             }
         });
@@ -889,15 +1125,20 @@ public class DefaultDrawingView
         final ArrayList<Figure> duplicates = new ArrayList<Figure>(sorted.size());
         AffineTransform tx = new AffineTransform();
         tx.translate(5,5);
-        for (Figure f : sorted) {
-            Figure d = (Figure) f.clone();
-            d.transform(tx);
-            duplicates.add(d);
-            originalToDuplicateMap.put(f, d);
-            drawing.add(d);
-        }
-        for (Figure f : duplicates) {
-            f.remap(originalToDuplicateMap);
+        drawing.beginUpdate();
+        try {
+            for (Figure f : sorted) {
+                Figure d = (Figure) f.clone();
+                d.transform(tx);
+                duplicates.add(d);
+                originalToDuplicateMap.put(f, d);
+                drawing.add(d);
+            }
+            for (Figure f : duplicates) {
+                f.remap(originalToDuplicateMap);
+            }
+        } finally {
+            drawing.endUpdate();
         }
         addToSelection(duplicates);
         
@@ -238,15 +238,25 @@ public class DefaultDrawingViewTransferHandler extends TransferHandler {
                     public void undo() throws CannotUndoException {
                         super.undo();
                         view.clearSelection();
-                        for (DrawingEvent evt : deletionEvents) {
-                            drawing.add(evt.getIndex(), evt.getFigure());
+                        drawing.beginUpdate();
+                        try {
+                            for (DrawingEvent evt : deletionEvents) {
+                                drawing.add(evt.getIndex(), evt.getFigure());
+                            }
+                        } finally {
+                            drawing.endUpdate();
                         }
                         view.addToSelection(selectedFigures);
                     }
                     public void redo() throws CannotRedoException {
                         super.redo();
-                        for (DrawingEvent evt : new ReversedList<DrawingEvent>(deletionEvents)) {
-                            drawing.remove(evt.getFigure());
+                        drawing.beginUpdate();
+                        try {
+                            for (DrawingEvent evt : new ReversedList<DrawingEvent>(deletionEvents)) {
+                                drawing.remove(evt.getFigure());
+                            }
+                        } finally {
+                            drawing.endUpdate();
                         }
                     }
                 });
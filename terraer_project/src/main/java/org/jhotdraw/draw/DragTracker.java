@@ -84,9 +84,10 @@ public class DragTracker extends AbstractTool {
     }
     public void mouseDragged(MouseEvent evt) {
         DrawingView view = getView();
-        if (isDragging = false) {
+        if (! isDragging) {
             isDragging = true;
             updateCursor(editor.findView((Container) evt.getSource()),new Point(evt.getX(), evt.getY()));
+            view.freezeStaticLayer(view.getSelectedFigures());
         }
         
         Point2D.Double newPoint = view.getConstrainer().constrainPoint(
@@ -103,6 +104,9 @@ public class DragTracker extends AbstractTool {
     }
     public void mouseReleased(MouseEvent evt) {
         super.mouseReleased(evt);
+        if (isDragging) {
+            getView().unfreezeStaticLayer();
+        }
         isDragging = false;
         
         int x = evt.getX();
@@ -142,4 +146,13 @@ public class DragTracker extends AbstractTool {
         }
         fireToolDone();
     }
+    public void deactivate(DrawingEditor editor) {
+        if (isDragging) {
+            isDragging = false;
+            if (editor.getActiveView() != null) {
+                editor.getActiveView().unfreezeStaticLayer();
+            }
+        }
+        super.deactivate(editor);
+    }
 }
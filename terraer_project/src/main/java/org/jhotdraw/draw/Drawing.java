@@ -19,6 +19,7 @@ import java.awt.Graphics2D;
 import java.awt.font.FontRenderContext;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.beans.PropertyChangeListener;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
@@ -27,6 +28,7 @@ import javax.swing.event.UndoableEditListener;
 import javax.swing.undo.UndoableEdit;
 
 import org.jhotdraw.geom.Dimension2DDouble;
+import org.jhotdraw.geom.SpatialIndex;
 import org.jhotdraw.xml.DOMStorable;
 /**
  * Drawing is a container for figures.
@@ -43,6 +45,14 @@ import org.jhotdraw.xml.DOMStorable;
  * <br>1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
 public interface Drawing extends Serializable, DOMStorable {
+    /**
+     * The name of the property change event, which is fired when figures
+     * have been brought to front or sent to back. The new value is the
+     * list of these figures, the old value is null. During an update, the
+     * event is fired once by the outermost endUpdate.
+     */
+    public final static String FIGURE_ORDER_PROPERTY = "figureOrder";
+    
     /**
      * Removes all figures from the drawing.
      */
@@ -187,6 +197,12 @@ public interface Drawing extends Serializable, DOMStorable {
      * bounds. The figures are returned in Z-order from back to front.
      */
     public List<Figure> findFiguresWithin(Rectangle2D.Double bounds);
+    /**
+     * Calls the visitor for each figure whose drawing area intersects the
+     * specified bounds, in Z-order from back to front. Unlike findFigures,
+     * this method doesn't create a list.
+     */
+    public void forEachIntersecting(Rectangle2D.Double bounds, SpatialIndex.Visitor<? super Figure> visitor);
     /**
      * Returns the figures of the drawing.
      * @return A Collection of Figure's.
@@ -228,6 +244,45 @@ public interface Drawing extends Serializable, DOMStorable {
      */
     boolean contains(Figure f);
     
+    /**
+     * Returns the connections of this drawing which start or end at the
+     * specified figure. The list is kept up to date, when connections are
+     * added, removed or reconnected.
+     * <p>
+     * The returned list is a read-only view, not a copy. Callers must not
+     * add, remove or reconnect connections of the figure while they iterate
+     * over it. They have to copy the list first.
+     */
+    List<ConnectionFigure> getConnections(Figure figure);
+    /**
+     * Informs the drawing that the start or the end connector of a
+     * connection has changed.
+     */
+    void connectionChanged(ConnectionFigure connection);
+    
+    /**
+     * Starts a batch of changes. Until the matching endUpdate, the drawing
+     * collects the invalidated areas instead of firing areaInvalidated
+     * events, and the figure tree defers its reloads. The figureAdded and
+     * figureRemoved events are still fired for each figure, but listeners
+     * which repaint should check isUpdating and leave the repaint to the
+     * areaInvalidated event fired by endUpdate.
+     * <p>
+     * Calls can be nested, only the outermost endUpdate fires the event.
+     */
+    public void beginUpdate();
+    /**
+     * Ends a batch of changes started with beginUpdate. The outermost call
+     * fires a single areaInvalidated event with the union of the areas
+     * invalidated during the batch, and a single FIGURE_ORDER_PROPERTY
+     * event, if figures have been reordered during the batch.
+     */
+    public void endUpdate();
+    /**
+     * Returns true while a batch of changes is in progress.
+     */
+    public boolean isUpdating();
+    
     /**
      * Returns a list of the figures in Z-Order from front to back.
      */
@@ -240,6 +295,9 @@ public interface Drawing extends Serializable, DOMStorable {
      */
     public Figure findFigureInside(Point2D.Double p);
     
+    public void addPropertyChangeListener(String propertyName, PropertyChangeListener listener);
+    public void removePropertyChangeListener(String propertyName, PropertyChangeListener listener);
+    
     /**
      * Sends a figure to the back of the drawing.
      *
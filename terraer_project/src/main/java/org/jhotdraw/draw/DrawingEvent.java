@@ -46,7 +46,7 @@ public class DrawingEvent extends EventObject {
         super(source);
         this.figure = figure;
         this.invalidatedArea = invalidatedArea;
-        this.index = 0;
+        this.index = zIndex;
     }
     
     
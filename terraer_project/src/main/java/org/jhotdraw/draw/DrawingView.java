@@ -51,6 +51,7 @@ public interface DrawingView {
     
     /**
      * Sets and installs another drawing in the view.
+     * Fires a "drawing" property change event.
      */
     public void setDrawing(Drawing d);
     
@@ -188,6 +189,21 @@ public interface DrawingView {
      */
     public Constrainer getConstrainer();
 
+    /**
+     * Freezes the figures which are not moved by the current interaction.
+     * Until unfreezeStaticLayer is called, the view paints the background,
+     * the grid and the figures which are not moving from a cached layer, and
+     * only draws the moving figures on top of it. The connections and the
+     * children of the moving figures are moving as well.
+     * <p>
+     * Tools call this method when they start to drag figures.
+     */
+    public void freezeStaticLayer(Collection<Figure> movingFigures);
+    /**
+     * Drops the cached layer and paints all figures again.
+     */
+    public void unfreezeStaticLayer();
+
     /**
      * Returns the JComponent of the drawing view.
      */
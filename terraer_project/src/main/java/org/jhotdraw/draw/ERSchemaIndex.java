@@ -0,0 +1,164 @@
+package org.jhotdraw.draw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Adjacency queries over the figures of an ER drawing.
+ * <p>
+ * The schema generators use the index to answer "which members of this list
+ * touch that figure" in time proportional to the degree of the figure,
+ * instead of scanning the whole list. The connections of a figure are taken
+ * from the multimap which the drawing maintains (see
+ * {@link Drawing#getConnections}), so an index is created without looking
+ * at the figures of the drawing. Results always keep the order of the list
+ * that is queried, so callers that depend on the iteration order of their
+ * lists see exactly the same sequence as with a full scan.
+ * <p>
+ * The lists passed in as candidates must not be modified while they are
+ * queried, because the index remembers the position of their members.
+ * Lists of up to {@value #SHORT_LIST} members are scanned instead.
+ * <p>
+ * The index can record the figures its queries look at, so that a caller
+ * knows which changes of the drawing affect the results (see
+ * {@link #setReads}).
+ */
+public class ERSchemaIndex {
+	private final Drawing drawing;
+	private final IdentityHashMap<List<Figure>, Positions> positions = new IdentityHashMap<List<Figure>, Positions>();
+	private Collection<Figure> reads;
+
+	/** The size up to which candidate lists are scanned. */
+	public static final int SHORT_LIST = 8;
+
+	/**
+	 * The positions of the members of a list, valid while the list keeps its
+	 * size. A figure which occurs several times has several positions.
+	 */
+	private static class Positions {
+		int size;
+		IdentityHashMap<Figure, int[]> index;
+	}
+
+	public ERSchemaIndex(Drawing drawing) {
+		this.drawing = drawing;
+	}
+
+	/**
+	 * Records the figures which the following queries look at into the
+	 * specified collection: the figure or connection that is asked for, and
+	 * the figures that are returned. Pass null to stop recording.
+	 */
+	public void setReads(Collection<Figure> reads) {
+		this.reads = reads;
+	}
+
+	/**
+	 * Returns all connections that start or end at the specified figure.
+	 * The list is a view of the list of the drawing.
+	 */
+	public List<ConnectionFigure> getConnections(Figure figure) {
+		return drawing.getConnections(figure);
+	}
+
+	/**
+	 * Returns the members of {@code candidates} that are connections starting
+	 * or ending at {@code figure}, in the order of {@code candidates}.
+	 */
+	public List<Figure> getIncident(Figure figure, List<Figure> candidates) {
+		return record(figure, select(drawing.getConnections(figure), candidates));
+	}
+
+	/**
+	 * Returns the members of {@code candidates} that are the start or end
+	 * figure of {@code connection}, in the order of {@code candidates}.
+	 */
+	public List<Figure> getEndpoints(Figure connection, List<Figure> candidates) {
+		ConnectionFigure c = (ConnectionFigure) connection;
+		ArrayList<Figure> ends = new ArrayList<Figure>(2);
+		if (c.getStartFigure() != null) {
+			ends.add(c.getStartFigure());
+		}
+		if (c.getEndFigure() != null && c.getEndFigure() != c.getStartFigure()) {
+			ends.add(c.getEndFigure());
+		}
+		return record(connection, select(ends, candidates));
+	}
+
+	private List<Figure> record(Figure figure, List<Figure> result) {
+		if (reads != null) {
+			reads.add(figure);
+			reads.addAll(result);
+		}
+		return result;
+	}
+
+	private List<Figure> select(List<? extends Figure> figures, List<Figure> candidates) {
+		if (figures == null || figures.isEmpty() || candidates.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (candidates.size() <= SHORT_LIST) {
+			ArrayList<Figure> result = new ArrayList<Figure>(candidates.size());
+			for (Figure c : candidates) {
+				for (Figure f : figures) {
+					if (f == c) {
+						result.add(c);
+						break;
+					}
+				}
+			}
+			return result;
+		}
+		// Collect the positions of the figures in the candidates and visit
+		// them in order. Each position is visited once, even if a figure
+		// is passed in twice, and a candidate which occurs twice is visited
+		// twice, like the scan above does.
+		IdentityHashMap<Figure, int[]> index = positionsOf(candidates).index;
+		int[] found = new int[figures.size()];
+		int count = 0;
+		for (Figure f : figures) {
+			int[] at = index.get(f);
+			if (at != null) {
+				if (count + at.length > found.length) {
+					found = Arrays.copyOf(found, Math.max(found.length * 2, count + at.length));
+				}
+				System.arraycopy(at, 0, found, count, at.length);
+				count += at.length;
+			}
+		}
+		Arrays.sort(found, 0, count);
+		ArrayList<Figure> result = new ArrayList<Figure>(count);
+		for (int i = 0; i < count; i++) {
+			if (i == 0 || found[i] != found[i - 1]) {
+				result.add(candidates.get(found[i]));
+			}
+		}
+		return result;
+	}
+
+	private Positions positionsOf(List<Figure> list) {
+		Positions p = positions.get(list);
+		if (p == null || p.size != list.size()) {
+			p = new Positions();
+			p.size = list.size();
+			p.index = new IdentityHashMap<Figure, int[]>(p.size);
+			for (int i = 0; i < p.size; i++) {
+				Figure f = list.get(i);
+				int[] at = p.index.get(f);
+				if (at == null) {
+					at = new int[] {i};
+				} else {
+					at = Arrays.copyOf(at, at.length + 1);
+					at[at.length - 1] = i;
+				}
+				p.index.put(f, at);
+			}
+			positions.put(list, p);
+		}
+		return p;
+	}
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 
+import org.jhotdraw.interfaces.SQLIdentifierElement;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.xml.DOMInput;
 
@@ -36,7 +37,7 @@ import org.jhotdraw.xml.DOMInput;
  * <br>2.0 2006-01-14 Changed to support double precison coordinates.
  * <br>1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
-public class EntidadeFigure extends GroupFigure {
+public class EntidadeFigure extends GroupFigure implements SQLIdentifierElement {
     private TextFigure tf;
     private RectangleFigure rec;
     private static int counter = 0;
@@ -95,6 +96,10 @@ public class EntidadeFigure extends GroupFigure {
 	public String toString(){
 		return tf.getText();
 	}
+
+	public SQLIdentifier getSQLIdentifier() {
+		return EventFunctions.getSQLIdentifier();
+	}
 	
     public void read(DOMInput in) throws IOException {
         super.read(in);
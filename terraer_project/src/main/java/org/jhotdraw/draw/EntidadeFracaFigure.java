@@ -20,6 +20,7 @@ import java.awt.geom.Point2D.Double;
 import java.io.IOException;
 
 import org.jhotdraw.draw.AttributeKeys.StrokeType;
+import org.jhotdraw.interfaces.SQLIdentifierElement;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.xml.DOMInput;
 
@@ -33,7 +34,7 @@ import org.jhotdraw.xml.DOMInput;
  * <br>2.0 2006-01-14 Changed to support double precison coordinates.
  * <br>1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
-public class EntidadeFracaFigure extends GroupFigure {
+public class EntidadeFracaFigure extends GroupFigure implements SQLIdentifierElement {
 	
     private TextFigure tf;
     private RectangleFigure rec;
@@ -90,6 +91,10 @@ public class EntidadeFracaFigure extends GroupFigure {
 	public String toString(){
 		return tf.getText();
 	}
+
+	public SQLIdentifier getSQLIdentifier() {
+		return EventFunctions.getSQLIdentifier();
+	}
 	
     public void read(DOMInput in) throws IOException {
         super.read(in);
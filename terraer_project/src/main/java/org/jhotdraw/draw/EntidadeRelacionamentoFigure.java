@@ -19,6 +19,7 @@ import java.awt.geom.Point2D.Double;
 
 import java.io.IOException;
 
+import org.jhotdraw.interfaces.SQLIdentifierElement;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.xml.DOMInput;
 
@@ -32,7 +33,7 @@ import org.jhotdraw.xml.DOMInput;
  * <br>2.0 2006-01-14 Changed to support double precison coordinates.
  * <br>1.0 2003-12-01 Derived from JHotDraw 5.4b1.
  */
-public class EntidadeRelacionamentoFigure extends GroupFigure {
+public class EntidadeRelacionamentoFigure extends GroupFigure implements SQLIdentifierElement {
 
 	private TextFigure tf;
 	private RectangleFigure rec;
@@ -94,6 +95,10 @@ public class EntidadeRelacionamentoFigure extends GroupFigure {
 	public String toString(){
 		return tf.getText();
 	}
+
+	public SQLIdentifier getSQLIdentifier() {
+		return EventFunctions.getSQLIdentifier();
+	}
     
     public void read(DOMInput in) throws IOException {
         super.read(in);
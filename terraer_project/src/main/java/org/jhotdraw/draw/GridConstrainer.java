@@ -17,6 +17,7 @@ package org.jhotdraw.draw;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
@@ -87,8 +88,16 @@ public class GridConstrainer implements Constrainer {
         return (width > 1 && height > 1);
     }
     
+    /**
+     * Draws the grid lines with antialiasing switched off. The lines are
+     * horizontal and vertical, have integer coordinates and are drawn with
+     * a normalized stroke, so they cover whole pixels, and antialiasing only
+     * slows them down without changing a pixel.
+     */
     public void draw(Graphics2D g, DrawingView view) {
         if (isVisible()) {
+            Object antialiasing = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
             AffineTransform t = view.getDrawingToViewTransform();
             Rectangle viewBounds = g.getClipBounds();
             Rectangle2D.Double bounds = view.viewToDrawing(viewBounds);
@@ -120,6 +129,9 @@ public class GridConstrainer implements Constrainer {
                             (int) (viewBounds.x + viewBounds.width), (int) viewPoint.y);
                 }
             }
+            if (antialiasing != null) {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+            }
         }
     }
 }
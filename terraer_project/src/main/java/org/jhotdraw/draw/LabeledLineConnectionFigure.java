@@ -14,9 +14,6 @@
 
 package org.jhotdraw.draw;
 
-import static org.jhotdraw.draw.AttributeKeys.STROKE_COLOR;
-import static org.jhotdraw.draw.AttributeKeys.TEXT_COLOR;
-
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
@@ -96,6 +93,10 @@ public class LabeledLineConnectionFigure extends LineConnectionFigure
      */
     public void draw(Graphics2D g) {
         super.draw(g);
+        // The labels are hidden with a reduced level of detail
+        if (LevelOfDetail.isReduced(g)) {
+            return;
+        }
         for (Figure child : children) {
             if (child.isVisible()) {
                 child.draw(g);
@@ -192,8 +193,6 @@ public class LabeledLineConnectionFigure extends LineConnectionFigure
     }
     // CONNECTING
     public void updateConnection() {
-    	TEXT_COLOR.set(this, validation.validateLineConnection(this));
-        STROKE_COLOR.set(this, validation.validateLineConnection(this));
         super.updateConnection();
         layout();
     }
@@ -0,0 +1,100 @@
+/*
+ * @(#)LevelOfDetail.java  1.0  October 17, 2026
+ *
+ * Copyright (c) 1996-2007 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.draw;
+
+import java.awt.BasicStroke;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.Rectangle2D;
+/**
+ * Supports the level of detail rendering of figures at small scale factors.
+ * <p>
+ * DefaultDrawingView puts its scale factor into the rendering hint
+ * KEY_SCALE_FACTOR, when the scale factor is below SCALE_THRESHOLD. Figures
+ * use the methods of this class to simplify their drawing when the hint is
+ * set: text is drawn as a bar or is skipped, double strokes are drawn as a
+ * single line, and small figures are not drawn at all. The view also turns
+ * antialiasing off. Printing does not set the hint, and draws all details.
+ *
+ * @version 1.0 October 17, 2026 Created.
+ */
+public class LevelOfDetail {
+    /**
+     * The rendering hint key for the scale factor of the view. The value is
+     * a Double. If the hint is not set, figures are drawn with all details.
+     */
+    public final static RenderingHints.Key KEY_SCALE_FACTOR = new RenderingHints.Key(0) {
+        public boolean isCompatibleValue(Object value) {
+            return value == null || value instanceof Double;
+        }
+    };
+    /**
+     * DefaultDrawingView draws figures with a reduced level of detail below
+     * this scale factor.
+     */
+    public final static double SCALE_THRESHOLD = 0.3;
+    /**
+     * Text with a font size below this number of pixels is drawn as a bar.
+     */
+    public final static double GREEK_TEXT_SIZE = 5;
+    /**
+     * Text with a font size below this number of pixels is not drawn.
+     */
+    public final static double MIN_TEXT_SIZE = 1.5;
+    /**
+     * Figures which can be culled are not drawn, if their width and height
+     * are below this number of pixels.
+     */
+    public final static double MIN_FIGURE_SIZE = 12;
+
+    /** Prevent instance creation. */
+    private LevelOfDetail() {
+    }
+
+    /**
+     * Returns true, if the graphics draws with a reduced level of detail.
+     */
+    public static boolean isReduced(Graphics2D g) {
+        return g.getRenderingHint(KEY_SCALE_FACTOR) != null;
+    }
+
+    /**
+     * Returns the number of pixels of the specified length in drawing
+     * coordinates, or Double.MAX_VALUE if the graphics draws with all details.
+     */
+    public static double toPixels(Graphics2D g, double length) {
+        Object scaleFactor = g.getRenderingHint(KEY_SCALE_FACTOR);
+        return (scaleFactor == null) ? Double.MAX_VALUE : length * (Double) scaleFactor;
+    }
+
+    /**
+     * Returns true, if a figure with the specified bounds should not be drawn.
+     */
+    public static boolean isCulled(Graphics2D g, Rectangle2D.Double bounds) {
+        return toPixels(g, Math.max(bounds.width, bounds.height)) < MIN_FIGURE_SIZE;
+    }
+
+    /**
+     * Returns the stroke of the figure. With a reduced level of detail a
+     * double stroke is replaced by a single line.
+     */
+    public static Stroke getStroke(Graphics2D g, Figure f) {
+        if (AttributeKeys.STROKE_TYPE.get(f) == AttributeKeys.StrokeType.DOUBLE && isReduced(g)) {
+            return new BasicStroke((float) AttributeKeys.STROKE_WIDTH.get(f).doubleValue());
+        }
+        return AttributeKeys.getStroke(f);
+    }
+}
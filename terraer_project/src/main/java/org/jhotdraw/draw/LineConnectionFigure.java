@@ -58,6 +58,14 @@ public class LineConnectionFigure extends LineFigure
     private static int counter = 0;
     protected String title ;
     ModelValidation validation = new ModelValidation();
+    /**
+     * The start and end figure, and the state of validateEnabled, for which
+     * validationColor has been computed.
+     */
+    private Figure validatedStart;
+    private Figure validatedEnd;
+    private boolean validatedEnabled;
+    private Color validationColor;
 
     
     /**
@@ -162,21 +170,55 @@ public class LineConnectionFigure extends LineFigure
             }
         }
         
-        if (validateEnabled){
-        	TEXT_COLOR.set(this, validation.validateLineConnection(this));
-        	STROKE_COLOR.set(this, validation.validateLineConnection(this));
-        }else{
-        	TEXT_COLOR.set(this, Color.black);
-        	STROKE_COLOR.set(this, Color.black);
-        }
+        Color color = getValidationColor();
+        TEXT_COLOR.set(this, color);
+        STROKE_COLOR.set(this, color);
                 
         ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.draw.Labels");
         title=labels.getString("connectionTitle") + this.getStartFigure().getToolTipText(null) + " "
        			+ labels.getString("connectionTitle2") + this.getEndFigure().getToolTipText(null);
-        org.jhotdraw.draw.TerraFigureTree.getInstance().refresh(this);
+        org.jhotdraw.draw.TerraFigureTree.refreshIfCreated(this);
         changed();
     }
     
+    /**
+     * Returns the color showing whether the connection is valid. The
+     * connection is validated again only if its start or end figure has been
+     * replaced, or if the validation has been switched on or off, so moving
+     * the connected figures costs no validation.
+     */
+    protected Color getValidationColor() {
+        Figure start = getStartFigure();
+        Figure end = getEndFigure();
+        if (validationColor == null || start != validatedStart || end != validatedEnd
+                || validateEnabled != validatedEnabled) {
+            validationColor = validateEnabled ? validation.validateLineConnection(this) : Color.black;
+            validatedStart = start;
+            validatedEnd = end;
+            validatedEnabled = validateEnabled;
+        }
+        return validationColor;
+    }
+    
+    /**
+     * Sets the color computed by a validation of the whole model for the
+     * specified start and end figure. Does nothing, if the connection has
+     * been reconnected since. Callers which color many connections should
+     * do so within Drawing.beginUpdate and endUpdate.
+     */
+    public void setValidationColor(Figure start, Figure end, Color color) {
+        if (start == getStartFigure() && end == getEndFigure()) {
+            willChange();
+            validationColor = color;
+            validatedStart = start;
+            validatedEnd = end;
+            validatedEnabled = validateEnabled;
+            TEXT_COLOR.basicSet(this, color);
+            STROKE_COLOR.basicSet(this, color);
+            changed();
+        }
+    }
+    
     public void validate() {
         super.validate();
         lineout();
@@ -221,6 +263,9 @@ public class LineConnectionFigure extends LineFigure
                     }
                 }
             }
+            if (getDrawing() != null) {
+                getDrawing().connectionChanged(this);
+            }
         }
     }
     
@@ -240,6 +285,9 @@ public class LineConnectionFigure extends LineFigure
                     updateConnection();
                 }
             }
+            if (getDrawing() != null) {
+                getDrawing().connectionChanged(this);
+            }
         }
     }
     
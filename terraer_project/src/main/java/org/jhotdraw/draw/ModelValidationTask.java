@@ -0,0 +1,101 @@
+package org.jhotdraw.draw;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import org.jhotdraw.draw.action.ModelValidationRules;
+
+/**
+ * Validates the connections of a drawing on a fork-join pool.
+ * <p>
+ * The constructor takes a snapshot of the classes of the connections and of
+ * their start and end figures, and must be called on the event dispatch
+ * thread. The validation itself only reads the snapshot and the rules, so it
+ * can run on any thread while the drawing is being edited.
+ */
+public class ModelValidationTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+
+	/** Number of connections below which a task is not split any further. */
+	private static final int THRESHOLD = 512;
+
+	private final LineConnectionFigure[] connections;
+	private final Figure[] starts;
+	private final Figure[] ends;
+	private final Class<?>[] connectionClasses;
+	private final Class<?>[] startClasses;
+	private final Class<?>[] endClasses;
+	private final boolean[] valid;
+	private final int from;
+	private final int to;
+
+	public ModelValidationTask(List<LineConnectionFigure> connections){
+		int n=connections.size();
+		this.connections=connections.toArray(new LineConnectionFigure[n]);
+		starts=new Figure[n];
+		ends=new Figure[n];
+		connectionClasses=new Class<?>[n];
+		startClasses=new Class<?>[n];
+		endClasses=new Class<?>[n];
+		for(int i=0;i<n;i++){
+			LineConnectionFigure c=this.connections[i];
+			starts[i]=c.getStartFigure();
+			ends[i]=c.getEndFigure();
+			connectionClasses[i]=c.getClass();
+			startClasses[i]=starts[i]==null ? null : starts[i].getClass();
+			endClasses[i]=ends[i]==null ? null : ends[i].getClass();
+		}
+		valid=new boolean[n];
+		from=0;
+		to=n;
+	}
+
+	private ModelValidationTask(ModelValidationTask parent,int from,int to){
+		connections=parent.connections;
+		starts=parent.starts;
+		ends=parent.ends;
+		connectionClasses=parent.connectionClasses;
+		startClasses=parent.startClasses;
+		endClasses=parent.endClasses;
+		valid=parent.valid;
+		this.from=from;
+		this.to=to;
+	}
+
+	protected void compute(){
+		if(to-from>THRESHOLD){
+			int middle=(from+to)>>>1;
+			invokeAll(new ModelValidationTask(this,from,middle),new ModelValidationTask(this,middle,to));
+		}
+		else{
+			ModelValidationRules rules=ModelValidationRules.getInstance();
+			for(int i=from;i<to;i++){
+				valid[i]=! rules.isValidated(connectionClasses[i])
+						|| rules.isValid(connectionClasses[i],startClasses[i],endClasses[i]);
+			}
+		}
+	}
+
+	public int getConnectionCount(){
+		return connections.length;
+	}
+
+	public LineConnectionFigure getConnection(int i){
+		return connections[i];
+	}
+
+	/** Returns the start figure of a connection at the time of the snapshot. */
+	public Figure getStartFigure(int i){
+		return starts[i];
+	}
+
+	/** Returns the end figure of a connection at the time of the snapshot. */
+	public Figure getEndFigure(int i){
+		return ends[i];
+	}
+
+	/** Returns true, if the connection is valid. Call after the task is done. */
+	public boolean isValid(int i){
+		return valid[i];
+	}
+}
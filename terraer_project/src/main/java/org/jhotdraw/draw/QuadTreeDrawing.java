@@ -15,23 +15,34 @@
 package org.jhotdraw.draw;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 
 import javax.swing.event.UndoableEditEvent;
 import javax.swing.event.UndoableEditListener;
 
 import org.jhotdraw.geom.Dimension2DDouble;
+import org.jhotdraw.geom.AABBTree;
+import org.jhotdraw.geom.PackedAABBTree;
 import org.jhotdraw.geom.QuadTree;
+import org.jhotdraw.geom.SpatialIndex;
 import org.jhotdraw.util.ReversedList;
 /**
  * QuadTreeDrawing uses a QuadTree2DDouble to improve responsiveness of drawings
  * which contain many figures.
  * <p>
+ * Instead of a {@link QuadTree}, an {@link AABBTree} can be used as the
+ * spatial index, by passing it to the constructor, or by setting the system
+ * property {@code org.jhotdraw.draw.QuadTreeDrawing.index} to "aabb".
+ * <p>
  * FIXME - Rename this class to DefaultDrawingView.
  *
  * @author Werner Randelshofer
@@ -43,59 +54,204 @@ import org.jhotdraw.util.ReversedList;
  */
 public class QuadTreeDrawing extends AbstractDrawing {
     private ArrayList<Figure> figures = new ArrayList<Figure>();
-    private QuadTree<Figure> quadTree = new QuadTree<Figure>();
+    /**
+     * System property, which selects the spatial index of drawings created
+     * with the default constructor: "quadtree", "aabb" or "packed".
+     */
+    public final static String INDEX_PROPERTY = "org.jhotdraw.draw.QuadTreeDrawing.index";
+    
+    private SpatialIndex<Figure> spatialIndex;
     private boolean needsSorting = false;
     private FigureHandler figureHandler;
     private Dimension2DDouble canvasSize;
+    private FigureBuffer buffer = new FigureBuffer();
+    private Rectangle2D.Double clip = new Rectangle2D.Double();
+    
+    /**
+     * The z-order rank of each figure. The labels increase along the list
+     * of figures, with gaps between them, so that a figure can be inserted
+     * without relabeling its neighbors. A set of figures is sorted in
+     * z-order by comparing their layers and labels, without looking at
+     * the other figures of the drawing.
+     */
+    private IdentityHashMap<Figure,ZRank> ranks = new IdentityHashMap<Figure,ZRank>();
+    /** Gap between the labels of adjacent figures, after relabeling. */
+    private final static long LABEL_GAP = 1L << 20;
+    
+    private static class ZRank {
+        private long label;
+        private int layer;
+        /** Transformed bounds of the figure, null when they have changed. */
+        private Rectangle2D.Double bounds;
+    }
+    
+    /** Compares figures of this drawing in z-order from back to front. */
+    private final Comparator<Figure> zOrder = new Comparator<Figure>() {
+        public int compare(Figure f1, Figure f2) {
+            ZRank r1 = ranks.get(f1);
+            ZRank r2 = ranks.get(f2);
+            if (r1.layer != r2.layer) {
+                return (r1.layer < r2.layer) ? -1 : 1;
+            }
+            return (r1.label < r2.label) ? -1 : ((r1.label == r2.label) ? 0 : 1);
+        }
+    };
     
     /** Creates a new instance. */
     public QuadTreeDrawing() {
+        this(createSpatialIndex());
+    }
+    
+    /** Creates a new instance, which uses the specified spatial index. */
+    public QuadTreeDrawing(SpatialIndex<Figure> spatialIndex) {
+        this.spatialIndex = spatialIndex;
         figureHandler = createFigureHandler();
     }
     
+    private static SpatialIndex<Figure> createSpatialIndex() {
+        String index = System.getProperty(INDEX_PROPERTY);
+        if ("aabb".equalsIgnoreCase(index)) {
+            return new AABBTree<Figure>();
+        }
+        if ("packed".equalsIgnoreCase(index)) {
+            return new PackedAABBTree<Figure>();
+        }
+        return new QuadTree<Figure>();
+    }
+    
     protected FigureHandler createFigureHandler() {
         return new FigureHandler();
     }
     
+    /**
+     * Looks the figure up by its rank. The labels of the ranks increase
+     * along the list of figures, so the index is found by a binary search.
+     */
     public int indexOf(Figure figure) {
-        return figures.indexOf(figure);
+        ZRank rank = ranks.get(figure);
+        if (rank == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = figures.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long label = ranks.get(figures.get(mid)).label;
+            if (label < rank.label) {
+                low = mid + 1;
+            } else if (label > rank.label) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
     }
     
     public void basicAdd(int index, Figure figure) {
         figures.add(index, figure);
-        quadTree.add(figure, figure.getDrawingArea());
+        label(index, index + 1);
+        spatialIndex.add(figure, getIndexBounds(figure));
         figure.addFigureListener(figureHandler);
-        needsSorting = true;
+        addIncident(figure);
+    }
+    /**
+     * Adds the figures to the spatial index in bulk.
+     */
+    @Override public void basicAddAll(int index, Collection<Figure> c) {
+        figures.addAll(index, c);
+        label(index, index + c.size());
+        HashMap<Figure,Rectangle2D.Double> bounds = new HashMap<Figure,Rectangle2D.Double>(c.size() * 4 / 3 + 1);
+        for (Figure figure : c) {
+            bounds.put(figure, getIndexBounds(figure));
+            figure.addFigureListener(figureHandler);
+            addIncident(figure);
+        }
+        spatialIndex.addAll(bounds);
     }
     public void basicRemove(Figure figure) {
-        figures.remove(figure);
-        quadTree.remove(figure);
+        int index = indexOf(figure);
+        if (index != -1) {
+            figures.remove(index);
+        }
+        ranks.remove(figure);
+        spatialIndex.remove(figure);
         figure.removeFigureListener(figureHandler);
-        needsSorting = true;
+        removeIncident(figure);
+    }
+    /**
+     * Removes the figures and compacts the list of figures once.
+     */
+    @Override public void basicRemoveAll(Collection<Figure> c) {
+        int count = 0;
+        for (Figure figure : new ArrayList<Figure>(c)) {
+            if (ranks.remove(figure) != null) {
+                spatialIndex.remove(figure);
+                figure.removeFigureListener(figureHandler);
+                removeIncident(figure);
+                count++;
+            }
+        }
+        if (count > 0) {
+            int j = 0;
+            for (int i = 0, n = figures.size(); i < n; i++) {
+                Figure f = figures.get(i);
+                if (ranks.containsKey(f)) {
+                    figures.set(j++, f);
+                }
+            }
+            figures.subList(j, figures.size()).clear();
+        }
     }
     
     public void draw(Graphics2D g) {
         Rectangle2D clipBounds = g.getClipBounds();
         if (clipBounds != null) {
-            Collection<Figure> c = quadTree.findIntersects(clipBounds);
-            Collection<Figure> toDraw = sort(c);
-            draw(g, toDraw);
+            clip.setRect(clipBounds);
+            FigureBuffer b = getBuffer();
+            try {
+                spatialIndex.visitIntersects(clip, b);
+                b.sort();
+                for (int i = 0, n = b.size(); i < n; i++) {
+                    b.get(i).draw(g);
+                }
+            } finally {
+                b.release();
+            }
         } else {
             draw(g, figures);
         }
     }
     
+    public void forEachIntersecting(Rectangle2D.Double bounds, SpatialIndex.Visitor<? super Figure> visitor) {
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitIntersects(bounds, b);
+            b.sort();
+            for (int i = 0, n = b.size(); i < n; i++) {
+                visitor.visit(b.get(i));
+            }
+        } finally {
+            b.release();
+        }
+    }
+    
     /**
      * Implementation note: Sorting can not be done for orphaned figures.
      */
     public java.util.List<Figure> sort(Collection<Figure> c) {
-        ensureSorted();
         ArrayList<Figure> sorted = new ArrayList<Figure>(c.size());
-        for (Figure f : figures) {
-            if (c.contains(f)) {
+        for (Figure f : c) {
+            if (ranks.containsKey(f)) {
                 sorted.add(f);
             }
         }
+        Collections.sort(sorted, zOrder);
+        for (int i = sorted.size() - 1; i > 0; i--) {
+            if (sorted.get(i) == sorted.get(i - 1)) {
+                sorted.remove(i);
+            }
+        }
         return sorted;
     }
     
@@ -108,7 +264,7 @@ public class QuadTreeDrawing extends AbstractDrawing {
     
     
     public java.util.List<Figure> getFigures(Rectangle2D.Double bounds) {
-        return new LinkedList(quadTree.findInside(bounds));
+        return new LinkedList(spatialIndex.findInside(bounds));
     }
     
     public java.util.List<Figure> getFigures() {
@@ -116,14 +272,20 @@ public class QuadTreeDrawing extends AbstractDrawing {
     }
     
     public Figure findFigureInside(Point2D.Double p) {
-        Collection<Figure> c = quadTree.findContains(p);
-        for (Figure f : getFiguresFrontToBack()) {
-            if (c.contains(f) && f.contains(p)){
-                return f.findFigureInside(p);
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitContains(p, b);
+            b.sort();
+            for (int i = b.size() - 1; i >= 0; i--) {
+                Figure f = b.get(i);
+                if (f.contains(p)) {
+                    return f.findFigureInside(p);
+                }
             }
+            return null;
+        } finally {
+            b.release();
         }
-        return null;
-        
     }
     
     /**
@@ -136,129 +298,170 @@ public class QuadTreeDrawing extends AbstractDrawing {
     }
     
     public Figure findFigure(Point2D.Double p) {
-        Collection<Figure> c = quadTree.findContains(p);
-        switch (c.size()) {
-            case 0 :
-                return null;
-            case 1: {
-                Figure f = c.iterator().next();
-                return (f.contains(p)) ? f : null;
-            }
-            default : {
-                for (Figure f : getFiguresFrontToBack()) {
-                    if (c.contains(f) && f.contains(p)) return f;
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitContains(p, b);
+            b.sort();
+            for (int i = b.size() - 1; i >= 0; i--) {
+                Figure f = b.get(i);
+                if (f.contains(p)) {
+                    return f;
                 }
-                return null;
             }
+            return null;
+        } finally {
+            b.release();
         }
     }
     public Figure findFigureExcept(Point2D.Double p, Figure ignore) {
-        Collection<Figure> c = quadTree.findContains(p);
-        switch (c.size()) {
-            case 0 : {
-                return null;
-            }
-            case 1: {
-                Figure f = c.iterator().next();
-                return (f == ignore || ! f.contains(p)) ? null : f;
-            }
-            default : {
-                for (Figure f : getFiguresFrontToBack()) {
-                    if (f != ignore && f.contains(p)) return f;
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitContains(p, b);
+            b.sort();
+            for (int i = b.size() - 1; i >= 0; i--) {
+                Figure f = b.get(i);
+                if (f != ignore && f.contains(p)) {
+                    return f;
                 }
-                return null;
             }
+            return null;
+        } finally {
+            b.release();
         }
     }
     public Figure findFigureExcept(Point2D.Double p, Collection ignore) {
-        Collection<Figure> c = quadTree.findContains(p);
-        switch (c.size()) {
-            case 0 : {
-                return null;
-            }
-            case 1: {
-                Figure f = c.iterator().next();
-                return (! ignore.contains(f) || ! f.contains(p)) ? null : f;
-            }
-            default : {
-                for (Figure f : getFiguresFrontToBack()) {
-                    if (! ignore.contains(f) && f.contains(p)) return f;
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitContains(p, b);
+            b.sort();
+            for (int i = b.size() - 1; i >= 0; i--) {
+                Figure f = b.get(i);
+                if (! ignore.contains(f) && f.contains(p)) {
+                    return f;
                 }
-                return null;
             }
+            return null;
+        } finally {
+            b.release();
         }
     }
     public Figure findFigureBehind(Point2D.Double p, Figure figure) {
-        boolean isBehind = false;
-        for (Figure f : getFiguresFrontToBack()) {
-            if (isBehind) {
-                if (f.isVisible() && f.contains(p)) {
-                    return f;
-                }
-            } else {
-                isBehind = figure == f;
+        return ranks.containsKey(figure) ? findFigureBehindRank(p, figure) : null;
+    }
+    public Figure findFigureBehind(Point2D.Double p, Collection<Figure> figures) {
+        Figure back = null;
+        for (Figure f : figures) {
+            if (! ranks.containsKey(f)) {
+                return null;
+            }
+            if (back == null || zOrder.compare(f, back) < 0) {
+                back = f;
             }
         }
-        return null;
+        return (back == null) ? findFigure(p) : findFigureBehindRank(p, back);
     }
-    public Figure findFigureBehind(Point2D.Double p, Collection<Figure> figures) {
-        int inFrontOf = figures.size();
-        for (Figure f : getFiguresFrontToBack()) {
-            if (inFrontOf == 0) {
-                if (f.isVisible() && f.contains(p)) {
+    /**
+     * Finds the front most visible figure, which contains the point and is
+     * behind the specified figure of the drawing.
+     */
+    private Figure findFigureBehindRank(Point2D.Double p, Figure figure) {
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitContains(p, b);
+            b.sort();
+            for (int i = b.size() - 1; i >= 0; i--) {
+                Figure f = b.get(i);
+                if (zOrder.compare(f, figure) < 0 && f.isVisible() && f.contains(p)) {
                     return f;
                 }
-            } else {
-                if (figures.contains(f)) {
-                    inFrontOf--;
-                }
             }
+            return null;
+        } finally {
+            b.release();
         }
-        return null;
     }
     
     public java.util.List<Figure> findFigures(Rectangle2D.Double r) {
-        LinkedList<Figure> c = new LinkedList<Figure>(quadTree.findIntersects(r));
-        switch (c.size()) {
-            case 0 :
-                // fall through
-            case 1:
-                return c;
-            default :
-                return sort(c);
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitIntersects(r, b);
+            b.sort();
+            return b.toList();
+        } finally {
+            b.release();
         }
     }
+    /**
+     * Only the figures whose drawing area intersects the bounds are checked.
+     * Their transformed bounds are cached until the figure changes.
+     */
     public java.util.List<Figure> findFiguresWithin(Rectangle2D.Double bounds) {
-        LinkedList<Figure> contained = new LinkedList<Figure>();
-        for (Figure f : figures) {
-            Rectangle2D r = f.getBounds();
-            if (AttributeKeys.TRANSFORM.get(f) != null) {
-                r = AttributeKeys.TRANSFORM.get(f).createTransformedShape(r).getBounds2D();
+        FigureBuffer b = getBuffer();
+        try {
+            spatialIndex.visitIntersects(bounds, b);
+            b.sort();
+            LinkedList<Figure> contained = new LinkedList<Figure>();
+            for (int i = 0, n = b.size(); i < n; i++) {
+                Figure f = b.get(i);
+                if (f.isVisible() && bounds.contains(getTransformedBounds(f))) {
+                    contained.add(f);
+                }
             }
-            if (f.isVisible() && bounds.contains(r)) {
-                contained.add(f);
+            return contained;
+        } finally {
+            b.release();
+        }
+    }
+    
+    /**
+     * Returns the drawing area of the figure, or its bounds if the drawing
+     * area is undefined, so that the figure can still be found.
+     */
+    private static Rectangle2D.Double getIndexBounds(Figure f) {
+        Rectangle2D.Double r = f.getDrawingArea();
+        if (Double.isNaN(r.x) || Double.isNaN(r.y) || Double.isNaN(r.width) || Double.isNaN(r.height)) {
+            r = f.getBounds();
+        }
+        return r;
+    }
+    
+    private Rectangle2D.Double getTransformedBounds(Figure f) {
+        ZRank rank = ranks.get(f);
+        if (rank.bounds == null) {
+            Rectangle2D.Double r = f.getBounds();
+            AffineTransform tx = AttributeKeys.TRANSFORM.get(f);
+            if (tx != null) {
+                Rectangle2D t = tx.createTransformedShape(r).getBounds2D();
+                r = new Rectangle2D.Double(t.getX(), t.getY(), t.getWidth(), t.getHeight());
             }
+            rank.bounds = r;
         }
-        return contained;
+        return rank.bounds;
     }
     
     public void bringToFront(Figure figure) {
-        if (figures.remove(figure)) {
+        int index = indexOf(figure);
+        if (index != -1) {
+            figures.remove(index);
             figures.add(figure);
-            needsSorting = true;
+            label(figures.size() - 1, figures.size());
             fireAreaInvalidated(figure.getDrawingArea());
+            fireFigureOrderChanged(figure);
         }
     }
     public void sendToBack(Figure figure) {
-        if (figures.remove(figure)) {
+        int index = indexOf(figure);
+        if (index != -1) {
+            figures.remove(index);
             figures.add(0, figure);
-            needsSorting = true;
+            label(0, 1);
             fireAreaInvalidated(figure.getDrawingArea());
+            fireFigureOrderChanged(figure);
         }
     }
     
     public boolean contains(Figure f) {
-        return figures.contains(f);
+        return ranks.containsKey(f);
     }
     
     /**
@@ -267,10 +470,68 @@ public class QuadTreeDrawing extends AbstractDrawing {
     private void ensureSorted() {
         if (needsSorting) {
             Collections.sort(figures, FigureLayerComparator.INSTANCE);
+            relabel();
             needsSorting = false;
         }
     }
     
+    /**
+     * Labels the figures from index from to index to - 1 between the labels
+     * of their neighbors. Relabels all figures, if there is no room left
+     * between the neighbors.
+     */
+    private void label(int from, int to) {
+        int count = to - from;
+        boolean hasLow = from > 0;
+        boolean hasHigh = to < figures.size();
+        long low = hasLow ? ranks.get(figures.get(from - 1)).label : 0;
+        long high = hasHigh ? ranks.get(figures.get(to)).label : 0;
+        long step;
+        if (hasLow && hasHigh) {
+            step = (high - low) / (count + 1);
+        } else if (hasLow) {
+            step = (low < Long.MAX_VALUE - LABEL_GAP * (count + 1)) ? LABEL_GAP : 0;
+        } else if (hasHigh) {
+            step = (high > Long.MIN_VALUE + LABEL_GAP * (count + 1)) ? LABEL_GAP : 0;
+            low = high - LABEL_GAP * (count + 1);
+        } else {
+            step = LABEL_GAP;
+        }
+        if (step < 1) {
+            relabel();
+        } else {
+            for (int i = from; i < to; i++) {
+                low += step;
+                setRank(figures.get(i), low);
+            }
+        }
+        for (int i = Math.max(from - 1, 0), n = Math.min(to, figures.size() - 1); i < n; i++) {
+            if (figures.get(i).getLayer() > figures.get(i + 1).getLayer()) {
+                needsSorting = true;
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Labels all figures with equal gaps.
+     */
+    private void relabel() {
+        for (int i = 0, n = figures.size(); i < n; i++) {
+            setRank(figures.get(i), i * LABEL_GAP);
+        }
+    }
+    
+    private void setRank(Figure f, long label) {
+        ZRank rank = ranks.get(f);
+        if (rank == null) {
+            rank = new ZRank();
+            ranks.put(f, rank);
+        }
+        rank.label = label;
+        rank.layer = f.getLayer();
+    }
+    
     public void setCanvasSize(Dimension2DDouble newValue) {
         Dimension2DDouble oldValue = canvasSize;
         canvasSize = newValue;
@@ -281,6 +542,58 @@ public class QuadTreeDrawing extends AbstractDrawing {
         return canvasSize;
     }
     
+    /**
+     * Returns the buffer for a query. The same buffer is used by all
+     * queries, unless a query is made while another one is running.
+     */
+    private FigureBuffer getBuffer() {
+        if (buffer.isInUse) {
+            return new FigureBuffer();
+        }
+        buffer.isInUse = true;
+        return buffer;
+    }
+    
+    /**
+     * Collects the figures found by the spatial index, and sorts them in
+     * z-order. The buffer keeps its capacity, so that hit testing and
+     * drawing don't allocate memory once the buffer is large enough.
+     */
+    private class FigureBuffer implements SpatialIndex.Visitor<Figure> {
+        private ArrayList<Figure> found = new ArrayList<Figure>();
+        private boolean isInUse;
+        
+        public void visit(Figure f) {
+            found.add(f);
+        }
+        
+        public int size() {
+            return found.size();
+        }
+        
+        public Figure get(int i) {
+            return found.get(i);
+        }
+        
+        public ArrayList<Figure> toList() {
+            return new ArrayList<Figure>(found);
+        }
+        
+        /**
+         * Sorts the figures in z-order from back to front.
+         */
+        public void sort() {
+            if (found.size() > 1) {
+                Collections.sort(found, zOrder);
+            }
+        }
+        
+        public void release() {
+            found.clear();
+            isInUse = false;
+        }
+    }
+    
     /**
      * Handles all figure events fired by Figures contained in the Drawing.
      */
@@ -294,13 +607,27 @@ public class QuadTreeDrawing extends AbstractDrawing {
         }
         
         @Override public void figureAreaInvalidated(FigureEvent e) {
-            fireAreaInvalidated(e.getInvalidatedArea());
+            fireAreaInvalidated(e.getFigure(), e.getInvalidatedArea());
         }
         @Override public void figureChanged(FigureEvent e) {
-            quadTree.remove(e.getFigure());
-            quadTree.add(e.getFigure(), e.getFigure().getDrawingArea());
-            needsSorting = true;
-            fireAreaInvalidated(e.getInvalidatedArea());
+            // Composite figures pass on the events of their children,
+            // only the figures of the drawing belong into the index.
+            ZRank rank = ranks.get(e.getFigure());
+            if (rank != null) {
+                rank.bounds = null;
+                spatialIndex.update(e.getFigure(), getIndexBounds(e.getFigure()));
+                if (rank.layer != e.getFigure().getLayer()) {
+                    rank.layer = e.getFigure().getLayer();
+                    needsSorting = true;
+                }
+            }
+            fireAreaInvalidated(e.getFigure(), e.getInvalidatedArea());
+        }
+        @Override public void figureAttributeChanged(FigureEvent e) {
+            ZRank rank = ranks.get(e.getFigure());
+            if (rank != null) {
+                rank.bounds = null;
+            }
         }
         @Override public void figureRequestRemove(FigureEvent e) {
             remove(e.getFigure());
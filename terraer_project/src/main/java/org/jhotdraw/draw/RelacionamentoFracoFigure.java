@@ -19,6 +19,7 @@ import java.awt.geom.Point2D.Double;
 import java.io.IOException;
 
 import org.jhotdraw.draw.AttributeKeys.StrokeType;
+import org.jhotdraw.interfaces.SQLIdentifierElement;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.xml.DOMInput;
 
@@ -31,7 +32,7 @@ import org.jhotdraw.xml.DOMInput;
  * IS_QUADRATIC attribute. 
  * <br>1.0 2006-03-27 Created.
  */
-public class RelacionamentoFracoFigure extends GroupFigure {
+public class RelacionamentoFracoFigure extends GroupFigure implements SQLIdentifierElement {
 
     private TextFigure tf;
     private DiamondFigure df;
@@ -86,6 +87,10 @@ public class RelacionamentoFracoFigure extends GroupFigure {
 	public String toString(){
 		return tf.getText();
 	}
+
+	public SQLIdentifier getSQLIdentifier() {
+		return EventFunctions.getSQLIdentifier();
+	}
 	
     public void read(DOMInput in) throws IOException {
         super.read(in);
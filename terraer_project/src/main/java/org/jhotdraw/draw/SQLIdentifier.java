@@ -0,0 +1,65 @@
+package org.jhotdraw.draw;
+
+import java.util.regex.Pattern;
+
+/**
+ * The SQL identifiers derived from the text of a figure: the name with
+ * blanks replaced by underscores, and its upper and lower case forms used
+ * for table, column and constraint names.
+ * <p>
+ * The identifiers are computed on first use and kept until the text changes.
+ * {@link TerraResizeEventFunctions#figureTextChanged} invalidates them.
+ */
+public class SQLIdentifier {
+
+	private static final Pattern BLANKS = Pattern.compile("\\s+");
+
+	private final TextFigure Txf;
+	private String name;
+	private String upperCase;
+	private String lowerCase;
+
+	public SQLIdentifier(TextFigure Txf){
+		this.Txf=Txf;
+	}
+
+	/**
+	 * Returns the text with each sequence of blanks replaced by an underscore.
+	 */
+	public String getName(){
+		if(name==null){
+			name=BLANKS.matcher(Txf.getText()).replaceAll("_");
+		}
+		return name;
+	}
+
+	/**
+	 * Returns the upper case identifier, used for tables and columns.
+	 */
+	public String getUpperCase(){
+		if(upperCase==null){
+			upperCase=BLANKS.matcher(Txf.getText().toUpperCase()).replaceAll("_");
+		}
+		return upperCase;
+	}
+
+	/**
+	 * Returns the lower case identifier.
+	 */
+	public String getLowerCase(){
+		if(lowerCase==null){
+			lowerCase=BLANKS.matcher(Txf.getText().toLowerCase()).replaceAll("_");
+		}
+		return lowerCase;
+	}
+
+	/**
+	 * Discards the identifiers, so that they are computed again from the
+	 * current text.
+	 */
+	public void invalidate(){
+		name=null;
+		upperCase=null;
+		lowerCase=null;
+	}
+}
@@ -0,0 +1,233 @@
+package org.jhotdraw.draw;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks the structure of an ER model, beyond the types of the single
+ * connections:
+ * <ul>
+ * <li>an entity has a key attribute, unless it is the specialization of a
+ * generalization;</li>
+ * <li>a weak entity takes part in a weak relationship and has a partial key;</li>
+ * <li>a disjunction, overlap or union has at least two specializations.</li>
+ * </ul>
+ * The problems are kept up to date incrementally. The figures which have
+ * been added, removed or changed are recorded in a dirty set, and
+ * {@link #update} checks only these figures and the figures at the other
+ * end of their connections. The connections of each figure are looked up
+ * in the drawing (see {@link Drawing#getConnections}), so no update has to
+ * look at the whole drawing.
+ */
+public class StructuralValidation {
+
+	public static final String MISSING_KEY = "missingKeyAttribute";
+	public static final String MISSING_IDENTIFYING_RELATIONSHIP = "missingIdentifyingRelationship";
+	public static final String MISSING_PARTIAL_KEY = "missingPartialKey";
+	public static final String MISSING_SPECIALIZATIONS = "missingSpecializations";
+
+	/** A problem of a figure. */
+	public static class Problem {
+		private final Figure figure;
+		private final String key;
+
+		public Problem(Figure figure,String key){
+			this.figure=figure;
+			this.key=key;
+		}
+
+		public Figure getFigure(){
+			return figure;
+		}
+
+		/** Returns one of the problem constants of StructuralValidation. */
+		public String getKey(){
+			return key;
+		}
+	}
+
+	private final Drawing drawing;
+	/** Start and end figure of each connection, as last seen. */
+	private final Map<ConnectionFigure, Figure[]> endpoints = new IdentityHashMap<ConnectionFigure, Figure[]>();
+	private final Set<Figure> present = Collections.newSetFromMap(new IdentityHashMap<Figure, Boolean>());
+	private final Set<Figure> dirty = new LinkedHashSet<Figure>();
+	/** The problems of each figure, in the order in which they were found. */
+	private final Map<Figure, List<Problem>> problems = new LinkedHashMap<Figure, List<Problem>>();
+	private int checkCount;
+
+	/** Creates an instance which checks the figures of a drawing. */
+	public StructuralValidation(Drawing drawing){
+		this.drawing=drawing;
+		for(Figure f : drawing.getFigures()){
+			figureAdded(f);
+		}
+		update();
+	}
+
+	public void figureAdded(Figure f){
+		present.add(f);
+		dirty.add(f);
+	}
+
+	public void figureRemoved(Figure f){
+		present.remove(f);
+		dirty.add(f);
+	}
+
+	/**
+	 * Records a change of a figure. Only the start and end figure of
+	 * connections affect the checks.
+	 */
+	public void figureChanged(Figure f){
+		if(f instanceof ConnectionFigure){
+			dirty.add(f);
+		}
+	}
+
+	public boolean isInvalid(){
+		return ! dirty.isEmpty();
+	}
+
+	/** Returns the number of figures checked by the last update. */
+	public int getCheckCount(){
+		return checkCount;
+	}
+
+	/**
+	 * Checks the dirty figures and their neighbors.
+	 */
+	public void update(){
+		Set<Figure> check = new LinkedHashSet<Figure>();
+		for(Figure f : dirty){
+			if(f instanceof ConnectionFigure){
+				ConnectionFigure c=(ConnectionFigure)f;
+				Figure[] old=endpoints.remove(c);
+				if(old!=null){
+					addEndpoint(old[0],check);
+					addEndpoint(old[1],check);
+				}
+				if(present.contains(c)){
+					Figure[] now={c.getStartFigure(),c.getEndFigure()};
+					endpoints.put(c,now);
+					addEndpoint(now[0],check);
+					addEndpoint(now[1],check);
+				}
+			}
+			else if(present.contains(f)){
+				check.add(f);
+			}
+			else{
+				problems.remove(f);
+			}
+		}
+		dirty.clear();
+
+		checkCount=0;
+		for(Figure f : check){
+			if(present.contains(f)){
+				check(f);
+				checkCount++;
+			}
+		}
+	}
+
+	private static void addEndpoint(Figure f,Set<Figure> check){
+		if(f!=null){
+			check.add(f);
+		}
+	}
+
+	private void check(Figure f){
+		List<Problem> found=new ArrayList<Problem>(1);
+		if(f instanceof EntidadeFigure){
+			if(! hasNeighbor(f,AtributoChaveFigure.class) && ! isSpecialization(f)){
+				found.add(new Problem(f,MISSING_KEY));
+			}
+		}
+		else if(f instanceof EntidadeFracaFigure){
+			if(! hasNeighbor(f,RelacionamentoFracoFigure.class)){
+				found.add(new Problem(f,MISSING_IDENTIFYING_RELATIONSHIP));
+			}
+			if(! hasNeighbor(f,AtributoChaveParcialFigure.class)){
+				found.add(new Problem(f,MISSING_PARTIAL_KEY));
+			}
+		}
+		else if(f instanceof DisjuncaoFigure || f instanceof SobreposicaoFigure || f instanceof UniaoFigure){
+			if(countSpecializations(f)<2){
+				found.add(new Problem(f,MISSING_SPECIALIZATIONS));
+			}
+		}
+		if(found.isEmpty()){
+			problems.remove(f);
+		}
+		else{
+			problems.put(f,found);
+		}
+	}
+
+	private Collection<ConnectionFigure> connectionsOf(Figure f){
+		return drawing.getConnections(f);
+	}
+
+	private static Figure other(ConnectionFigure c,Figure f){
+		return c.getStartFigure()==f ? c.getEndFigure() : c.getStartFigure();
+	}
+
+	private boolean hasNeighbor(Figure f,Class<? extends Figure> type){
+		for(ConnectionFigure c : connectionsOf(f)){
+			Figure o=other(c,f);
+			if(o!=null && o.getClass()==type){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** A specialization is the end figure of a generalization line. */
+	private boolean isSpecialization(Figure f){
+		for(ConnectionFigure c : connectionsOf(f)){
+			if(c instanceof GeneralizacaoLineConnectionFigure && c.getEndFigure()==f){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int countSpecializations(Figure f){
+		int count=0;
+		for(ConnectionFigure c : connectionsOf(f)){
+			if(c instanceof GeneralizacaoLineConnectionFigure && c.getStartFigure()==f){
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the problems found by the last update. Figures keep their place
+	 * in the list while their problems persist, and figures with new problems
+	 * are added at the end.
+	 */
+	public List<Problem> getProblems(){
+		ArrayList<Problem> list=new ArrayList<Problem>();
+		for(List<Problem> p : problems.values()){
+			list.addAll(p);
+		}
+		return list;
+	}
+
+	public int getProblemCount(){
+		int count=0;
+		for(List<Problem> p : problems.values()){
+			count+=p.size();
+		}
+		return count;
+	}
+}
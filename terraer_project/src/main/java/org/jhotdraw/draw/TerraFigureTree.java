@@ -25,6 +25,14 @@ public class TerraFigureTree extends JTree {
 	
 	private boolean DrawSelectionEventHandle = true;
 	private boolean TreeSelectionEventHandle = true;
+	
+	/*
+	 * While a drawing is updated, the nodes are changed without reloading
+	 * them. They are reloaded once at the end of the update.
+	 */
+	private int updateDepth = 0;
+	private java.util.LinkedHashSet<DefaultMutableTreeNode> changedNodes = new java.util.LinkedHashSet<DefaultMutableTreeNode>();
+	private boolean refreshed = false;
 
 	protected TerraFigureTree() {
 		super();
@@ -60,6 +68,79 @@ public class TerraFigureTree extends JTree {
 		return instance;
 	}
 
+	/*
+	 * The model notifies the tree through the following methods, which do
+	 * nothing until the tree has been created. This way, drawings can be
+	 * loaded and processed without a user interface.
+	 */
+
+	public static void addIfCreated(Figure f) {
+		if (instance != null) {
+			instance.add(f);
+		}
+	}
+
+	public static void removeIfCreated(Figure f) {
+		if (instance != null) {
+			instance.remove(f);
+		}
+	}
+
+	public static void refreshIfCreated(Figure f) {
+		if (instance != null) {
+			instance.refresh(f);
+		}
+	}
+
+	public static void beginUpdateIfCreated() {
+		if (instance != null) {
+			instance.beginUpdate();
+		}
+	}
+
+	public static void endUpdateIfCreated() {
+		if (instance != null) {
+			instance.endUpdate();
+		}
+	}
+
+	public void beginUpdate() {
+		updateDepth++;
+	}
+
+	public void endUpdate() {
+		if (updateDepth == 0 || --updateDepth > 0) {
+			return;
+		}
+		TreePath[] SelectedNodesPath = null;
+		if (refreshed) {
+			TreeSelectionEventHandle = false;
+			DrawSelectionEventHandle = false;
+			SelectedNodesPath = this.getSelectionPaths();
+		}
+		for (DefaultMutableTreeNode Node : changedNodes) {
+			dtmTreeModel.reload(Node);
+		}
+		if (refreshed) {
+			this.setSelectionPaths(SelectedNodesPath);
+			TreeSelectionEventHandle = true;
+			DrawSelectionEventHandle = true;
+		}
+		changedNodes.clear();
+		refreshed = false;
+	}
+
+	/**
+	 * Reloads a node now, or at the end of the update.
+	 */
+	private void reload(DefaultMutableTreeNode Node) {
+		if (updateDepth > 0) {
+			changedNodes.add(Node);
+		} else {
+			dtmTreeModel.reload(Node);
+		}
+	}
+
 	protected void buildTreeNodes() {
 		ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
 		
@@ -106,7 +187,7 @@ public class TerraFigureTree extends JTree {
 	public void add(Figure f) {
 		DefaultMutableTreeNode Node = chooseApropriateNode(f);
 		Node.add(new DefaultMutableTreeNode(f));
-		dtmTreeModel.reload(Node);
+		reload(Node);
 
 	}
 
@@ -121,7 +202,7 @@ public class TerraFigureTree extends JTree {
 				break;
 			}
 		}
-		dtmTreeModel.reload(Node);
+		reload(Node);
 	}
 	
 	protected DefaultMutableTreeNode find(Figure f){
@@ -217,6 +298,11 @@ public class TerraFigureTree extends JTree {
 	}
 	
 	public void refresh(Figure f){
+		if (updateDepth > 0) {
+			changedNodes.add(chooseApropriateNode(f));
+			refreshed = true;
+			return;
+		}
 		TreeSelectionEventHandle = false;
 		DrawSelectionEventHandle = false;
 		
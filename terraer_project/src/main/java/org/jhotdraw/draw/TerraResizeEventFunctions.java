@@ -8,6 +8,7 @@ public class TerraResizeEventFunctions {
 	protected AbstractAttributedFigure Geo;
 	protected AbstractAttributedFigure Geo2;
 	protected TextFigure Txf;
+	protected SQLIdentifier Identifier;
 	
 	public TerraResizeEventFunctions(GroupFigure Owner,AbstractAttributedFigure Geo,TextFigure Txf){
 		this(Owner,Geo,null,Txf);
@@ -18,6 +19,14 @@ public class TerraResizeEventFunctions {
 		this.Geo=Geo;
 		this.Txf=Txf;
 		this.Geo2=Geo2;
+		this.Identifier=new SQLIdentifier(Txf);
+	}
+
+	/**
+	 * Returns the SQL identifiers derived from the text of the figure.
+	 */
+	public SQLIdentifier getSQLIdentifier(){
+		return Identifier;
 	}
 	
     /**
@@ -66,15 +75,18 @@ public class TerraResizeEventFunctions {
     
     /**
      * The text inside the figure has changed, must reload the ObjectTree 
-     * and resize the figure according to the new text. 
+     * and resize the figure according to the new text. The cached SQL
+     * identifiers are discarded on every attribute change of the text.
      */
     public void figureTextChanged(FigureEvent e){
     	Object e1=e.getNewValue();
     	Object e2=e.getOldValue();
 
+    	Identifier.invalidate();
+
     	if(e1!=null && e2!=null && !e1.toString().equals(e2.toString())){
 
-    		TerraFigureTree.getInstance().refresh(Owner);
+    		TerraFigureTree.refreshIfCreated(Owner);
 
     		//Resize rectangle according to the new text if necessary
     		Rectangle2D.Double GeoBounds=Geo.getBounds();
@@ -89,7 +89,17 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
     
     protected void drawText(java.awt.Graphics2D g) {
         if (getText() != null || isEditable()) {
+            double size = LevelOfDetail.toPixels(g, getFontSize());
+            if (size < LevelOfDetail.MIN_TEXT_SIZE) {
+                return;
+            }
             TextLayout layout = getTextLayout();
+            if (size < LevelOfDetail.GREEK_TEXT_SIZE) {
+                // Draw the text as a bar, which covers the lower case letters
+                g.fill(new Rectangle2D.Double(origin.x, origin.y + layout.getAscent() * 0.4,
+                        layout.getAdvance(), layout.getAscent() * 0.6));
+                return;
+            }
             layout.draw(g, (float) origin.x, (float) (origin.y + layout.getAscent()));
         }
     }
@@ -125,7 +135,7 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
             if (STROKE_DASHES.get(this)!=null) {
                 textAttributes.put(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_LOW_DASHED);
             }
-            textLayout = new TextLayout(text, textAttributes, frc);
+            textLayout = TextLayoutCache.getInstance().getTextLayout(text, textAttributes, frc);
         }
         return textLayout;
     }
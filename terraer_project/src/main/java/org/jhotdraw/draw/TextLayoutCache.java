@@ -0,0 +1,191 @@
+/*
+ * @(#)TextLayoutCache.java  1.0  October 17, 2026
+ *
+ * Copyright (c) 1996-2007 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.draw;
+
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ * Shares TextLayouts between text figures.
+ * <p>
+ * A TextLayout is immutable, so all figures which lay out the same text with
+ * the same attributes and the same FontRenderContext can use the same
+ * instance. The cache holds a limited number of layouts, the least recently
+ * used layouts are dropped first.
+ * <p>
+ * The layouts are created outside of the lock of the cache, so that figures
+ * which are laid out on different threads don't wait for each other. If two
+ * threads create the same layout at once, the layout which is put into the
+ * cache first is used.
+ * <p>
+ * The cache counts its hits and misses, and the characters of the cached
+ * texts. The character count is not a measure of the memory held by the
+ * layouts, which depends mostly on their fonts and glyphs.
+ *
+ * @version 1.0 October 17, 2026 Created.
+ */
+public class TextLayoutCache {
+    /**
+     * The system property, which sets the maximal number of cached layouts.
+     */
+    public final static String MAX_SIZE_PROPERTY = "org.jhotdraw.draw.TextLayoutCache.maxSize";
+
+    private static TextLayoutCache instance;
+
+    private int maxSize;
+    private LinkedHashMap<Key,TextLayout> layouts;
+    private long hitCount;
+    private long missCount;
+    private long characterCount;
+
+    /** Identifies a layout by its text, attributes and FontRenderContext. */
+    private static class Key {
+        private String text;
+        private Map<TextAttribute,Object> attributes;
+        private FontRenderContext frc;
+        private int hashCode;
+
+        private Key(String text, Map<TextAttribute,Object> attributes, FontRenderContext frc) {
+            this.text = text;
+            this.attributes = attributes;
+            this.frc = frc;
+            hashCode = (text.hashCode() * 31 + attributes.hashCode()) * 31 + frc.hashCode();
+        }
+
+        public boolean equals(Object o) {
+            if (o instanceof Key) {
+                Key that = (Key) o;
+                return that.hashCode == this.hashCode
+                        && that.text.equals(this.text)
+                        && that.attributes.equals(this.attributes)
+                        && that.frc.equals(this.frc);
+            }
+            return false;
+        }
+
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /** Creates a new instance, which holds up to maxSize layouts. */
+    public TextLayoutCache(int maxSize) {
+        this.maxSize = maxSize;
+        layouts = new LinkedHashMap<Key,TextLayout>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Key,TextLayout> eldest) {
+                if (size() > TextLayoutCache.this.maxSize) {
+                    characterCount -= eldest.getKey().text.length();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache, which is shared by all text figures. It holds up to
+     * 4096 layouts, unless the system property MAX_SIZE_PROPERTY specifies
+     * a different number.
+     */
+    public static synchronized TextLayoutCache getInstance() {
+        if (instance == null) {
+            instance = new TextLayoutCache(Integer.getInteger(MAX_SIZE_PROPERTY, 4096));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the layout of the text. The layout is created, if the cache
+     * does not hold it yet. The attributes must not be changed afterwards.
+     */
+    public TextLayout getTextLayout(String text, Map<TextAttribute,Object> attributes, FontRenderContext frc) {
+        Key key = new Key(text, attributes, frc);
+        synchronized (this) {
+            TextLayout layout = layouts.get(key);
+            if (layout != null) {
+                hitCount++;
+                return layout;
+            }
+            missCount++;
+        }
+        TextLayout layout = new TextLayout(text, attributes, frc);
+        synchronized (this) {
+            TextLayout cached = layouts.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            characterCount += text.length();
+            layouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Drops all layouts and resets the statistics.
+     */
+    public synchronized void clear() {
+        layouts.clear();
+        hitCount = missCount = characterCount = 0;
+    }
+
+    public synchronized void setMaxSize(int newValue) {
+        maxSize = newValue;
+        // Drop the least recently used layouts
+        for (Iterator<Key> i = layouts.keySet().iterator(); layouts.size() > maxSize; ) {
+            characterCount -= i.next().text.length();
+            i.remove();
+        }
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Returns the number of cached layouts. */
+    public synchronized int getSize() {
+        return layouts.size();
+    }
+
+    /** Returns the number of characters of the cached texts. */
+    public synchronized long getCharacterCount() {
+        return characterCount;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the ratio of the requests, which have been answered from the
+     * cache, or 0 if there were no requests.
+     */
+    public synchronized double getHitRate() {
+        long requests = hitCount + missCount;
+        return (requests == 0) ? 0 : hitCount / (double) requests;
+    }
+
+    public synchronized String toString() {
+        return "TextLayoutCache[size=" + layouts.size() + ", maxSize=" + maxSize
+                + ", characters=" + characterCount + ", hits=" + hitCount
+                + ", misses=" + missCount + "]";
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * @(#)TileCache.java  1.0  October 17, 2026
+ *
+ * Copyright (c) 1996-2007 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.draw;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ * Caches the background, the grid and the figures of a DefaultDrawingView
+ * in square tiles of the view.
+ * <p>
+ * A tile is rasterized when it is painted for the first time, later paints
+ * copy the tile. The tiles are keyed by the scale factor of the view, so
+ * that zooming back to a previous scale factor finds its tiles. The cache
+ * holds a limited number of tiles, the least recently painted tiles are
+ * dropped first.
+ * <p>
+ * The view invalidates the tiles which intersect the areas invalidated by
+ * its drawing. The cache is cleared when the translation of the view
+ * changes, and the tiles at the border are dropped when the size of the
+ * view changes.
+ *
+ * @version 1.0 October 17, 2026 Created.
+ */
+public class TileCache {
+    /** The width and height of a tile in view coordinates. */
+    public final static int TILE_SIZE = 256;
+
+    private DefaultDrawingView view;
+    private final int maxTiles;
+    private LinkedHashMap<Tile,Image> tiles;
+    private double translateX, translateY;
+    private int width, height;
+    private int rasterizedCount;
+
+    /** Identifies a tile by its scale factor, column and row. */
+    private static class Tile {
+        private double scale;
+        private int column;
+        private int row;
+
+        private Tile(double scale, int column, int row) {
+            this.scale = scale;
+            this.column = column;
+            this.row = row;
+        }
+
+        public boolean equals(Object o) {
+            if (o instanceof Tile) {
+                Tile that = (Tile) o;
+                return that.scale == this.scale && that.column == this.column && that.row == this.row;
+            }
+            return false;
+        }
+
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(scale);
+            return (int) (bits ^ (bits >>> 32)) * 31 * 31 + column * 31 + row;
+        }
+    }
+
+    /** Creates a new instance, which holds up to 96 tiles. */
+    public TileCache(DefaultDrawingView view) {
+        this(view, 96);
+    }
+
+    /** Creates a new instance, which holds up to maxTiles tiles. */
+    public TileCache(DefaultDrawingView view, int maxTiles) {
+        this.view = view;
+        this.maxTiles = maxTiles;
+        tiles = new LinkedHashMap<Tile,Image>(maxTiles * 2, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Tile,Image> eldest) {
+                return size() > TileCache.this.maxTiles;
+            }
+        };
+    }
+
+    /**
+     * Drops all tiles.
+     */
+    public void clear() {
+        tiles.clear();
+    }
+
+    /**
+     * Drops the tiles of all scale factors, which intersect the specified
+     * area of the drawing.
+     */
+    public void invalidate(Rectangle2D.Double r) {
+        for (Iterator<Tile> i = tiles.keySet().iterator(); i.hasNext(); ) {
+            Tile tile = i.next();
+            // Grow the area by two pixels for antialiasing and rounding
+            double x0 = (r.x - translateX) * tile.scale - 2;
+            double y0 = (r.y - translateY) * tile.scale - 2;
+            double x1 = (r.x + r.width - translateX) * tile.scale + 2;
+            double y1 = (r.y + r.height - translateY) * tile.scale + 2;
+            if (x0 < (tile.column + 1) * TILE_SIZE && x1 > tile.column * TILE_SIZE
+                    && y0 < (tile.row + 1) * TILE_SIZE && y1 > tile.row * TILE_SIZE) {
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tiles, which have been rasterized so far.
+     */
+    public int getRasterizedCount() {
+        return rasterizedCount;
+    }
+
+    /**
+     * Paints the tiles, which intersect the clip bounds of the graphics.
+     * Tiles which are not in the cache are rasterized first.
+     */
+    public void paint(Graphics2D g) {
+        validate();
+        double scale = view.getScaleFactor();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, view.getWidth(), view.getHeight());
+        }
+        int column0 = (int) Math.floor(clip.x / (double) TILE_SIZE);
+        int row0 = (int) Math.floor(clip.y / (double) TILE_SIZE);
+        int column1 = (int) Math.floor((clip.x + clip.width - 1) / (double) TILE_SIZE);
+        int row1 = (int) Math.floor((clip.y + clip.height - 1) / (double) TILE_SIZE);
+        for (int row = row0; row <= row1; row++) {
+            for (int column = column0; column <= column1; column++) {
+                Tile tile = new Tile(scale, column, row);
+                Image image = tiles.get(tile);
+                if (image == null) {
+                    image = rasterize(column, row);
+                    tiles.put(tile, image);
+                }
+                g.drawImage(image, column * TILE_SIZE, row * TILE_SIZE, null);
+            }
+        }
+    }
+
+    /**
+     * Drops the tiles, which have been painted with a different translation
+     * or size of the view.
+     */
+    private void validate() {
+        Point2D.Double origin = view.viewToDrawing(new Point(0, 0));
+        if (origin.x != translateX || origin.y != translateY) {
+            tiles.clear();
+            translateX = origin.x;
+            translateY = origin.y;
+        }
+        if (view.getWidth() != width || view.getHeight() != height) {
+            // The background is only painted within the bounds of the view,
+            // so the tiles at the old and the new border are not valid.
+            int border = Math.min(width, view.getWidth());
+            int bottom = Math.min(height, view.getHeight());
+            for (Iterator<Tile> i = tiles.keySet().iterator(); i.hasNext(); ) {
+                Tile tile = i.next();
+                if ((tile.column + 1) * TILE_SIZE > border || (tile.row + 1) * TILE_SIZE > bottom) {
+                    i.remove();
+                }
+            }
+            width = view.getWidth();
+            height = view.getHeight();
+        }
+    }
+
+    private Image rasterize(int column, int row) {
+        Image image;
+        GraphicsConfiguration gc = view.getGraphicsConfiguration();
+        if (gc != null) {
+            image = gc.createCompatibleImage(TILE_SIZE, TILE_SIZE, Transparency.OPAQUE);
+        } else {
+            image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = (Graphics2D) image.getGraphics();
+        g.translate(-column * TILE_SIZE, -row * TILE_SIZE);
+        g.setClip(column * TILE_SIZE, row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+        view.paintTile(g);
+        g.dispose();
+        rasterizedCount++;
+        return image;
+    }
+}
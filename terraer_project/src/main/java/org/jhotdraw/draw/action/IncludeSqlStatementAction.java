@@ -48,7 +48,9 @@ public class IncludeSqlStatementAction extends AbstractSelectedAction {
     		v.getSelectedFigures().toArray()[0] instanceof AtributoDerivadoFigure){
     		AtributoDerivadoFigure att = (AtributoDerivadoFigure) v.getSelectedFigures().iterator().next();
     		String sql = JOptionPane.showInputDialog("SQL:",att.getSql());
+    		att.willChange();
     		att.setSql(sql);
+    		att.changed();
     	}
     }
 }
@@ -1,41 +1,52 @@
 package org.jhotdraw.draw.action;
 
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.StringTokenizer;
 
-import org.jhotdraw.draw.AtributoChaveFigure;
-import org.jhotdraw.draw.AtributoChaveParcialFigure;
-import org.jhotdraw.draw.AtributoDerivadoFigure;
-import org.jhotdraw.draw.AtributoFigure;
-import org.jhotdraw.draw.AtributoMultivaloradoFigure;
-import org.jhotdraw.draw.ConnectionAttribute;
-import org.jhotdraw.draw.DisjuncaoFigure;
-import org.jhotdraw.draw.DoubleLineConnectionGeneralizacaoFigure;
-import org.jhotdraw.draw.EntidadeFigure;
-import org.jhotdraw.draw.EntidadeFracaFigure;
-import org.jhotdraw.draw.EntidadeRelacionamentoFigure;
 import org.jhotdraw.draw.Figure;
-import org.jhotdraw.draw.GeneralizacaoLineConnectionFigure;
-import org.jhotdraw.draw.LabeledDoubleLineConnectionMuitosFigure;
-import org.jhotdraw.draw.LabeledDoubleLineConnectionUmFigure;
-import org.jhotdraw.draw.LabeledLineConnectionMuitosFigure;
-import org.jhotdraw.draw.LabeledLineConnectionUmFigure;
 import org.jhotdraw.draw.LineConnectionFigure;
-import org.jhotdraw.draw.LineConnectionGeneralizacaoFigure;
-import org.jhotdraw.draw.RelacionamentoFigure;
-import org.jhotdraw.draw.RelacionamentoFracoFigure;
-import org.jhotdraw.draw.SobreposicaoFigure;
-import org.jhotdraw.draw.UniaoFigure;
 
+/**
+ * The rules of the model validation, telling which connections are allowed
+ * between which figures.
+ * <p>
+ * The rules are read from the file ConnectionRules.txt next to this class,
+ * or from the file named by the system property
+ * org.jhotdraw.draw.action.ConnectionRules, and compiled into a bitset of
+ * the allowed connections for each pair of figure classes.
+ */
 public class ModelValidationRules {
 
+	public static final String RULES_PROPERTY = "org.jhotdraw.draw.action.ConnectionRules";
+	private static final String FIGURE_PACKAGE = "org.jhotdraw.draw.";
+
 	private static ArrayList<ValidationRule> rules = null;
 	private static ModelValidationRules INSTANCE = null; 
 
+	/** Index of each figure and connection class named by the rules. */
+	private HashMap<Class<?>, Integer> figureIndex;
+	private HashMap<Class<?>, Integer> connectionIndex;
+	private Class<?>[] connectionClasses;
+	/**
+	 * Allowed connections, indexed by start figure and end figure. Bit k
+	 * stands for connectionClasses[k].
+	 */
+	private long[][] valid;
+	/** Rules of each connection class. */
+	private HashMap<Class<?>, ArrayList<ValidationRule>> rulesByConnection;
+	private long loadTime;
+
 	private ModelValidationRules() {
 		init();
 	}
 	
-	public static ModelValidationRules getInstance(){
+	public static synchronized ModelValidationRules getInstance(){
 		if (INSTANCE == null){
 			INSTANCE = new ModelValidationRules();
 		}
@@ -44,83 +55,191 @@ public class ModelValidationRules {
 	
 	public ArrayList<Class> getOthersConnections(LineConnectionFigure lcf) {
 		ArrayList<Class> connections = new ArrayList<>();
-		Figure origem = lcf.getStartFigure();
-		Figure destino = lcf.getEndFigure();
-		for (ValidationRule regra : this.rules) {
-			if((regra.origemContains(origem.getClass()) && regra.destinoContains(destino.getClass())) || 
-					(regra.bidirecional && regra.origemContains(destino.getClass()) && regra.destinoContains(origem.getClass()))){
-				connections.add(regra.conexao);
+		Integer start = index(figureIndex, lcf.getStartFigure());
+		Integer end = index(figureIndex, lcf.getEndFigure());
+		if (start != null && end != null) {
+			for (long bits = valid[start][end]; bits != 0; bits &= bits - 1) {
+				connections.add(connectionClasses[Long.numberOfTrailingZeros(bits)]);
 			}
 		}
 		return connections;
 	}
 
 	public ArrayList<ValidationRule> getOthersFigures(LineConnectionFigure lcf) {
-		ArrayList<ValidationRule> figures = new ArrayList<>();
-		for (ValidationRule regra : this.rules) {
-			if (lcf.getClass().equals(regra.conexao)) {
-				figures.add(regra);
-			}
-		}
-		return figures;
+		ArrayList<ValidationRule> figures = rulesByConnection.get(lcf.getClass());
+		return figures == null ? new ArrayList<ValidationRule>() : new ArrayList<>(figures);
+	}
+
+	public ArrayList<ValidationRule> getRules() {
+		return new ArrayList<>(rules);
+	}
+
+	/**
+	 * Returns the nanoseconds it took to read and compile the rules.
+	 */
+	public long getLoadTime() {
+		return loadTime;
+	}
+
+	/**
+	 * Returns true, if the rules know the class of the connection.
+	 */
+	public boolean isValidated(LineConnectionFigure lcf) {
+		return isValidated(lcf.getClass());
+	}
+
+	public boolean isValidated(Class<?> conexao) {
+		return connectionIndex.containsKey(conexao);
+	}
+
+	/**
+	 * Returns true, if a rule allows the connection between its start and
+	 * end figure.
+	 */
+	public boolean isValid(LineConnectionFigure lcf) {
+		Figure origem = lcf.getStartFigure();
+		Figure destino = lcf.getEndFigure();
+		return isValid(lcf.getClass(), origem == null ? null : origem.getClass(), destino == null ? null : destino.getClass());
+	}
+
+	/**
+	 * Returns true, if a rule allows a connection of the specified class
+	 * between figures of the specified classes. The classes may be null.
+	 */
+	public boolean isValid(Class<?> conexao, Class<?> origem, Class<?> destino) {
+		Integer connection = connectionIndex.get(conexao);
+		Integer start = figureIndex.get(origem);
+		Integer end = figureIndex.get(destino);
+		return connection != null && start != null && end != null && (valid[start][end] & (1L << connection)) != 0;
+	}
+
+	private static Integer index(HashMap<Class<?>, Integer> map, Figure f) {
+		return f == null ? null : map.get(f.getClass());
 	}
 
 	public void init() {
+		long start = System.nanoTime();
 		rules = new ArrayList<>();
-		
-		Class[] destino = {EntidadeFigure.class, EntidadeFracaFigure.class, EntidadeRelacionamentoFigure.class};
-		Class[] origem = {RelacionamentoFigure.class, RelacionamentoFracoFigure.class};
-		rules.add(new ValidationRule (origem, LabeledLineConnectionUmFigure.class, destino, true));
-		rules.add(new ValidationRule (origem, LabeledLineConnectionMuitosFigure.class, destino, true));
-		rules.add(new ValidationRule (origem, LabeledDoubleLineConnectionUmFigure.class, destino, true));
-		rules.add(new ValidationRule (origem, LabeledDoubleLineConnectionMuitosFigure.class, destino, true));
-		
-		Class[] origem2 = {EntidadeFigure.class, EntidadeFracaFigure.class, EntidadeRelacionamentoFigure.class};
-		Class[] destino2 = {UniaoFigure.class, SobreposicaoFigure.class, DisjuncaoFigure.class};
-		rules.add(new ValidationRule (origem2, LineConnectionGeneralizacaoFigure.class, destino2, true));
-		rules.add(new ValidationRule (origem2, DoubleLineConnectionGeneralizacaoFigure.class, destino2, true));
-		
-		Class[] origem3 = {EntidadeFigure.class, EntidadeFracaFigure.class, EntidadeRelacionamentoFigure.class};
-		Class[] destino3 = {AtributoFigure.class, AtributoMultivaloradoFigure.class, AtributoDerivadoFigure.class};
-		rules.add(new ValidationRule (origem3, ConnectionAttribute.class, destino3, true));
-		
-		Class[] origem4 = {RelacionamentoFigure.class, RelacionamentoFracoFigure.class};
-		Class[] destino4 = {AtributoFigure.class, AtributoMultivaloradoFigure.class, AtributoDerivadoFigure.class};
-		rules.add(new ValidationRule (origem4, ConnectionAttribute.class, destino4, true));
-				
-		Class[] destino6 = {UniaoFigure.class, SobreposicaoFigure.class, DisjuncaoFigure.class};
-		Class[] origem6 = {EntidadeFigure.class};
-		rules.add(new ValidationRule (origem6, GeneralizacaoLineConnectionFigure.class, destino6, false));		
-		
-		Class[] origem8 = {EntidadeFigure.class};
-		Class[] destino8 = {EntidadeRelacionamentoFigure.class};
-		rules.add(new ValidationRule (origem8, LabeledLineConnectionUmFigure.class, destino8, true));
-		rules.add(new ValidationRule (origem8, LabeledLineConnectionMuitosFigure.class, destino8, true));
-		rules.add(new ValidationRule (origem8, LabeledDoubleLineConnectionUmFigure.class, destino8, true));
-		rules.add(new ValidationRule (origem8, LabeledDoubleLineConnectionMuitosFigure.class, destino8, true));
-		
-		Class[] origem9 = {EntidadeFracaFigure.class};
-		Class[] destino9 = {EntidadeRelacionamentoFigure.class};
-		rules.add(new ValidationRule (origem9, LabeledLineConnectionUmFigure.class, destino9, true));
-		rules.add(new ValidationRule (origem9, LabeledLineConnectionMuitosFigure.class, destino9, true));
-		rules.add(new ValidationRule (origem9, LabeledDoubleLineConnectionUmFigure.class, destino9, true));
-		rules.add(new ValidationRule (origem9, LabeledDoubleLineConnectionMuitosFigure.class, destino9, true));
-		
-		Class[] destino10 = {EntidadeFigure.class, EntidadeRelacionamentoFigure.class};
-		Class[] origem10 = {AtributoChaveFigure.class};
-		rules.add(new ValidationRule (origem10, ConnectionAttribute.class, destino10, true));
-		
-		Class[] origem7 = {EntidadeFigure.class};
-		Class[] destino7 = {EntidadeFigure.class};
-		rules.add(new ValidationRule (origem7, GeneralizacaoLineConnectionFigure.class, destino7, true));
-		
-		Class[] origem5 = {AtributoFigure.class};
-		Class[] destino5 = {AtributoFigure.class};
-		rules.add(new ValidationRule (origem5, ConnectionAttribute.class, destino5, true));
-		
-		Class[] destino12 = {EntidadeFracaFigure.class};
-		Class[] origem12 = {AtributoChaveParcialFigure.class};
-		rules.add(new ValidationRule (origem12, ConnectionAttribute.class, destino12, true));
+		try {
+			String file = System.getProperty(RULES_PROPERTY);
+			InputStream in = (file == null) ? ModelValidationRules.class.getResourceAsStream("ConnectionRules.txt") : new FileInputStream(file);
+			if (in == null) {
+				throw new IOException("ConnectionRules.txt not found");
+			}
+			try {
+				read(new BufferedReader(new InputStreamReader(in, "UTF-8")));
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			InternalError error = new InternalError("Can't load the connection rules");
+			error.initCause(e);
+			throw error;
+		}
+		compile();
+		loadTime = System.nanoTime() - start;
+	}
+
+	/**
+	 * Reads rules of the form
+	 * {@code Connection: Figure ... <-> Figure ...}, or with {@code ->} for
+	 * rules which allow one direction only. Empty lines and lines starting
+	 * with # are skipped.
+	 */
+	private void read(BufferedReader in) throws IOException {
+		int lineNumber = 0;
+		for (String line; (line = in.readLine()) != null; ) {
+			lineNumber++;
+			line = line.trim();
+			if (line.length() == 0 || line.startsWith("#")) {
+				continue;
+			}
+			int colon = line.indexOf(':');
+			boolean bidirecional = line.indexOf("<->") != -1;
+			int arrow = bidirecional ? line.indexOf("<->") : line.indexOf("->");
+			if (colon == -1 || arrow < colon) {
+				throw new IOException("Line " + lineNumber + ": expected \"Connection: Figure ... <-> Figure ...\"");
+			}
+			Class<?> conexao = toClass(line.substring(0, colon).trim(), lineNumber);
+			Class<?>[] origem = toClasses(line.substring(colon + 1, arrow), lineNumber);
+			Class<?>[] destino = toClasses(line.substring(arrow + (bidirecional ? 3 : 2)), lineNumber);
+			rules.add(new ValidationRule(origem, conexao, destino, bidirecional));
+		}
+	}
+
+	private static Class<?>[] toClasses(String names, int lineNumber) throws IOException {
+		StringTokenizer tt = new StringTokenizer(names);
+		Class<?>[] classes = new Class<?>[tt.countTokens()];
+		if (classes.length == 0) {
+			throw new IOException("Line " + lineNumber + ": figure expected");
+		}
+		for (int i = 0; i < classes.length; i++) {
+			classes[i] = toClass(tt.nextToken(), lineNumber);
+		}
+		return classes;
+	}
+
+	private static Class<?> toClass(String name, int lineNumber) throws IOException {
+		try {
+			return Class.forName(name.indexOf('.') == -1 ? FIGURE_PACKAGE + name : name);
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Line " + lineNumber + ": unknown class " + name);
+		}
+	}
+
+	/**
+	 * Compiles the rules into a bitset for each pair of figure classes, so
+	 * that the validity of a connection and the alternatives to an invalid
+	 * connection are found without scanning the rules.
+	 */
+	private void compile() {
+		figureIndex = new HashMap<>();
+		connectionIndex = new HashMap<>();
+		rulesByConnection = new HashMap<>();
+		for (ValidationRule regra : rules) {
+			for (Class<?> c : regra.origem) {
+				indexOf(figureIndex, c);
+			}
+			for (Class<?> c : regra.destino) {
+				indexOf(figureIndex, c);
+			}
+			indexOf(connectionIndex, regra.conexao);
+			ArrayList<ValidationRule> list = rulesByConnection.get(regra.conexao);
+			if (list == null) {
+				list = new ArrayList<>();
+				rulesByConnection.put(regra.conexao, list);
+			}
+			list.add(regra);
+		}
+		if (connectionIndex.size() > 64) {
+			throw new InternalError("More than 64 connection classes in the connection rules");
+		}
+
+		connectionClasses = new Class<?>[connectionIndex.size()];
+		for (Class<?> c : connectionIndex.keySet()) {
+			connectionClasses[connectionIndex.get(c)] = c;
+		}
+		int n = figureIndex.size();
+		valid = new long[n][n];
+		for (ValidationRule regra : rules) {
+			long bit = 1L << connectionIndex.get(regra.conexao);
+			for (Class<?> o : regra.origem) {
+				for (Class<?> d : regra.destino) {
+					int i = figureIndex.get(o);
+					int j = figureIndex.get(d);
+					valid[i][j] |= bit;
+					if (regra.bidirecional) {
+						valid[j][i] |= bit;
+					}
+				}
+			}
+		}
+	}
+
+	private static void indexOf(HashMap<Class<?>, Integer> map, Class<?> c) {
+		if (! map.containsKey(c)) {
+			map.put(c, map.size());
+		}
 	}
 
 	public class ValidationRule {
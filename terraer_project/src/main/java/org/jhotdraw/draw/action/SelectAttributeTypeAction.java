@@ -21,6 +21,7 @@ import javax.swing.JOptionPane;
 
 import org.jhotdraw.draw.DrawingEditor;
 import org.jhotdraw.draw.DrawingView;
+import org.jhotdraw.draw.Figure;
 import org.jhotdraw.enums.AttributeTypeEnum;
 import org.jhotdraw.interfaces.AttributeTypeElement;
 /**
@@ -68,8 +69,11 @@ public class SelectAttributeTypeAction extends AbstractSelectedAction {
     			jcbType.setSelectedItem(att.getAttributeType());
     		}
     		if (JOptionPane.showConfirmDialog( null, new Object[]{jcbType,chkNull}, "Select the attribute type", JOptionPane.OK_CANCEL_OPTION) == JOptionPane.OK_OPTION){
+    			Figure f = (Figure) att;
+    			f.willChange();
     			att.setAttributeType((AttributeTypeEnum)jcbType.getSelectedItem());
     			att.setNullable(!chkNull.isSelected());
+    			f.changed();
     		}
     		
     	}
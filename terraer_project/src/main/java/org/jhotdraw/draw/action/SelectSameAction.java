@@ -14,6 +14,7 @@
 
 package org.jhotdraw.draw.action;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 
 import javax.swing.AbstractAction;
@@ -45,10 +46,14 @@ public class SelectSameAction extends AbstractSelectedAction {
         for (Figure selected : getView().getSelectedFigures()) {
             selectedClasses.add(selected.getClass());
         }
+        ArrayList<Figure> same = new ArrayList<Figure>();
         for (Figure f : getDrawing().getFigures()) {
             if (selectedClasses.contains(f.getClass())) {
-                getView().addToSelection(f);
+                same.add(f);
             }
         }
+        // Select the figures at once, so that the view fires only one
+        // selection event.
+        getView().addToSelection(same);
     }
 }
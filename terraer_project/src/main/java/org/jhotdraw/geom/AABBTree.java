@@ -0,0 +1,543 @@
+/*
+ * @(#)AABBTree.java  1.0  October 16, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+
+package org.jhotdraw.geom;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+/**
+ * A dynamic tree of axis aligned bounding boxes.
+ * <p>
+ * Each object is stored in a leaf, whose box is the bounds of the object
+ * grown by a margin. Each inner node has two children and a box which
+ * encloses the boxes of its children. New leaves are inserted next to the
+ * node where they enlarge the tree the least, and the tree is kept balanced
+ * by rotations.
+ * <p>
+ * The index remembers the leaf of each object. An update, which keeps the
+ * bounds of an object inside the box of its leaf, only replaces the bounds
+ * of the object. Otherwise, or if the object has shrunk so much that the box
+ * has become much larger than needed, the leaf is removed and inserted
+ * again. Queries
+ * descend only into boxes which intersect the query.
+ * <p>
+ * Objects with non-finite bounds are kept aside in a separate map.
+ *
+ * @version 1.0 October 16, 2026 Created.
+ */
+public class AABBTree<T> implements SpatialIndex<T> {
+    private HashMap<T,Rectangle2D.Double> outside = new HashMap<T,Rectangle2D.Double>();
+    private HashMap<T,Node> leaves = new HashMap<T,Node>();
+    private Node root;
+    private double margin;
+
+    /** Creates a new instance with a margin of 16. */
+    public AABBTree() {
+        this(16);
+    }
+    /**
+     * Creates a new instance.
+     *
+     * @param margin The bounds of the objects are grown by the margin.
+     * Objects which move less than the margin do not change the tree.
+     */
+    public AABBTree(double margin) {
+        this.margin = margin;
+    }
+
+    public void add(T o, Rectangle2D.Double bounds) {
+        if (leaves.containsKey(o) || outside.containsKey(o)) {
+            remove(o);
+        }
+        if (isFinite(bounds)) {
+            Node leaf = new Node();
+            leaf.object = o;
+            leaf.setBounds(bounds);
+            leaves.put(o, leaf);
+            insertLeaf(leaf);
+        } else {
+            outside.put(o, (Rectangle2D.Double) bounds.clone());
+        }
+    }
+
+    /**
+     * Adds many objects at once. If the tree is empty, it is built top-down
+     * by splitting the objects at the median of their centers, which gives
+     * a better tree than adding the objects one by one.
+     */
+    public void addAll(Map<T,Rectangle2D.Double> objects) {
+        if (root != null) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
+                add(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        ArrayList<Node> list = new ArrayList<Node>(objects.size());
+        for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
+            if (leaves.containsKey(entry.getKey()) || outside.containsKey(entry.getKey())) {
+                remove(entry.getKey());
+            }
+            if (isFinite(entry.getValue())) {
+                Node leaf = new Node();
+                leaf.object = entry.getKey();
+                leaf.setBounds(entry.getValue());
+                leaves.put(leaf.object, leaf);
+                list.add(leaf);
+            } else {
+                outside.put(entry.getKey(), (Rectangle2D.Double) entry.getValue().clone());
+            }
+        }
+        if (! list.isEmpty()) {
+            root = build(list, 0, list.size());
+            root.parent = null;
+        }
+    }
+    
+    /**
+     * Builds a subtree for the nodes from index from to index to - 1.
+     */
+    private Node build(ArrayList<Node> nodes, int from, int to) {
+        if (to - from == 1) {
+            return nodes.get(from);
+        }
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            Node n = nodes.get(i);
+            minX = Math.min(minX, n.minX + n.maxX);
+            maxX = Math.max(maxX, n.minX + n.maxX);
+            minY = Math.min(minY, n.minY + n.maxY);
+            maxY = Math.max(maxY, n.minY + n.maxY);
+        }
+        int middle = (from + to) >>> 1;
+        select(nodes, from, to, middle, maxX - minX >= maxY - minY);
+        Node node = new Node();
+        node.child1 = build(nodes, from, middle);
+        node.child2 = build(nodes, middle, to);
+        node.child1.parent = node;
+        node.child2.parent = node;
+        node.height = 1 + Math.max(node.child1.height, node.child2.height);
+        node.setUnion(node.child1, node.child2);
+        return node;
+    }
+
+    public void update(T o, Rectangle2D.Double bounds) {
+        Node leaf = leaves.get(o);
+        if (leaf != null && isFinite(bounds) && leaf.encloses(bounds) && ! leaf.isLoose(bounds)) {
+            leaf.bounds = (Rectangle2D.Double) bounds.clone();
+        } else {
+            add(o, bounds);
+        }
+    }
+
+    public void remove(T o) {
+        outside.remove(o);
+        Node leaf = leaves.remove(o);
+        if (leaf != null) {
+            removeLeaf(leaf);
+        }
+    }
+
+    /**
+     * Returns the height of the tree. A tree with a single leaf has
+     * height 0.
+     */
+    public int getHeight() {
+        return (root == null) ? 0 : root.height;
+    }
+
+    public Collection<T> findContains(Point2D.Double p) {
+        final HashSet<T> result = new HashSet<T>();
+        visitContains(p, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+    public Collection<T> findIntersects(Rectangle2D r) {
+        return findIntersects(new Rectangle2D.Double(r.getX(), r.getY(), r.getWidth(), r.getHeight()));
+    }
+    public Collection<T> findIntersects(Rectangle2D.Double r) {
+        final HashSet<T> result = new HashSet<T>();
+        visitIntersects(r, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+    public Collection<T> findInside(Rectangle2D.Double r) {
+        final HashSet<T> result = new HashSet<T>();
+        visitInside(r, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+
+    public void visitContains(Point2D.Double p, Visitor<? super T> visitor) {
+        if (root != null) {
+            visitContains(root, p, visitor);
+        }
+        if (! outside.isEmpty()) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                if (entry.getValue().contains(p)) {
+                    visitor.visit(entry.getKey());
+                }
+            }
+        }
+    }
+    public void visitIntersects(Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (root != null) {
+            visitIntersects(root, r, visitor);
+        }
+        if (! outside.isEmpty()) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                if (entry.getValue().intersects(r)) {
+                    visitor.visit(entry.getKey());
+                }
+            }
+        }
+    }
+    public void visitInside(Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (root != null) {
+            visitInside(root, r, visitor);
+        }
+        if (! outside.isEmpty()) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                if (r.contains(entry.getValue())) {
+                    visitor.visit(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private void visitContains(Node node, Point2D.Double p, Visitor<? super T> visitor) {
+        if (p.x >= node.minX && p.x <= node.maxX
+                && p.y >= node.minY && p.y <= node.maxY) {
+            if (node.isLeaf()) {
+                if (node.bounds.contains(p)) {
+                    visitor.visit(node.object);
+                }
+            } else {
+                visitContains(node.child1, p, visitor);
+                visitContains(node.child2, p, visitor);
+            }
+        }
+    }
+    private void visitIntersects(Node node, Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (node.overlaps(r)) {
+            if (node.isLeaf()) {
+                if (node.bounds.intersects(r)) {
+                    visitor.visit(node.object);
+                }
+            } else {
+                visitIntersects(node.child1, r, visitor);
+                visitIntersects(node.child2, r, visitor);
+            }
+        }
+    }
+    private void visitInside(Node node, Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (node.overlaps(r)) {
+            if (node.isLeaf()) {
+                if (r.contains(node.bounds)) {
+                    visitor.visit(node.object);
+                }
+            } else {
+                visitInside(node.child1, r, visitor);
+                visitInside(node.child2, r, visitor);
+            }
+        }
+    }
+
+    private static boolean isFinite(Rectangle2D.Double r) {
+        return ! Double.isInfinite(r.x) && ! Double.isNaN(r.x)
+                && ! Double.isInfinite(r.y) && ! Double.isNaN(r.y)
+                && ! Double.isInfinite(r.width) && ! Double.isNaN(r.width)
+                && ! Double.isInfinite(r.height) && ! Double.isNaN(r.height);
+    }
+
+    /**
+     * Returns the perimeter of the box which encloses both nodes.
+     */
+    private double combinedPerimeter(Node a, Node b) {
+        return Math.max(a.maxX, b.maxX) - Math.min(a.minX, b.minX)
+                + Math.max(a.maxY, b.maxY) - Math.min(a.minY, b.minY);
+    }
+
+    /**
+     * Partially sorts the nodes from index from to index to - 1 by the
+     * centers of their boxes, so that node k is at its sorted position.
+     */
+    private void select(ArrayList<Node> nodes, int from, int to, int k, boolean byX) {
+        int lo = from;
+        int hi = to - 1;
+        while (lo < hi) {
+            double pivot = nodes.get((lo + hi) >>> 1).center(byX);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (nodes.get(i).center(byX) < pivot) {
+                    i++;
+                }
+                while (nodes.get(j).center(byX) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    nodes.set(j, nodes.set(i, nodes.get(j)));
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void insertLeaf(Node leaf) {
+        if (root == null) {
+            root = leaf;
+            leaf.parent = null;
+            return;
+        }
+
+        // Find the sibling which enlarges the tree the least
+        Node sibling = root;
+        while (! sibling.isLeaf()) {
+            double perimeter = sibling.perimeter();
+            double combined = combinedPerimeter(sibling, leaf);
+            // Cost of creating a new parent for this node and the leaf
+            double cost = 2 * combined;
+            // Cost of pushing the leaf further down the tree
+            double inheritance = 2 * (combined - perimeter);
+            double cost1 = descendCost(sibling.child1, leaf) + inheritance;
+            double cost2 = descendCost(sibling.child2, leaf) + inheritance;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            sibling = (cost1 < cost2) ? sibling.child1 : sibling.child2;
+        }
+
+        Node oldParent = sibling.parent;
+        Node newParent = new Node();
+        newParent.parent = oldParent;
+        newParent.child1 = sibling;
+        newParent.child2 = leaf;
+        newParent.height = sibling.height + 1;
+        newParent.setUnion(sibling, leaf);
+        if (oldParent == null) {
+            root = newParent;
+        } else if (oldParent.child1 == sibling) {
+            oldParent.child1 = newParent;
+        } else {
+            oldParent.child2 = newParent;
+        }
+        sibling.parent = newParent;
+        leaf.parent = newParent;
+
+        fixUpwards(newParent.parent);
+    }
+
+    private double descendCost(Node child, Node leaf) {
+        double combined = combinedPerimeter(child, leaf);
+        return child.isLeaf() ? combined : combined - child.perimeter();
+    }
+
+    private void removeLeaf(Node leaf) {
+        if (leaf == root) {
+            root = null;
+            return;
+        }
+        Node parent = leaf.parent;
+        Node grandParent = parent.parent;
+        Node sibling = (parent.child1 == leaf) ? parent.child2 : parent.child1;
+        if (grandParent == null) {
+            root = sibling;
+            sibling.parent = null;
+        } else {
+            if (grandParent.child1 == parent) {
+                grandParent.child1 = sibling;
+            } else {
+                grandParent.child2 = sibling;
+            }
+            sibling.parent = grandParent;
+            fixUpwards(grandParent);
+        }
+        leaf.parent = null;
+    }
+
+    /**
+     * Balances the nodes from the specified node up to the root, and
+     * recomputes their boxes and heights.
+     */
+    private void fixUpwards(Node node) {
+        while (node != null) {
+            node = balance(node);
+            node.height = 1 + Math.max(node.child1.height, node.child2.height);
+            node.setUnion(node.child1, node.child2);
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Rotates the higher child of node a up, if the heights of the children
+     * differ by more than one.
+     *
+     * @return The node which took the place of node a.
+     */
+    private Node balance(Node a) {
+        if (a.isLeaf() || a.height < 2) {
+            return a;
+        }
+        Node b = a.child1;
+        Node c = a.child2;
+        int balance = c.height - b.height;
+        if (balance > 1) {
+            replace(a, c);
+            Node f = c.child1;
+            Node g = c.child2;
+            c.child1 = a;
+            a.parent = c;
+            if (f.height > g.height) {
+                c.child2 = f;
+                a.child2 = g;
+                g.parent = a;
+            } else {
+                c.child2 = g;
+                a.child2 = f;
+                f.parent = a;
+            }
+            a.setUnion(a.child1, a.child2);
+            a.height = 1 + Math.max(a.child1.height, a.child2.height);
+            c.setUnion(c.child1, c.child2);
+            c.height = 1 + Math.max(c.child1.height, c.child2.height);
+            return c;
+        }
+        if (balance < -1) {
+            replace(a, b);
+            Node d = b.child1;
+            Node e = b.child2;
+            b.child1 = a;
+            a.parent = b;
+            if (d.height > e.height) {
+                b.child2 = d;
+                a.child1 = e;
+                e.parent = a;
+            } else {
+                b.child2 = e;
+                a.child1 = d;
+                d.parent = a;
+            }
+            a.setUnion(a.child1, a.child2);
+            a.height = 1 + Math.max(a.child1.height, a.child2.height);
+            b.setUnion(b.child1, b.child2);
+            b.height = 1 + Math.max(b.child1.height, b.child2.height);
+            return b;
+        }
+        return a;
+    }
+
+    /**
+     * Puts node child into the place of its parent node a.
+     */
+    private void replace(Node a, Node child) {
+        child.parent = a.parent;
+        if (a.parent == null) {
+            root = child;
+        } else if (a.parent.child1 == a) {
+            a.parent.child1 = child;
+        } else {
+            a.parent.child2 = child;
+        }
+    }
+
+    private class Node {
+        /** The box of the node. */
+        private double minX, minY, maxX, maxY;
+        private Node parent;
+        private Node child1;
+        private Node child2;
+        /** Leaves have height 0. */
+        private int height;
+        /** The object and its bounds, if the node is a leaf. */
+        private T object;
+        private Rectangle2D.Double bounds;
+
+        public boolean isLeaf() {
+            return child1 == null;
+        }
+
+        /**
+         * Sets the bounds of the object, and the box to the bounds grown by
+         * the margin.
+         */
+        public void setBounds(Rectangle2D.Double r) {
+            bounds = (Rectangle2D.Double) r.clone();
+            minX = r.x - margin;
+            minY = r.y - margin;
+            maxX = r.x + r.width + margin;
+            maxY = r.y + r.height + margin;
+        }
+
+        public void setUnion(Node a, Node b) {
+            minX = Math.min(a.minX, b.minX);
+            minY = Math.min(a.minY, b.minY);
+            maxX = Math.max(a.maxX, b.maxX);
+            maxY = Math.max(a.maxY, b.maxY);
+        }
+
+        public boolean encloses(Rectangle2D.Double r) {
+            return r.x >= minX && r.y >= minY
+                    && r.x + r.width <= maxX && r.y + r.height <= maxY;
+        }
+
+        /**
+         * Returns true, if the box exceeds the specified bounds by more than
+         * twice the margin on each side. The box is then much larger than
+         * needed, and makes queries descend into the leaf needlessly.
+         */
+        public boolean isLoose(Rectangle2D.Double r) {
+            return maxX - minX - r.width > 4 * margin
+                    || maxY - minY - r.height > 4 * margin;
+        }
+
+        public boolean overlaps(Rectangle2D.Double r) {
+            return r.x <= maxX && r.x + r.width >= minX
+                    && r.y <= maxY && r.y + r.height >= minY;
+        }
+
+        /** Returns twice the x or y coordinate of the center of the box. */
+        public double center(boolean x) {
+            return x ? minX + maxX : minY + maxY;
+        }
+
+        /** Returns half of the perimeter of the box. */
+        public double perimeter() {
+            return maxX - minX + maxY - minY;
+        }
+    }
+}
@@ -0,0 +1,731 @@
+/*
+ * @(#)PackedAABBTree.java  1.0  October 17, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+
+package org.jhotdraw.geom;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+/**
+ * A dynamic tree of axis aligned bounding boxes, which keeps its nodes and
+ * objects in parallel arrays.
+ * <p>
+ * The tree is built and balanced like {@link AABBTree}. A node is an index
+ * into arrays of boxes, links and heights, and an object is an id into
+ * arrays of bounds. The ids of the objects are looked up in a hash table,
+ * which holds only the ids. There are no node objects, no rectangles and no
+ * map entries, and the boxes of the nodes are stored as floats, so the tree
+ * needs much less memory than AABBTree or QuadTree, and the boxes compared
+ * by a query lie close together.
+ * <p>
+ * Removed nodes and ids are kept in free lists and reused. Objects with
+ * non-finite bounds are kept aside in a separate map.
+ *
+ * @version 1.0 October 17, 2026 Created.
+ */
+public class PackedAABBTree<T> implements SpatialIndex<T> {
+    private final static int NONE = -1;
+
+    private HashMap<T,Rectangle2D.Double> outside = new HashMap<T,Rectangle2D.Double>();
+    private double margin;
+
+    /**
+     * The boxes of the nodes. They are rounded outwards to float, the exact
+     * bounds of the objects are kept in x, y, w and h.
+     */
+    private float[] minX, minY, maxX, maxY;
+    /**
+     * The links of the nodes. Leaves have no child1, their child2 is the id
+     * of their object. The free nodes are linked through parent.
+     */
+    private int[] parent, child1, child2;
+    /** Leaves have height 0. */
+    private int[] height;
+    private int nodeCount;
+    private int freeNode = NONE;
+    private int root = NONE;
+
+    /** The objects and their bounds, by id. */
+    private Object[] objects;
+    private double[] x, y, w, h;
+    /** The leaf of each object. The free ids are linked through leaf. */
+    private int[] leaf;
+    private int idCount;
+    private int freeId = NONE;
+
+    /** Open addressing hash table of the ids plus one, 0 is empty. */
+    private int[] table = new int[16];
+    private int size;
+
+    /** Creates a new instance with a margin of 16. */
+    public PackedAABBTree() {
+        this(16);
+    }
+    /**
+     * Creates a new instance.
+     *
+     * @param margin The bounds of the objects are grown by the margin.
+     * Objects which move less than the margin do not change the tree.
+     */
+    public PackedAABBTree(double margin) {
+        this.margin = margin;
+        allocateNodes(16);
+        allocateIds(8);
+    }
+
+    public void add(T o, Rectangle2D.Double bounds) {
+        if (find(o) != NONE || outside.containsKey(o)) {
+            remove(o);
+        }
+        if (isFinite(bounds)) {
+            insertLeaf(createLeaf(o, bounds));
+        } else {
+            outside.put(o, (Rectangle2D.Double) bounds.clone());
+        }
+    }
+
+    /**
+     * Adds many objects at once. If the tree is empty, it is built top-down
+     * by splitting the objects at the median of their centers, which gives
+     * a better tree than adding the objects one by one.
+     */
+    public void addAll(Map<T,Rectangle2D.Double> objects) {
+        if (root != NONE) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
+                add(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        int[] leaves = new int[objects.size()];
+        int count = 0;
+        for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
+            if (find(entry.getKey()) != NONE || outside.containsKey(entry.getKey())) {
+                remove(entry.getKey());
+            }
+            if (isFinite(entry.getValue())) {
+                leaves[count++] = createLeaf(entry.getKey(), entry.getValue());
+            } else {
+                outside.put(entry.getKey(), (Rectangle2D.Double) entry.getValue().clone());
+            }
+        }
+        if (count > 0) {
+            root = build(leaves, 0, count);
+            parent[root] = NONE;
+        }
+    }
+
+    /**
+     * Builds a subtree for the leaves from index from to index to - 1.
+     */
+    private int build(int[] leaves, int from, int to) {
+        if (to - from == 1) {
+            return leaves[from];
+        }
+        double x0 = Double.POSITIVE_INFINITY, x1 = Double.NEGATIVE_INFINITY;
+        double y0 = Double.POSITIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            int n = leaves[i];
+            x0 = Math.min(x0, center(n, true));
+            x1 = Math.max(x1, center(n, true));
+            y0 = Math.min(y0, center(n, false));
+            y1 = Math.max(y1, center(n, false));
+        }
+        int middle = (from + to) >>> 1;
+        select(leaves, from, to, middle, x1 - x0 >= y1 - y0);
+        int a = build(leaves, from, middle);
+        int b = build(leaves, middle, to);
+        int node = allocateNode();
+        child1[node] = a;
+        child2[node] = b;
+        parent[a] = node;
+        parent[b] = node;
+        height[node] = 1 + Math.max(height[a], height[b]);
+        setUnion(node, a, b);
+        return node;
+    }
+
+    public void update(T o, Rectangle2D.Double bounds) {
+        int id = find(o);
+        if (id != NONE && isFinite(bounds) && encloses(leaf[id], bounds)) {
+            setBounds(id, bounds);
+        } else {
+            add(o, bounds);
+        }
+    }
+
+    public void remove(T o) {
+        outside.remove(o);
+        int id = find(o);
+        if (id != NONE) {
+            removeLeaf(leaf[id]);
+            releaseNode(leaf[id]);
+            removeId(id);
+        }
+    }
+
+    /**
+     * Returns the height of the tree. A tree with a single leaf has
+     * height 0.
+     */
+    public int getHeight() {
+        return (root == NONE) ? 0 : height[root];
+    }
+
+    public Collection<T> findContains(Point2D.Double p) {
+        final HashSet<T> result = new HashSet<T>();
+        visitContains(p, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+    public Collection<T> findIntersects(Rectangle2D r) {
+        return findIntersects(new Rectangle2D.Double(r.getX(), r.getY(), r.getWidth(), r.getHeight()));
+    }
+    public Collection<T> findIntersects(Rectangle2D.Double r) {
+        final HashSet<T> result = new HashSet<T>();
+        visitIntersects(r, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+    public Collection<T> findInside(Rectangle2D.Double r) {
+        final HashSet<T> result = new HashSet<T>();
+        visitInside(r, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
+            }
+        });
+        return result;
+    }
+
+    public void visitContains(Point2D.Double p, Visitor<? super T> visitor) {
+        if (root != NONE) {
+            visitContains(root, p, visitor);
+        }
+        if (! outside.isEmpty()) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                if (entry.getValue().contains(p)) {
+                    visitor.visit(entry.getKey());
+                }
+            }
+        }
+    }
+    public void visitIntersects(Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (root != NONE) {
+            visitIntersects(root, r, visitor);
+        }
+        if (! outside.isEmpty()) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                if (entry.getValue().intersects(r)) {
+                    visitor.visit(entry.getKey());
+                }
+            }
+        }
+    }
+    public void visitInside(Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (root != NONE) {
+            visitInside(root, r, visitor);
+        }
+        if (! outside.isEmpty()) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                if (r.contains(entry.getValue())) {
+                    visitor.visit(entry.getKey());
+                }
+            }
+        }
+    }
+
+    /*
+     * The tests of the bounds of the objects are the same as the ones of
+     * Rectangle2D.contains and Rectangle2D.intersects.
+     */
+
+    @SuppressWarnings("unchecked")
+    private void visitContains(int node, Point2D.Double p, Visitor<? super T> visitor) {
+        if (p.x >= minX[node] && p.x <= maxX[node]
+                && p.y >= minY[node] && p.y <= maxY[node]) {
+            if (child1[node] == NONE) {
+                int id = child2[node];
+                if (p.x >= x[id] && p.y >= y[id] && p.x < x[id] + w[id] && p.y < y[id] + h[id]) {
+                    visitor.visit((T) objects[id]);
+                }
+            } else {
+                visitContains(child1[node], p, visitor);
+                visitContains(child2[node], p, visitor);
+            }
+        }
+    }
+    @SuppressWarnings("unchecked")
+    private void visitIntersects(int node, Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (overlaps(node, r)) {
+            if (child1[node] == NONE) {
+                int id = child2[node];
+                if (w[id] > 0 && h[id] > 0 && r.width > 0 && r.height > 0
+                        && r.x + r.width > x[id] && r.y + r.height > y[id]
+                        && r.x < x[id] + w[id] && r.y < y[id] + h[id]) {
+                    visitor.visit((T) objects[id]);
+                }
+            } else {
+                visitIntersects(child1[node], r, visitor);
+                visitIntersects(child2[node], r, visitor);
+            }
+        }
+    }
+    @SuppressWarnings("unchecked")
+    private void visitInside(int node, Rectangle2D.Double r, Visitor<? super T> visitor) {
+        if (overlaps(node, r)) {
+            if (child1[node] == NONE) {
+                int id = child2[node];
+                if (r.width > 0 && r.height > 0 && w[id] > 0 && h[id] > 0
+                        && x[id] >= r.x && y[id] >= r.y
+                        && x[id] + w[id] <= r.x + r.width && y[id] + h[id] <= r.y + r.height) {
+                    visitor.visit((T) objects[id]);
+                }
+            } else {
+                visitInside(child1[node], r, visitor);
+                visitInside(child2[node], r, visitor);
+            }
+        }
+    }
+
+    private static boolean isFinite(Rectangle2D.Double r) {
+        return ! Double.isInfinite(r.x) && ! Double.isNaN(r.x)
+                && ! Double.isInfinite(r.y) && ! Double.isNaN(r.y)
+                && ! Double.isInfinite(r.width) && ! Double.isNaN(r.width)
+                && ! Double.isInfinite(r.height) && ! Double.isNaN(r.height);
+    }
+
+    private boolean overlaps(int node, Rectangle2D.Double r) {
+        return r.x <= maxX[node] && r.x + r.width >= minX[node]
+                && r.y <= maxY[node] && r.y + r.height >= minY[node];
+    }
+
+    private boolean encloses(int node, Rectangle2D.Double r) {
+        return r.x >= minX[node] && r.y >= minY[node]
+                && r.x + r.width <= maxX[node] && r.y + r.height <= maxY[node];
+    }
+
+    private void setUnion(int node, int a, int b) {
+        minX[node] = Math.min(minX[a], minX[b]);
+        minY[node] = Math.min(minY[a], minY[b]);
+        maxX[node] = Math.max(maxX[a], maxX[b]);
+        maxY[node] = Math.max(maxY[a], maxY[b]);
+    }
+
+    /** Returns half of the perimeter of the box of a node. */
+    private double perimeter(int node) {
+        return (double) maxX[node] - minX[node] + (double) maxY[node] - minY[node];
+    }
+
+    /**
+     * Returns the perimeter of the box which encloses both nodes.
+     */
+    private double combinedPerimeter(int a, int b) {
+        return (double) Math.max(maxX[a], maxX[b]) - Math.min(minX[a], minX[b])
+                + (double) Math.max(maxY[a], maxY[b]) - Math.min(minY[a], minY[b]);
+    }
+
+    /** Returns twice the x or y coordinate of the center of a box. */
+    private double center(int node, boolean byX) {
+        return byX ? (double) minX[node] + maxX[node] : (double) minY[node] + maxY[node];
+    }
+
+    /**
+     * Partially sorts the leaves from index from to index to - 1 by the
+     * centers of their boxes, so that leaf k is at its sorted position.
+     */
+    private void select(int[] leaves, int from, int to, int k, boolean byX) {
+        int lo = from;
+        int hi = to - 1;
+        while (lo < hi) {
+            double pivot = center(leaves[(lo + hi) >>> 1], byX);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (center(leaves[i], byX) < pivot) {
+                    i++;
+                }
+                while (center(leaves[j], byX) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = leaves[i];
+                    leaves[i] = leaves[j];
+                    leaves[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NONE) {
+            root = leaf;
+            parent[leaf] = NONE;
+            return;
+        }
+
+        // Find the sibling which enlarges the tree the least
+        int sibling = root;
+        while (child1[sibling] != NONE) {
+            double perimeter = perimeter(sibling);
+            double combined = combinedPerimeter(sibling, leaf);
+            // Cost of creating a new parent for this node and the leaf
+            double cost = 2 * combined;
+            // Cost of pushing the leaf further down the tree
+            double inheritance = 2 * (combined - perimeter);
+            double cost1 = descendCost(child1[sibling], leaf) + inheritance;
+            double cost2 = descendCost(child2[sibling], leaf) + inheritance;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            sibling = (cost1 < cost2) ? child1[sibling] : child2[sibling];
+        }
+
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        height[newParent] = height[sibling] + 1;
+        setUnion(newParent, sibling, leaf);
+        if (oldParent == NONE) {
+            root = newParent;
+        } else if (child1[oldParent] == sibling) {
+            child1[oldParent] = newParent;
+        } else {
+            child2[oldParent] = newParent;
+        }
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        fixUpwards(parent[newParent]);
+    }
+
+    private double descendCost(int child, int leaf) {
+        double combined = combinedPerimeter(child, leaf);
+        return (child1[child] == NONE) ? combined : combined - perimeter(child);
+    }
+
+    /**
+     * Takes a leaf out of the tree, and releases its parent node.
+     */
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NONE;
+            return;
+        }
+        int p = parent[leaf];
+        int grandParent = parent[p];
+        int sibling = (child1[p] == leaf) ? child2[p] : child1[p];
+        if (grandParent == NONE) {
+            root = sibling;
+            parent[sibling] = NONE;
+        } else {
+            if (child1[grandParent] == p) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            fixUpwards(grandParent);
+        }
+        releaseNode(p);
+        parent[leaf] = NONE;
+    }
+
+    /**
+     * Balances the nodes from the specified node up to the root, and
+     * recomputes their boxes and heights.
+     */
+    private void fixUpwards(int node) {
+        while (node != NONE) {
+            node = balance(node);
+            height[node] = 1 + Math.max(height[child1[node]], height[child2[node]]);
+            setUnion(node, child1[node], child2[node]);
+            node = parent[node];
+        }
+    }
+
+    /**
+     * Rotates the higher child of node a up, if the heights of the children
+     * differ by more than one.
+     *
+     * @return The node which took the place of node a.
+     */
+    private int balance(int a) {
+        if (child1[a] == NONE || height[a] < 2) {
+            return a;
+        }
+        int b = child1[a];
+        int c = child2[a];
+        int balance = height[c] - height[b];
+        if (balance > 1) {
+            replace(a, c);
+            int f = child1[c];
+            int g = child2[c];
+            child1[c] = a;
+            parent[a] = c;
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+            }
+            setUnion(a, child1[a], child2[a]);
+            height[a] = 1 + Math.max(height[child1[a]], height[child2[a]]);
+            setUnion(c, child1[c], child2[c]);
+            height[c] = 1 + Math.max(height[child1[c]], height[child2[c]]);
+            return c;
+        }
+        if (balance < -1) {
+            replace(a, b);
+            int d = child1[b];
+            int e = child2[b];
+            child1[b] = a;
+            parent[a] = b;
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+            }
+            setUnion(a, child1[a], child2[a]);
+            height[a] = 1 + Math.max(height[child1[a]], height[child2[a]]);
+            setUnion(b, child1[b], child2[b]);
+            height[b] = 1 + Math.max(height[child1[b]], height[child2[b]]);
+            return b;
+        }
+        return a;
+    }
+
+    /**
+     * Puts node child into the place of its parent node a.
+     */
+    private void replace(int a, int child) {
+        int p = parent[a];
+        parent[child] = p;
+        if (p == NONE) {
+            root = child;
+        } else if (child1[p] == a) {
+            child1[p] = child;
+        } else {
+            child2[p] = child;
+        }
+    }
+
+    /**
+     * Creates an id and a leaf for an object, which is not yet in the tree.
+     */
+    private int createLeaf(T o, Rectangle2D.Double bounds) {
+        int id = addId(o);
+        setBounds(id, bounds);
+        int node = allocateNode();
+        child2[node] = id;
+        minX[node] = floor(bounds.x - margin);
+        minY[node] = floor(bounds.y - margin);
+        maxX[node] = ceil(bounds.x + bounds.width + margin);
+        maxY[node] = ceil(bounds.y + bounds.height + margin);
+        leaf[id] = node;
+        return node;
+    }
+
+    private void setBounds(int id, Rectangle2D.Double bounds) {
+        x[id] = bounds.x;
+        y[id] = bounds.y;
+        w[id] = bounds.width;
+        h[id] = bounds.height;
+    }
+
+    private int allocateNode() {
+        int node;
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = parent[node];
+        } else {
+            if (nodeCount == parent.length) {
+                allocateNodes(nodeCount + (nodeCount >> 1));
+            }
+            node = nodeCount++;
+        }
+        parent[node] = NONE;
+        child1[node] = NONE;
+        child2[node] = NONE;
+        height[node] = 0;
+        return node;
+    }
+
+    /** Returns the largest float which is not greater than v. */
+    private static float floor(double v) {
+        float f = (float) v;
+        return (f > v) ? Math.nextDown(f) : f;
+    }
+
+    /** Returns the smallest float which is not less than v. */
+    private static float ceil(double v) {
+        float f = (float) v;
+        return (f < v) ? Math.nextUp(f) : f;
+    }
+
+    private void releaseNode(int node) {
+        child1[node] = NONE;
+        parent[node] = freeNode;
+        freeNode = node;
+    }
+
+    private void allocateNodes(int capacity) {
+        if (parent == null) {
+            minX = new float[capacity];
+            minY = new float[capacity];
+            maxX = new float[capacity];
+            maxY = new float[capacity];
+            parent = new int[capacity];
+            child1 = new int[capacity];
+            child2 = new int[capacity];
+            height = new int[capacity];
+        } else {
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            child1 = Arrays.copyOf(child1, capacity);
+            child2 = Arrays.copyOf(child2, capacity);
+            height = Arrays.copyOf(height, capacity);
+        }
+    }
+
+    private void allocateIds(int capacity) {
+        if (objects == null) {
+            objects = new Object[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            w = new double[capacity];
+            h = new double[capacity];
+            leaf = new int[capacity];
+        } else {
+            objects = Arrays.copyOf(objects, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            w = Arrays.copyOf(w, capacity);
+            h = Arrays.copyOf(h, capacity);
+            leaf = Arrays.copyOf(leaf, capacity);
+        }
+    }
+
+    private static int hash(Object o) {
+        int hash = o.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the id of an object, or NONE if the object is not in the tree.
+     */
+    private int find(Object o) {
+        int mask = table.length - 1;
+        for (int i = hash(o) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int id = table[i] - 1;
+            if (objects[id] == o || objects[id].equals(o)) {
+                return id;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Gives an object, which is not in the tree, an id.
+     */
+    private int addId(T o) {
+        int id;
+        if (freeId != NONE) {
+            id = freeId;
+            freeId = leaf[id];
+        } else {
+            if (idCount == objects.length) {
+                allocateIds(idCount + (idCount >> 1));
+            }
+            id = idCount++;
+        }
+        objects[id] = o;
+        if (++size * 2 > table.length) {
+            int[] old = table;
+            table = new int[old.length * 2];
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] != 0) {
+                    insertId(old[i] - 1);
+                }
+            }
+        }
+        insertId(id);
+        return id;
+    }
+
+    private void insertId(int id) {
+        int mask = table.length - 1;
+        int i = hash(objects[id]) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = id + 1;
+    }
+
+    /**
+     * Removes an id from the hash table, and moves the following ids of the
+     * probe sequence up into the gap.
+     */
+    private void removeId(int id) {
+        int mask = table.length - 1;
+        int i = hash(objects[id]) & mask;
+        while (table[i] != id + 1) {
+            i = (i + 1) & mask;
+        }
+        table[i] = 0;
+        for (int j = (i + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+            int k = hash(objects[table[j] - 1]) & mask;
+            if ((i <= j) ? (i < k && k <= j) : (i < k || k <= j)) {
+                continue;
+            }
+            table[i] = table[j];
+            table[j] = 0;
+            i = j;
+        }
+        size--;
+        objects[id] = null;
+        leaf[id] = freeId;
+        freeId = id;
+    }
+}
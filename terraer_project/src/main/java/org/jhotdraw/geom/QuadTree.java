@@ -17,25 +17,40 @@ package org.jhotdraw.geom;
 
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 /**
  * QuadTree.
+ * <p>
+ * The root of the tree grows toward objects which lie outside of it, by
+ * doubling its size until the object fits. The old root becomes one of the
+ * quadrants of the new root, so the tree is never rebuilt when a drawing
+ * grows. Objects with empty or non-finite bounds can not be found by
+ * location, and are kept aside in a separate map.
+ * <p>
+ * {@link #addAll} bulk loads many objects at once: it partitions the objects
+ * top-down over the quadrants, instead of splitting the leaves one object at
+ * a time.
  *
  * @author  Werner Randelshofer
  * @version 2.0 2006-12-06 Renamed from QuadTree2DDouble to QuadTree because
  * this class isn't a Shape2D class.
  * <br>1.0 2006-01-14 Derived from class QuadTree.
  */
-public class QuadTree<T> {
+public class QuadTree<T> implements SpatialIndex<T> {
     private HashMap<T,Rectangle2D.Double> outside = new HashMap<T,Rectangle2D.Double>();
     private QuadNode root;
     private int maxCapacity = 32;
     private int minSize = 32;
-    private int maxOutside = 32;
+    private IdentityHashMap<T,Boolean> visited = new IdentityHashMap<T,Boolean>();
+    private boolean isVisiting;
     
     /** Creates a new instance. */
     public QuadTree() {
@@ -46,75 +61,219 @@ public class QuadTree<T> {
     }
     
     public void add(T o, Rectangle2D.Double bounds) {
-        if (root.bounds.contains(bounds)) {
+        if (isLocatable(bounds)) {
+            grow(bounds);
             root.add(o, (Rectangle2D.Double) bounds.clone());
         } else {
             outside.put(o, (Rectangle2D.Double) bounds.clone());
-            
-            if (outside.size() > maxOutside) {
-                reorganize();
+        }
+    }
+    
+    /**
+     * Adds many objects at once. This is considerably faster than adding
+     * the objects one by one.
+     *
+     * @param objects Maps the objects to their bounds.
+     */
+    public void addAll(Map<T,Rectangle2D.Double> objects) {
+        ArrayList<Map.Entry<T,Rectangle2D.Double>> inside = new ArrayList<Map.Entry<T,Rectangle2D.Double>>(objects.size());
+        Rectangle2D.Double insideBounds = null;
+        for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
+            Rectangle2D.Double bounds = (Rectangle2D.Double) entry.getValue().clone();
+            if (isLocatable(bounds)) {
+                inside.add(new AbstractMap.SimpleEntry<T,Rectangle2D.Double>(entry.getKey(), bounds));
+                if (insideBounds == null) {
+                    insideBounds = (Rectangle2D.Double) bounds.clone();
+                } else {
+                    insideBounds.add(bounds);
+                }
+            } else {
+                outside.put(entry.getKey(), bounds);
             }
         }
+        if (insideBounds != null) {
+            grow(insideBounds);
+            root.addAll(inside);
+        }
     }
+    
+    /**
+     * Rebuilds the tree, so that the root fits tightly around the objects.
+     */
     public void reorganize() {
         root.join();
-        outside.putAll(root.objects);
-        root.objects.clear();
-        
-        Iterator<Map.Entry<T,Rectangle2D.Double>> i = outside.entrySet().iterator();
-        Map.Entry<T,Rectangle2D.Double> entry = i.next();
-        Rectangle2D.Double treeBounds = (Rectangle2D.Double) (entry.getValue()).clone();
-        while (i.hasNext()) {
-            entry = i.next();
-            Rectangle2D.Double bounds = entry.getValue();
-            treeBounds.add(bounds);
+        HashMap<T,Rectangle2D.Double> objects = root.objects;
+        root.objects = new HashMap<T,Rectangle2D.Double>();
+        if (! objects.isEmpty()) {
+            Iterator<Rectangle2D.Double> i = objects.values().iterator();
+            Rectangle2D.Double treeBounds = (Rectangle2D.Double) i.next().clone();
+            while (i.hasNext()) {
+                treeBounds.add(i.next());
+            }
+            root.bounds = treeBounds;
+            root.addAll(new ArrayList<Map.Entry<T,Rectangle2D.Double>>(objects.entrySet()));
+        }
+    }
+    
+    /**
+     * Grows the root until it contains the specified bounds.
+     */
+    private void grow(Rectangle2D.Double r) {
+        if (root.isLeaf() && root.objects.isEmpty() && ! contains(root.bounds, r)) {
+            root.bounds = new Rectangle2D.Double(r.x, r.y,
+                    Math.max(r.width, root.bounds.width), Math.max(r.height, root.bounds.height));
         }
-        root.bounds = treeBounds;
-        i = outside.entrySet().iterator();
-        while (i.hasNext()) {
-            entry = i.next();
-            root.add(entry.getKey(), entry.getValue());
+        while (! contains(root.bounds, r)) {
+            Rectangle2D.Double b = root.bounds;
+            double left = (r.x < b.x) ? b.x - b.width : b.x;
+            double right = (r.x < b.x) ? b.x : b.x + b.width;
+            double top = (r.y < b.y) ? b.y - b.height : b.y;
+            double bottom = (r.y < b.y) ? b.y : b.y + b.height;
+            QuadNode parent = new QuadNode(new Rectangle2D.Double(left, top, b.width * 2, b.height * 2));
+            parent.northWest = quadrant(left, top);
+            parent.northEast = quadrant(right, top);
+            parent.southWest = quadrant(left, bottom);
+            parent.southEast = quadrant(right, bottom);
+            root = parent;
         }
-        outside.clear();
     }
+    
+    /**
+     * Returns the root, if it is located at x, y, or a new empty node
+     * of the size of the root.
+     */
+    private QuadNode quadrant(double x, double y) {
+        Rectangle2D.Double b = root.bounds;
+        return (x == b.x && y == b.y) ? root : new QuadNode(new Rectangle2D.Double(x, y, b.width, b.height));
+    }
+    
+    /**
+     * Returns true, if r lies inside of or on the border of bounds.
+     */
+    private static boolean contains(Rectangle2D.Double bounds, Rectangle2D.Double r) {
+        return r.x >= bounds.x && r.y >= bounds.y
+                && r.x + r.width <= bounds.x + bounds.width
+                && r.y + r.height <= bounds.y + bounds.height;
+    }
+    
+    /**
+     * Returns true, if the bounds can be located by the tree.
+     */
+    private static boolean isLocatable(Rectangle2D.Double r) {
+        return ! r.isEmpty()
+                && ! Double.isInfinite(r.x) && ! Double.isNaN(r.x)
+                && ! Double.isInfinite(r.y) && ! Double.isNaN(r.y)
+                && ! Double.isInfinite(r.width) && ! Double.isNaN(r.width)
+                && ! Double.isInfinite(r.height) && ! Double.isNaN(r.height);
+    }
+    
     public void remove(T o) {
         outside.remove(o);
         root.remove(o);
     }
+    /**
+     * Removes the object and adds it again with the new bounds.
+     */
+    public void update(T o, Rectangle2D.Double bounds) {
+        remove(o);
+        add(o, bounds);
+    }
     public Collection<T> findContains(Point2D.Double p) {
-        HashSet<T> result = new HashSet<T>();
-        root.findContains(p, result);
-        for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
-            if (entry.getValue().contains(p)) {
-                result.add(entry.getKey());
+        final HashSet<T> result = new HashSet<T>();
+        visitContains(p, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
             }
-        }
+        });
         return result;
     }
     public Collection<T> findIntersects(Rectangle2D r) {
         return findIntersects(new Rectangle2D.Double(r.getX(), r.getY(), r.getWidth(), r.getHeight()));
     }
     public Collection<T> findIntersects(Rectangle2D.Double r) {
-        HashSet<T> result = new HashSet<T>();
-        root.findIntersects(r, result);
-        for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
-            if (entry.getValue().intersects(r)) {
-                result.add(entry.getKey());
+        final HashSet<T> result = new HashSet<T>();
+        visitIntersects(r, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
             }
-        }
+        });
         return result;
     }
     public Collection<T> findInside(Rectangle2D.Double r) {
-        HashSet<T> result = new HashSet<T>();
-        root.findInside(r, result);
-        for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
-            if (r.contains(entry.getValue())) {
-                result.add(entry.getKey());
+        final HashSet<T> result = new HashSet<T>();
+        visitInside(r, new Visitor<T>() {
+            public void visit(T o) {
+                result.add(o);
             }
-        }
+        });
         return result;
     }
     
+    /**
+     * A point lies in only one node on each level of the tree, so this
+     * method visits each object once without keeping track of the visited
+     * objects.
+     */
+    public void visitContains(Point2D.Double p, Visitor<? super T> visitor) {
+        root.visitContains(p, visitor);
+        if (! outside.isEmpty()) {
+            for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                if (entry.getValue().contains(p)) {
+                    visitor.visit(entry.getKey());
+                }
+            }
+        }
+    }
+    public void visitIntersects(Rectangle2D.Double r, Visitor<? super T> visitor) {
+        IdentityHashMap<T,Boolean> visited = beginVisit();
+        try {
+            root.visitIntersects(r, visitor, visited);
+            if (! outside.isEmpty()) {
+                for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                    if (entry.getValue().intersects(r)) {
+                        visitor.visit(entry.getKey());
+                    }
+                }
+            }
+        } finally {
+            endVisit(visited);
+        }
+    }
+    public void visitInside(Rectangle2D.Double r, Visitor<? super T> visitor) {
+        IdentityHashMap<T,Boolean> visited = beginVisit();
+        try {
+            root.visitInside(r, visitor, visited);
+            if (! outside.isEmpty()) {
+                for (Map.Entry<T,Rectangle2D.Double> entry : outside.entrySet()) {
+                    if (r.contains(entry.getValue())) {
+                        visitor.visit(entry.getKey());
+                    }
+                }
+            }
+        } finally {
+            endVisit(visited);
+        }
+    }
+    
+    /**
+     * Returns an empty map for keeping track of the objects which have been
+     * visited. An object may be stored in more than one node. The map is
+     * reused, unless a visitor queries the tree again.
+     */
+    private IdentityHashMap<T,Boolean> beginVisit() {
+        if (isVisiting) {
+            return new IdentityHashMap<T,Boolean>();
+        }
+        isVisiting = true;
+        return visited;
+    }
+    private void endVisit(IdentityHashMap<T,Boolean> map) {
+        if (map == visited) {
+            visited.clear();
+            isVisiting = false;
+        }
+    }
+    
     private class QuadNode {
         private Rectangle2D.Double bounds;
         /**
@@ -178,6 +337,57 @@ public class QuadTree<T> {
             }
         }
         
+        /**
+         * Partitions the objects over this node and its children.
+         */
+        public void addAll(List<Map.Entry<T,Rectangle2D.Double>> list) {
+            if (isLeaf()) {
+                if (objects.size() + list.size() <= maxCapacity
+                || bounds.width <= minSize || bounds.height <= minSize) {
+                    for (Map.Entry<T,Rectangle2D.Double> entry : list) {
+                        objects.put(entry.getKey(), entry.getValue());
+                    }
+                    return;
+                }
+                split();
+            }
+            ArrayList<Map.Entry<T,Rectangle2D.Double>> ne = new ArrayList<Map.Entry<T,Rectangle2D.Double>>();
+            ArrayList<Map.Entry<T,Rectangle2D.Double>> nw = new ArrayList<Map.Entry<T,Rectangle2D.Double>>();
+            ArrayList<Map.Entry<T,Rectangle2D.Double>> se = new ArrayList<Map.Entry<T,Rectangle2D.Double>>();
+            ArrayList<Map.Entry<T,Rectangle2D.Double>> sw = new ArrayList<Map.Entry<T,Rectangle2D.Double>>();
+            for (Map.Entry<T,Rectangle2D.Double> entry : list) {
+                Rectangle2D.Double oBounds = entry.getValue();
+                if (oBounds.contains(bounds)) {
+                    objects.put(entry.getKey(), oBounds);
+                } else {
+                    if (northEast.bounds.intersects(oBounds)) {
+                        ne.add(entry);
+                    }
+                    if (northWest.bounds.intersects(oBounds)) {
+                        nw.add(entry);
+                    }
+                    if (southEast.bounds.intersects(oBounds)) {
+                        se.add(entry);
+                    }
+                    if (southWest.bounds.intersects(oBounds)) {
+                        sw.add(entry);
+                    }
+                }
+            }
+            if (! ne.isEmpty()) {
+                northEast.addAll(ne);
+            }
+            if (! nw.isEmpty()) {
+                northWest.addAll(nw);
+            }
+            if (! se.isEmpty()) {
+                southEast.addAll(se);
+            }
+            if (! sw.isEmpty()) {
+                southWest.addAll(sw);
+            }
+        }
+        
         public void split() {
             if (isLeaf()) {
                 double hw = bounds.width / 2;
@@ -222,50 +432,50 @@ public class QuadTree<T> {
             }
         }
         
-        public void findContains(Point2D.Double p, HashSet<T> result) {
+        public void visitContains(Point2D.Double p, Visitor<? super T> visitor) {
             if (bounds.contains(p)) {
                 for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
                     if (entry.getValue().contains(p)) {
-                        result.add(entry.getKey());
+                        visitor.visit(entry.getKey());
                     }
                 }
                 if (! isLeaf()) {
-                    northWest.findContains(p, result);
-                    northEast.findContains(p, result);
-                    southWest.findContains(p, result);
-                    southEast.findContains(p, result);
+                    northWest.visitContains(p, visitor);
+                    northEast.visitContains(p, visitor);
+                    southWest.visitContains(p, visitor);
+                    southEast.visitContains(p, visitor);
                 }
             }
         }
-        public void findIntersects(Rectangle2D.Double r, HashSet<T> result) {
+        public void visitIntersects(Rectangle2D.Double r, Visitor<? super T> visitor, IdentityHashMap<T,Boolean> visited) {
             if (bounds.intersects(r)) {
-            	@SuppressWarnings("unused")//anotacao inserida por Terra
-            	int oldSize = result.size();
                 for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
-                    if (entry.getValue().intersects(r)) {
-                        result.add(entry.getKey());
+                    if (entry.getValue().intersects(r)
+                    && visited.put(entry.getKey(), Boolean.TRUE) == null) {
+                        visitor.visit(entry.getKey());
                     }
                 }
                 if (! isLeaf()) {
-                    northWest.findIntersects(r, result);
-                    northEast.findIntersects(r, result);
-                    southWest.findIntersects(r, result);
-                    southEast.findIntersects(r, result);
+                    northWest.visitIntersects(r, visitor, visited);
+                    northEast.visitIntersects(r, visitor, visited);
+                    southWest.visitIntersects(r, visitor, visited);
+                    southEast.visitIntersects(r, visitor, visited);
                 }
             }
         }
-        public void findInside(Rectangle2D.Double r, HashSet<T> result) {
+        public void visitInside(Rectangle2D.Double r, Visitor<? super T> visitor, IdentityHashMap<T,Boolean> visited) {
             if (bounds.intersects(r)) {
-            for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
-                    if (r.contains(entry.getValue())) {
-                        result.add(entry.getKey());
+                for (Map.Entry<T,Rectangle2D.Double> entry : objects.entrySet()) {
+                    if (r.contains(entry.getValue())
+                    && visited.put(entry.getKey(), Boolean.TRUE) == null) {
+                        visitor.visit(entry.getKey());
                     }
                 }
                 if (! isLeaf()) {
-                    northWest.findInside(r, result);
-                    northEast.findInside(r, result);
-                    southWest.findInside(r, result);
-                    southEast.findInside(r, result);
+                    northWest.visitInside(r, visitor, visited);
+                    northEast.visitInside(r, visitor, visited);
+                    southWest.visitInside(r, visitor, visited);
+                    southEast.visitInside(r, visitor, visited);
                 }
             }
         }
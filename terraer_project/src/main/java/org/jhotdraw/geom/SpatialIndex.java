@@ -0,0 +1,86 @@
+/*
+ * @(#)SpatialIndex.java  1.0  October 16, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+
+package org.jhotdraw.geom;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Collection;
+import java.util.Map;
+/**
+ * An index of objects by their bounds.
+ *
+ * @version 1.0 October 16, 2026 Created.
+ */
+public interface SpatialIndex<T> {
+    /**
+     * Adds an object with the specified bounds.
+     */
+    public void add(T o, Rectangle2D.Double bounds);
+    /**
+     * Adds many objects at once.
+     *
+     * @param objects Maps the objects to their bounds.
+     */
+    public void addAll(Map<T,Rectangle2D.Double> objects);
+    /**
+     * Changes the bounds of an object, which has been added before.
+     */
+    public void update(T o, Rectangle2D.Double bounds);
+    /**
+     * Removes an object.
+     */
+    public void remove(T o);
+    /**
+     * Returns the objects whose bounds contain the point.
+     */
+    public Collection<T> findContains(Point2D.Double p);
+    /**
+     * Returns the objects whose bounds intersect the rectangle.
+     */
+    public Collection<T> findIntersects(Rectangle2D r);
+    /**
+     * Returns the objects whose bounds intersect the rectangle.
+     */
+    public Collection<T> findIntersects(Rectangle2D.Double r);
+    /**
+     * Returns the objects whose bounds lie inside of the rectangle.
+     */
+    public Collection<T> findInside(Rectangle2D.Double r);
+    
+    /**
+     * Calls the visitor once for each object whose bounds contain the point.
+     * Unlike the find methods, the visit methods don't create a collection.
+     */
+    public void visitContains(Point2D.Double p, Visitor<? super T> visitor);
+    /**
+     * Calls the visitor once for each object whose bounds intersect the
+     * rectangle.
+     */
+    public void visitIntersects(Rectangle2D.Double r, Visitor<? super T> visitor);
+    /**
+     * Calls the visitor once for each object whose bounds lie inside of the
+     * rectangle.
+     */
+    public void visitInside(Rectangle2D.Double r, Visitor<? super T> visitor);
+    
+    /**
+     * Receives the objects found by a query. The visitor must not change
+     * the index.
+     */
+    public interface Visitor<T> {
+        public void visit(T o);
+    }
+}
@@ -0,0 +1,196 @@
+package org.jhotdraw.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.border.TitledBorder;
+
+import org.jhotdraw.app.action.IncrementalDDLGenerator;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.DrawingEvent;
+import org.jhotdraw.draw.DrawingListener;
+import org.jhotdraw.draw.Figure;
+import org.jhotdraw.draw.FigureAdapter;
+import org.jhotdraw.draw.FigureEvent;
+import org.jhotdraw.util.ResourceBundleUtil;
+
+/**
+ * Shows the DDL script of a drawing and keeps it up to date while the
+ * drawing is edited.
+ * <p>
+ * The panel listens to the drawing and to each of its figures, and passes
+ * the figures which have been added, removed, changed or reordered on to an
+ * {@link IncrementalDDLGenerator}. The script is updated shortly after the
+ * last change, and only while the panel is showing.
+ */
+public class DDLPreviewPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    /** Milliseconds between the last change and the update of the script. */
+    private final static int UPDATE_DELAY = 300;
+
+    private Drawing drawing;
+    private IncrementalDDLGenerator generator;
+    private final JTextArea textArea;
+    private final JLabel statusLabel;
+    private final Timer timer;
+    private final IdentityHashMap<Figure, FigureHandler> figureHandlers = new IdentityHashMap<Figure, FigureHandler>();
+
+    private final DrawingListener drawingHandler = new DrawingListener() {
+        public void areaInvalidated(DrawingEvent e) {
+        }
+
+        public void figureAdded(DrawingEvent e) {
+            install(e.getFigure());
+            invalidate(e.getFigure());
+        }
+
+        public void figureRemoved(DrawingEvent e) {
+            uninstall(e.getFigure());
+            invalidate(e.getFigure());
+        }
+    };
+
+    /** Forwards the figures which have been brought to front or sent to back. */
+    private final PropertyChangeListener orderHandler = new PropertyChangeListener() {
+        public void propertyChange(PropertyChangeEvent evt) {
+            for (Object f : (List<?>) evt.getNewValue()) {
+                invalidate((Figure) f);
+            }
+        }
+    };
+
+    /**
+     * Forwards the changes of a figure. Composite figures pass on the events
+     * of their children, so the handler has to remember its figure.
+     */
+    private class FigureHandler extends FigureAdapter {
+        private final Figure figure;
+
+        FigureHandler(Figure figure) {
+            this.figure = figure;
+        }
+
+        @Override
+        public void figureChanged(FigureEvent e) {
+            invalidate(figure);
+        }
+
+        @Override
+        public void figureAttributeChanged(FigureEvent e) {
+            invalidate(figure);
+        }
+    }
+
+    /** Creates a new instance. */
+    public DDLPreviewPanel() {
+        super(new BorderLayout());
+        ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+        setBorder(new TitledBorder(labels.getString("ddlPreview")));
+
+        textArea = new JTextArea(10, 40);
+        textArea.setEditable(false);
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, textArea.getFont().getSize()));
+        add(new JScrollPane(textArea), BorderLayout.CENTER);
+        statusLabel = new JLabel(" ");
+        add(statusLabel, BorderLayout.SOUTH);
+
+        timer = new Timer(UPDATE_DELAY, new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                update();
+            }
+        });
+        timer.setRepeats(false);
+
+        addHierarchyListener(new HierarchyListener() {
+            public void hierarchyChanged(HierarchyEvent e) {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) {
+                    timer.restart();
+                }
+            }
+        });
+    }
+
+    /**
+     * Sets the drawing whose script is shown. Pass null to stop listening
+     * to the current drawing.
+     */
+    public void setDrawing(Drawing newValue) {
+        if (drawing != null) {
+            drawing.removeDrawingListener(drawingHandler);
+            drawing.removePropertyChangeListener(Drawing.FIGURE_ORDER_PROPERTY, orderHandler);
+            for (Figure f : drawing.getFigures()) {
+                uninstall(f);
+            }
+        }
+        drawing = newValue;
+        generator = null;
+        if (drawing != null) {
+            drawing.addDrawingListener(drawingHandler);
+            drawing.addPropertyChangeListener(Drawing.FIGURE_ORDER_PROPERTY, orderHandler);
+            for (Figure f : drawing.getFigures()) {
+                install(f);
+            }
+            generator = new IncrementalDDLGenerator(drawing);
+        }
+        textArea.setText("");
+        timer.restart();
+    }
+
+    public Drawing getDrawing() {
+        return drawing;
+    }
+
+    private void install(Figure f) {
+        if (! figureHandlers.containsKey(f)) {
+            FigureHandler handler = new FigureHandler(f);
+            figureHandlers.put(f, handler);
+            f.addFigureListener(handler);
+        }
+    }
+
+    private void uninstall(Figure f) {
+        FigureHandler handler = figureHandlers.remove(f);
+        if (handler != null) {
+            f.removeFigureListener(handler);
+        }
+    }
+
+    private void invalidate(Figure f) {
+        if (generator != null) {
+            generator.invalidate(f);
+            timer.restart();
+        }
+    }
+
+    /**
+     * Updates the script, if the panel is showing.
+     */
+    protected void update() {
+        if (generator == null || ! isShowing() || ! generator.isInvalid()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        String script = generator.getScript();
+        long end = System.currentTimeMillis();
+        if (! script.equals(textArea.getText())) {
+            int caret = Math.min(textArea.getCaretPosition(), script.length());
+            textArea.setText(script);
+            textArea.setCaretPosition(caret);
+        }
+        ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+        statusLabel.setText(labels.getFormatted("ddlPreviewStatus", generator.getTableCount(), end - start));
+    }
+}
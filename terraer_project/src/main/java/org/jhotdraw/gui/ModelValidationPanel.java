@@ -0,0 +1,206 @@
+package org.jhotdraw.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.DrawingEvent;
+import org.jhotdraw.draw.DrawingListener;
+import org.jhotdraw.draw.DrawingView;
+import org.jhotdraw.draw.Figure;
+import org.jhotdraw.draw.FigureAdapter;
+import org.jhotdraw.draw.FigureEvent;
+import org.jhotdraw.draw.LineConnectionFigure;
+import org.jhotdraw.draw.StructuralValidation;
+import org.jhotdraw.util.ResourceBundleUtil;
+
+/**
+ * Lists the invalid connections found by a validation of the whole model,
+ * followed by the structural problems of the model.
+ * <p>
+ * The structural problems are kept up to date while the drawing is edited:
+ * the panel passes the figures which have been added, removed or changed on
+ * to a {@link StructuralValidation}, which checks only these figures and
+ * their neighbors. Selecting an entry selects its figure in the drawing view
+ * and scrolls it into sight.
+ */
+public class ModelValidationPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    /** Milliseconds between the last change and the update of the problems. */
+    private final static int UPDATE_DELAY = 300;
+
+    private final DrawingView view;
+    private final Drawing drawing;
+    private final StructuralValidation structure;
+    /** Holds the invalid connections and the structural problems. */
+    private final DefaultListModel<Object> model = new DefaultListModel<Object>();
+    private final JList<Object> list = new JList<Object>(model);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final Timer timer;
+    private final IdentityHashMap<Figure, FigureHandler> figureHandlers = new IdentityHashMap<Figure, FigureHandler>();
+
+    private List<LineConnectionFigure> violations = new ArrayList<LineConnectionFigure>();
+    private int connectionCount;
+    private long millis;
+
+    private final DrawingListener drawingHandler = new DrawingListener() {
+        public void areaInvalidated(DrawingEvent e) {
+        }
+
+        public void figureAdded(DrawingEvent e) {
+            install(e.getFigure());
+            structure.figureAdded(e.getFigure());
+            timer.restart();
+        }
+
+        public void figureRemoved(DrawingEvent e) {
+            uninstall(e.getFigure());
+            structure.figureRemoved(e.getFigure());
+            timer.restart();
+        }
+    };
+
+    private class FigureHandler extends FigureAdapter {
+        private final Figure figure;
+
+        FigureHandler(Figure figure) {
+            this.figure = figure;
+        }
+
+        @Override
+        public void figureChanged(FigureEvent e) {
+            structure.figureChanged(figure);
+            timer.restart();
+        }
+    }
+
+    /** Creates a new instance for the drawing of the specified view. */
+    public ModelValidationPanel(DrawingView view) {
+        super(new BorderLayout());
+        this.view = view;
+        this.drawing = view.getDrawing();
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            private static final long serialVersionUID = 1L;
+
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                if (value instanceof StructuralValidation.Problem) {
+                    StructuralValidation.Problem p = (StructuralValidation.Problem) value;
+                    ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+                    value = labels.getFormatted(p.getKey(), p.getFigure().toString());
+                }
+                return super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            }
+        });
+        list.addListSelectionListener(new ListSelectionListener() {
+            public void valueChanged(ListSelectionEvent e) {
+                if (! e.getValueIsAdjusting()) {
+                    Object value = list.getSelectedValue();
+                    showFigure(value instanceof StructuralValidation.Problem
+                            ? ((StructuralValidation.Problem) value).getFigure() : (Figure) value);
+                }
+            }
+        });
+        add(new JScrollPane(list), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+
+        timer = new Timer(UPDATE_DELAY, new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (structure.isInvalid()) {
+                    structure.update();
+                    updateList();
+                }
+            }
+        });
+        timer.setRepeats(false);
+
+        drawing.addDrawingListener(drawingHandler);
+        for (Figure f : drawing.getFigures()) {
+            install(f);
+        }
+        structure = new StructuralValidation(drawing);
+        updateList();
+    }
+
+    public DrawingView getView() {
+        return view;
+    }
+
+    /**
+     * Stops listening to the drawing.
+     */
+    public void dispose() {
+        timer.stop();
+        drawing.removeDrawingListener(drawingHandler);
+        for (Figure f : drawing.getFigures()) {
+            uninstall(f);
+        }
+    }
+
+    /**
+     * Shows the result of a validation of the connections.
+     *
+     * @param violations The invalid connections.
+     * @param count The number of connections which have been validated.
+     * @param millis The duration of the validation.
+     */
+    public void setViolations(List<LineConnectionFigure> violations, int count, long millis) {
+        this.violations = violations;
+        this.connectionCount = count;
+        this.millis = millis;
+        updateList();
+    }
+
+    private void updateList() {
+        model.clear();
+        for (LineConnectionFigure c : violations) {
+            model.addElement(c);
+        }
+        List<StructuralValidation.Problem> problems = structure.getProblems();
+        for (StructuralValidation.Problem p : problems) {
+            model.addElement(p);
+        }
+        ResourceBundleUtil labels = ResourceBundleUtil.getLAFBundle("org.jhotdraw.app.Labels");
+        statusLabel.setText(labels.getFormatted("validationReportStatus", violations.size(), connectionCount, millis, problems.size()));
+    }
+
+    private void install(Figure f) {
+        if (! figureHandlers.containsKey(f)) {
+            FigureHandler handler = new FigureHandler(f);
+            figureHandlers.put(f, handler);
+            f.addFigureListener(handler);
+        }
+    }
+
+    private void uninstall(Figure f) {
+        FigureHandler handler = figureHandlers.remove(f);
+        if (handler != null) {
+            f.removeFigureListener(handler);
+        }
+    }
+
+    private void showFigure(Figure f) {
+        if (f == null || ! drawing.contains(f) || view.getDrawing() != drawing) {
+            return;
+        }
+        view.clearSelection();
+        view.addToSelection(f);
+        view.getComponent().scrollRectToVisible(view.drawingToView(f.getDrawingArea()));
+    }
+}
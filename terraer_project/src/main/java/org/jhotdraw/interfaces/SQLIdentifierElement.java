@@ -0,0 +1,8 @@
+package org.jhotdraw.interfaces;
+
+import org.jhotdraw.draw.SQLIdentifier;
+
+public interface SQLIdentifierElement {
+	
+	SQLIdentifier getSQLIdentifier();
+}
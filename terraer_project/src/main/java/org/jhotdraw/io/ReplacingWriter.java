@@ -0,0 +1,121 @@
+package org.jhotdraw.io;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A Writer which replaces every occurrence of a literal string by another
+ * string while the characters pass through.
+ * <p>
+ * Occurrences are matched from left to right without overlapping, exactly as
+ * {@code String.replace} does on the complete text. At most
+ * {@code target.length() - 1} characters are held back, so arbitrarily large
+ * texts can be filtered in a single pass with constant memory.
+ * <p>
+ * Call {@link #finish} or {@link #close} when the text is complete, otherwise
+ * a partial match at the very end of the text would never be written.
+ */
+public class ReplacingWriter extends FilterWriter {
+    private final String target;
+    private final String replacement;
+    /** Characters which form a proper prefix of target. */
+    private final StringBuilder pending;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param out The writer receiving the filtered text.
+     * @param target The string to be replaced. Must not be empty.
+     * @param replacement The string replacing each occurrence.
+     */
+    public ReplacingWriter(Writer out, String target, String replacement) {
+        super(out);
+        if (target.length() == 0) {
+            throw new IllegalArgumentException("target must not be empty");
+        }
+        this.target = target;
+        this.replacement = replacement;
+        this.pending = new StringBuilder(target.length());
+    }
+
+    public void write(int c) throws IOException {
+        pending.append((char) c);
+        while (pending.length() > 0) {
+            if (! isPrefix()) {
+                out.write(pending.charAt(0));
+                pending.deleteCharAt(0);
+            } else if (pending.length() == target.length()) {
+                out.write(replacement);
+                pending.setLength(0);
+            } else {
+                break;
+            }
+        }
+    }
+
+    private boolean isPrefix() {
+        for (int i = 0, n = pending.length(); i < n; i++) {
+            if (pending.charAt(i) != target.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        char first = target.charAt(0);
+        for (int i = off, end = off + len; i < end; ) {
+            if (pending.length() == 0) {
+                // Characters which can't start a match are passed on in bulk.
+                int j = i;
+                while (j < end && cbuf[j] != first) {
+                    j++;
+                }
+                if (j > i) {
+                    out.write(cbuf, i, j - i);
+                    i = j;
+                    continue;
+                }
+            }
+            write(cbuf[i++]);
+        }
+    }
+
+    public void write(String str, int off, int len) throws IOException {
+        char first = target.charAt(0);
+        for (int i = off, end = off + len; i < end; ) {
+            if (pending.length() == 0) {
+                int j = i;
+                while (j < end && str.charAt(j) != first) {
+                    j++;
+                }
+                if (j > i) {
+                    out.write(str, i, j - i);
+                    i = j;
+                    continue;
+                }
+            }
+            write(str.charAt(i++));
+        }
+    }
+
+    /**
+     * Writes the characters which are held back and finishes the underlying
+     * writer, if it is a ReplacingWriter as well. The underlying writer is
+     * flushed but not closed.
+     */
+    public void finish() throws IOException {
+        out.write(pending.toString());
+        pending.setLength(0);
+        if (out instanceof ReplacingWriter) {
+            ((ReplacingWriter) out).finish();
+        }
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * @(#)DDLBatch.java  1.0  October 16, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.samples.draw;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jhotdraw.app.action.DDLGenerator;
+import org.jhotdraw.draw.DOMStorableInputOutputFormat;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.QuadTreeDrawing;
+/**
+ * Generates the DDL scripts of TerraER models without a user interface.
+ * <p>
+ * Usage: {@code DDLBatch [-threads n] [-out directory] file-or-directory...}
+ * <p>
+ * Every model is loaded and translated by a worker of a fixed size pool,
+ * and written to a .sql file with the same name as the model. The number of
+ * workers defaults to the number of available processors. No Swing
+ * components are created, so the batch can run with
+ * {@code -Djava.awt.headless=true}.
+ *
+ * @version 1.0 October 16, 2026 Created.
+ */
+public class DDLBatch {
+    private File outDir;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private List<File> files = new ArrayList<File>();
+
+    /** Result of a single model. */
+    private static class Result {
+        File in;
+        File out;
+        int figures;
+        long millis;
+    }
+
+    /** Creates a new instance. */
+    public DDLBatch() {
+    }
+
+    public static void main(String[] args) {
+        DDLBatch batch = new DDLBatch();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                batch.setThreads(Integer.parseInt(args[++i]));
+            } else if (args[i].equals("-out") && i + 1 < args.length) {
+                batch.setOutputDirectory(new File(args[++i]));
+            } else {
+                batch.addInput(new File(args[i]));
+            }
+        }
+        if (batch.files.isEmpty()) {
+            System.err.println("Usage: DDLBatch [-threads n] [-out directory] file-or-directory...");
+            System.exit(1);
+        }
+        System.exit(batch.run() ? 0 : 1);
+    }
+
+    public void setThreads(int newValue) {
+        threads = Math.max(1, newValue);
+    }
+
+    /**
+     * Sets the directory receiving the .sql files. If this is null, every
+     * script is written next to its model.
+     */
+    public void setOutputDirectory(File newValue) {
+        outDir = newValue;
+    }
+
+    /**
+     * Adds a model file, or all .xml files of a directory and its
+     * subdirectories.
+     */
+    public void addInput(File file) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    if (child.isDirectory() || child.getName().toLowerCase().endsWith(".xml")) {
+                        addInput(child);
+                    }
+                }
+            }
+        } else {
+            files.add(file);
+        }
+    }
+
+    /**
+     * Translates all models and prints the timings to System.out.
+     *
+     * @return true, if all models have been translated.
+     */
+    public boolean run() {
+        if (outDir != null) {
+            outDir.mkdirs();
+        }
+        // The workers share the factory of the drawings, which is created
+        // before they start and is only read afterwards.
+        final DrawFigureFactory factory = DrawFigureFactory.getInstance();
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> futures = new ArrayList<Future<Result>>(files.size());
+        for (final File file : files) {
+            futures.add(pool.submit(new Callable<Result>() {
+                public Result call() throws IOException {
+                    return translate(file, factory);
+                }
+            }));
+        }
+        pool.shutdown();
+
+        int done = 0;
+        long figures = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                Result r = futures.get(i).get();
+                done++;
+                figures += r.figures;
+                System.out.println(r.in + " -> " + r.out + ": " + r.figures + " figures, " + r.millis + " ms");
+            } catch (ExecutionException e) {
+                System.err.println(files.get(i) + ":");
+                e.getCause().printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+                return false;
+            }
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1000000);
+        System.out.println(done + " of " + files.size() + " models, " + figures + " figures in " + millis + " ms with " + threads + " threads ("
+                + (done * 1000L / millis) + " models/s, " + (figures * 1000L / millis) + " figures/s)");
+        return done == files.size();
+    }
+
+    private Result translate(File file, DrawFigureFactory factory) throws IOException {
+        long start = System.nanoTime();
+        Drawing drawing = new QuadTreeDrawing();
+        new DOMStorableInputOutputFormat(factory).read(file, drawing);
+
+        Result r = new Result();
+        r.in = file;
+        r.out = getOutputFile(file);
+        r.figures = drawing.getFigureCount();
+        new DDLGenerator().generate(drawing, r.out);
+        r.millis = (System.nanoTime() - start) / 1000000;
+        return r;
+    }
+
+    private File getOutputFile(File in) {
+        String name = in.getName();
+        int p = name.lastIndexOf('.');
+        if (p > 0) {
+            name = name.substring(0, p);
+        }
+        return new File(outDir == null ? in.getParentFile() : outDir, name + ".sql");
+    }
+}
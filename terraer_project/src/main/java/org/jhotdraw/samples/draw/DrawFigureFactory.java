@@ -141,4 +141,22 @@ public class DrawFigureFactory extends DefaultDOMFactory {
             addEnumClass((String) o[1], (Class) o[0]);
         }
     }
+    
+    /**
+     * Returns the factory, which is shared by all drawings. Each new factory
+     * registers its mappings in the static maps of DefaultDOMFactory again.
+     * The shared factory registers them once, and only reads them
+     * afterwards, so it can be used by several threads.
+     */
+    public static DrawFigureFactory getInstance() {
+        return InstanceHolder.instance;
+    }
+    
+    /**
+     * Holds the shared factory. The class is initialized by the first call
+     * to getInstance, and class initialization is thread safe.
+     */
+    private static class InstanceHolder {
+        private final static DrawFigureFactory instance = new DrawFigureFactory();
+    }
 }
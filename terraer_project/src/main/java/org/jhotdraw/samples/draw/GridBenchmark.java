@@ -0,0 +1,131 @@
+/*
+ * @(#)GridBenchmark.java  1.0  October 17, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.samples.draw;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import org.jhotdraw.draw.DefaultDrawingView;
+import org.jhotdraw.draw.GridConstrainer;
+/**
+ * Measures drawing the grid of a GridConstrainer.
+ * <p>
+ * Usage: {@code GridBenchmark [-width w] [-height h] [-rounds r]}
+ * <p>
+ * Draws the grid into a clip of w x h pixels with the rendering hints of
+ * DefaultDrawingView, once with GridConstrainer and once with antialiased
+ * lines, as GridConstrainer drew them before. Both are measured with grid
+ * cells of 20, 10, 5 and 3 pixels. Each measurement is repeated r times,
+ * the first half of the rounds warm up the virtual machine. Exits with
+ * status 1, if the two grids differ in a pixel.
+ *
+ * @version 1.0 October 17, 2026 Created.
+ */
+public class GridBenchmark {
+    private static Color minorColor = new Color(0xebebeb);
+    private static Color majorColor = new Color(0xcacaca);
+
+    public static void main(String[] args) {
+        int width = 1200;
+        int height = 800;
+        int rounds = 100;
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("-width")) {
+                width = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-height")) {
+                height = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-rounds")) {
+                rounds = Integer.parseInt(args[++i]);
+            }
+        }
+        DefaultDrawingView view = new DefaultDrawingView();
+        BufferedImage grid = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        BufferedImage lines = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        boolean failed = false;
+        for (int cell : new int[] {20, 10, 5, 3}) {
+            GridConstrainer constrainer = new GridConstrainer(cell, cell);
+            long gridNanos = 0;
+            long linesNanos = 0;
+            for (int round = 0; round < rounds; round++) {
+                Graphics2D g = createGraphics(grid);
+                long start = System.nanoTime();
+                constrainer.draw(g, view);
+                long gridTime = System.nanoTime() - start;
+                g.dispose();
+
+                g = createGraphics(lines);
+                start = System.nanoTime();
+                drawAntialiasedLines(g, cell, width, height);
+                long linesTime = System.nanoTime() - start;
+                g.dispose();
+
+                if (round >= rounds / 2) {
+                    gridNanos += gridTime;
+                    linesNanos += linesTime;
+                }
+            }
+            int measured = rounds - rounds / 2;
+            int differences = countDifferences(grid, lines);
+            System.out.println(cell + " pixel cells: GridConstrainer "
+                    + gridNanos / measured / 1000 + " us, antialiased lines "
+                    + linesNanos / measured / 1000 + " us, "
+                    + differences + " different pixels");
+            failed |= differences != 0;
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates a graphics with the rendering hints which DefaultDrawingView
+     * uses for the grid.
+     */
+    private static Graphics2D createGraphics(BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.white);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+        g.setClip(0, 0, image.getWidth(), image.getHeight());
+        return g;
+    }
+
+    private static void drawAntialiasedLines(Graphics2D g, int cell, int width, int height) {
+        for (int i = 0, m = width / cell + 1; i <= m; i++) {
+            g.setColor((i % 5 == 0) ? majorColor : minorColor);
+            g.drawLine(i * cell, 0, i * cell, height);
+        }
+        for (int i = 0, m = height / cell + 1; i <= m; i++) {
+            g.setColor((i % 5 == 0) ? majorColor : minorColor);
+            g.drawLine(0, i * cell, width, i * cell);
+        }
+    }
+
+    private static int countDifferences(BufferedImage a, BufferedImage b) {
+        int count = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
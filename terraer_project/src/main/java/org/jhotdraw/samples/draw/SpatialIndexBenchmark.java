@@ -0,0 +1,176 @@
+/*
+ * @(#)SpatialIndexBenchmark.java  1.0  October 16, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.samples.draw;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.jhotdraw.geom.AABBTree;
+import org.jhotdraw.geom.PackedAABBTree;
+import org.jhotdraw.geom.QuadTree;
+import org.jhotdraw.geom.SpatialIndex;
+/**
+ * Compares the spatial indexes which can be used by QuadTreeDrawing.
+ * <p>
+ * Usage: {@code SpatialIndexBenchmark [-figures n] [-size s] [-rounds r]}
+ * <p>
+ * Places n random boxes of the size of ER figures on a canvas of s x s
+ * pixels. Measures loading them at once, as when a file is opened, and
+ * adding them one by one. Then measures moving them by a few pixels as when
+ * they are dragged, and moving them far away. After loading and after moving,
+ * the index is queried with the visible area of a view and with points.
+ * Each measurement is repeated r times, the first rounds warm up the virtual
+ * machine.
+ * <p>
+ * Before the measurements, the heap used by each index is measured with n
+ * figures and n / 2 long connections, which straddle the splits of a quad
+ * tree.
+ *
+ * @version 1.1 October 17, 2026 Added PackedAABBTree and the memory
+ * footprint.
+ * <br>1.0 October 16, 2026 Created.
+ */
+public class SpatialIndexBenchmark {
+    private final static int QUERIES = 20000;
+
+    public static void main(String[] args) {
+        int n = 20000;
+        double size = 30000;
+        int rounds = 5;
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("-figures")) {
+                n = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-size")) {
+                size = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-rounds")) {
+                rounds = Integer.parseInt(args[++i]);
+            }
+        }
+        System.out.println(n + " figures on " + (int) size + "x" + (int) size + " pixels");
+        footprint("QuadTree", new QuadTree<Integer>(), n, size);
+        footprint("AABBTree", new AABBTree<Integer>(), n, size);
+        footprint("PackedAABBTree", new PackedAABBTree<Integer>(), n, size);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("round " + round);
+            measure("QuadTree", new QuadTree<Integer>(), new QuadTree<Integer>(), n, size);
+            measure("AABBTree", new AABBTree<Integer>(), new AABBTree<Integer>(), n, size);
+            measure("PackedAABBTree", new PackedAABBTree<Integer>(), new PackedAABBTree<Integer>(), n, size);
+        }
+    }
+
+    /**
+     * Prints the heap used by an index with n figures and n / 2 connections,
+     * which are added one by one. The bounds are created on the fly, like
+     * the drawing does, so only the bounds kept by the index are counted.
+     * The keys are created beforehand, they stand for the figures.
+     */
+    private static void footprint(String name, SpatialIndex<Integer> index, int n, double size) {
+        Random random = new Random(1);
+        Integer[] keys = new Integer[n + n / 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        long before = usedMemory();
+        for (int i = 0; i < keys.length; i++) {
+            Rectangle2D.Double bounds;
+            if (i < n) {
+                bounds = new Rectangle2D.Double(random.nextDouble() * size, random.nextDouble() * size,
+                        40 + random.nextDouble() * 100, 20 + random.nextDouble() * 40);
+            } else {
+                bounds = new Rectangle2D.Double(random.nextDouble() * size, random.nextDouble() * size, 1, 1);
+                bounds.add(bounds.x + random.nextGaussian() * 500, bounds.y + random.nextGaussian() * 500);
+            }
+            index.add(keys[i], bounds);
+        }
+        long used = usedMemory() - before;
+        int found = index.findIntersects(new Rectangle2D.Double(-size, -size, 3 * size, 3 * size)).size();
+        System.out.println("  " + name + ": " + used / 1024 + " KB, " + used / keys.length + " bytes per object ("
+                + found + " of " + keys.length + " objects found)");
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void measure(String name, SpatialIndex<Integer> index, SpatialIndex<Integer> loaded, int n, double size) {
+        Random random = new Random(1);
+        Rectangle2D.Double[] bounds = new Rectangle2D.Double[n];
+        HashMap<Integer,Rectangle2D.Double> map = new HashMap<Integer,Rectangle2D.Double>();
+        for (int i = 0; i < n; i++) {
+            bounds[i] = new Rectangle2D.Double(random.nextDouble() * size, random.nextDouble() * size,
+                    40 + random.nextDouble() * 100, 20 + random.nextDouble() * 40);
+            map.put(i, bounds[i]);
+        }
+
+        long start = System.nanoTime();
+        loaded.addAll(map);
+        long load = System.nanoTime() - start;
+        System.out.println("  " + name + ": load " + load / n + " ns per figure, " + query(loaded, size, random));
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            index.add(i, bounds[i]);
+        }
+        long add = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            bounds[i].x += random.nextDouble() * 8 - 4;
+            bounds[i].y += random.nextDouble() * 8 - 4;
+            index.update(i, bounds[i]);
+        }
+        long drag = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            bounds[i].x = random.nextDouble() * size;
+            bounds[i].y = random.nextDouble() * size;
+            index.update(i, bounds[i]);
+        }
+        long move = System.nanoTime() - start;
+
+        System.out.println("  " + name + ": add " + add / n + " ns, drag " + drag / n + " ns, move " + move / n
+                + " ns per figure, " + query(index, size, random));
+    }
+
+    /**
+     * Queries the index with areas of the size of a view, and with points.
+     */
+    private static String query(SpatialIndex<Integer> index, double size, Random random) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            found += index.findIntersects(new Rectangle2D.Double(
+                    random.nextDouble() * size, random.nextDouble() * size, 800, 600)).size();
+        }
+        long area = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            found += index.findContains(new Point2D.Double(
+                    random.nextDouble() * size, random.nextDouble() * size)).size();
+        }
+        long point = System.nanoTime() - start;
+
+        return "area query " + area / QUERIES / 1000.0 + " us, point query " + point / QUERIES
+                + " ns (" + found + " found)";
+    }
+}
@@ -5,12 +5,16 @@
 package org.jhotdraw.samples.draw;
 
 import java.awt.Dimension;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 
 import javax.swing.JComponent;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.gui.DDLPreviewPanel;
 import org.jhotdraw.util.ResourceBundleUtil;
 
 /**
@@ -21,9 +25,14 @@ import org.jhotdraw.util.ResourceBundleUtil;
  */
 
 public class TerraProject extends DrawProject {
+	public final static String DDL_PREVIEW_VISIBLE_PROPERTY = "ddlPreviewVisible";
 
 	private JPanel terrawrapcomponent = null;
 	
+	private JSplitPane previewsplit = null;
+	
+	private DDLPreviewPanel ddlpreview = null;
+	
 	private org.jhotdraw.draw.TerraFigureTree terraobjectinspector = null;
 	
 	public void init(){
@@ -45,7 +54,20 @@ public class TerraProject extends DrawProject {
 			
 			terrawrapcomponent = new JPanel(new java.awt.BorderLayout());
 
-			JSplitPane spt = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, scr, this);
+			ddlpreview = new DDLPreviewPanel();
+			ddlpreview.setPreferredSize(new Dimension(200,200));
+			ddlpreview.setVisible(false);
+			getEditor().getActiveView().addPropertyChangeListener(new PropertyChangeListener() {
+				public void propertyChange(PropertyChangeEvent evt) {
+					if ("drawing".equals(evt.getPropertyName()) && ddlpreview.isVisible()) {
+						ddlpreview.setDrawing((Drawing) evt.getNewValue());
+					}
+				}
+			});
+			previewsplit = new JSplitPane(JSplitPane.VERTICAL_SPLIT, this, ddlpreview);
+			previewsplit.setResizeWeight(1d);
+			
+			JSplitPane spt = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, scr, previewsplit);
 			//spt.setDividerLocation(0.2d);
 			
 			JPanel LeftFiller=new JPanel();
@@ -58,5 +80,23 @@ public class TerraProject extends DrawProject {
 		return terrawrapcomponent;
 	}
 	
+	public boolean isDDLPreviewVisible() {
+		return ddlpreview != null && ddlpreview.isVisible();
+	}
+	
+	/**
+	 * Shows or hides the DDL preview below the drawing. The preview only
+	 * listens to the drawing while it is visible.
+	 */
+	public void setDDLPreviewVisible(boolean newValue) {
+		boolean oldValue = isDDLPreviewVisible();
+		getComponent();
+		ddlpreview.setDrawing(newValue ? getEditor().getActiveView().getDrawing() : null);
+		ddlpreview.setVisible(newValue);
+		previewsplit.resetToPreferredSizes();
+		previewsplit.revalidate();
+		firePropertyChange(DDL_PREVIEW_VISIBLE_PROPERTY, oldValue, newValue);
+	}
+	
 
 }
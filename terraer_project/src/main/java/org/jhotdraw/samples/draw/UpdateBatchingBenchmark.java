@@ -0,0 +1,187 @@
+/*
+ * @(#)UpdateBatchingBenchmark.java  1.0  October 17, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.samples.draw;
+
+import java.awt.Color;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jhotdraw.draw.ChopRectangleConnector;
+import org.jhotdraw.draw.DefaultDrawingView;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.DrawingEvent;
+import org.jhotdraw.draw.DrawingListener;
+import org.jhotdraw.draw.Figure;
+import org.jhotdraw.draw.LineConnectionFigure;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.RectangleFigure;
+/**
+ * Checks that changes, which are made between Drawing.beginUpdate and
+ * endUpdate, fire a single areaInvalidated event.
+ * <p>
+ * Usage: {@code UpdateBatchingBenchmark [-figures n]}
+ * <p>
+ * Builds a chain of n rectangles and n - 1 connections, and counts the
+ * areaInvalidated and figure order events of a batched addAll, a batched
+ * move of the rectangles, a batched reorder and a batched change of the
+ * validation colors. Then measures paste, duplicate and delete of n
+ * rectangles in a view. Exits with status 1, if a batch fires more than one
+ * event.
+ *
+ * @version 1.0 October 17, 2026 Created.
+ */
+public class UpdateBatchingBenchmark {
+    private static int areaCount;
+    private static int orderCount;
+    private static boolean failed;
+
+    public static void main(String[] args) {
+        int n = 500;
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("-figures")) {
+                n = Integer.parseInt(args[++i]);
+            }
+        }
+
+        Drawing drawing = createDrawing();
+        List<RectangleFigure> rectangles = createRectangles(n);
+        List<Figure> figures = new ArrayList<Figure>(rectangles);
+        List<LineConnectionFigure> connections = new ArrayList<LineConnectionFigure>();
+        for (int i = 1; i < n; i++) {
+            LineConnectionFigure c = new LineConnectionFigure();
+            c.setStartConnector(new ChopRectangleConnector(rectangles.get(i - 1)));
+            c.setEndConnector(new ChopRectangleConnector(rectangles.get(i)));
+            c.updateConnection();
+            connections.add(c);
+            figures.add(c);
+        }
+
+        reset();
+        drawing.addAll(figures);
+        check("addAll of " + n + " rectangles and " + (n - 1) + " connections", 1, 0);
+
+        reset();
+        AffineTransform tx = AffineTransform.getTranslateInstance(5, 5);
+        drawing.beginUpdate();
+        try {
+            for (Figure f : rectangles) {
+                f.willChange();
+                f.transform(tx);
+                f.changed();
+            }
+        } finally {
+            drawing.endUpdate();
+        }
+        check("move of " + n + " rectangles", 1, 0);
+
+        reset();
+        drawing.beginUpdate();
+        try {
+            for (int i = 0; i < 10; i++) {
+                drawing.bringToFront(rectangles.get(i));
+            }
+        } finally {
+            drawing.endUpdate();
+        }
+        check("bringToFront of 10 rectangles", 1, 1);
+
+        reset();
+        drawing.beginUpdate();
+        try {
+            for (LineConnectionFigure c : connections) {
+                c.setValidationColor(c.getStartFigure(), c.getEndFigure(), Color.red);
+            }
+        } finally {
+            drawing.endUpdate();
+        }
+        check("validation colors of " + (n - 1) + " connections", 1, 0);
+
+        // Paste, duplicate and delete in a view, as in the editor
+        drawing = createDrawing();
+        rectangles = createRectangles(n);
+        DefaultDrawingView view = new DefaultDrawingView();
+        view.setDrawing(drawing);
+
+        reset();
+        long start = System.nanoTime();
+        drawing.addAll(new ArrayList<Figure>(rectangles));
+        long millis = (System.nanoTime() - start) / 1000000;
+        check("paste of " + n + " rectangles in " + millis + " ms", 1, 0);
+
+        view.addToSelection(new ArrayList<Figure>(rectangles));
+        reset();
+        start = System.nanoTime();
+        view.duplicate();
+        millis = (System.nanoTime() - start) / 1000000;
+        check("duplicate of " + n + " rectangles in " + millis + " ms", 1, 0);
+
+        reset();
+        start = System.nanoTime();
+        view.delete();
+        millis = (System.nanoTime() - start) / 1000000;
+        check("delete of " + n + " rectangles in " + millis + " ms", 1, 0);
+
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static Drawing createDrawing() {
+        Drawing drawing = new QuadTreeDrawing();
+        drawing.addDrawingListener(new DrawingListener() {
+            public void areaInvalidated(DrawingEvent e) {
+                areaCount++;
+            }
+            public void figureAdded(DrawingEvent e) {
+            }
+            public void figureRemoved(DrawingEvent e) {
+            }
+        });
+        drawing.addPropertyChangeListener(Drawing.FIGURE_ORDER_PROPERTY, new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent evt) {
+                orderCount++;
+            }
+        });
+        return drawing;
+    }
+
+    private static List<RectangleFigure> createRectangles(int n) {
+        List<RectangleFigure> rectangles = new ArrayList<RectangleFigure>();
+        for (int i = 0; i < n; i++) {
+            RectangleFigure r = new RectangleFigure();
+            double x = (i % 50) * 40;
+            double y = (i / 50) * 40;
+            r.setBounds(new Point2D.Double(x, y), new Point2D.Double(x + 20, y + 20));
+            rectangles.add(r);
+        }
+        return rectangles;
+    }
+
+    private static void reset() {
+        areaCount = 0;
+        orderCount = 0;
+    }
+
+    private static void check(String name, int expectedAreas, int expectedOrders) {
+        boolean ok = areaCount == expectedAreas && orderCount == expectedOrders;
+        System.out.println(name + ": " + areaCount + " areaInvalidated, "
+                + orderCount + " figureOrder" + (ok ? "" : "  FAILED"));
+        failed |= ! ok;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * @(#)ValidationBenchmark.java  1.0  October 16, 2026
+ *
+ * Copyright (c) 1996-2006 by the original authors of JHotDraw
+ * and all its contributors ("JHotDraw.org")
+ * All rights reserved.
+ *
+ * This software is the confidential and proprietary information of
+ * JHotDraw.org ("Confidential Information"). You shall not disclose
+ * such Confidential Information and shall use it only in accordance
+ * with the terms of the license agreement you entered into with
+ * JHotDraw.org.
+ */
+
+package org.jhotdraw.samples.draw;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jhotdraw.draw.DOMStorableInputOutputFormat;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.Figure;
+import org.jhotdraw.draw.LineConnectionFigure;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.action.ModelValidationRules;
+import org.jhotdraw.draw.action.ModelValidationRules.ValidationRule;
+/**
+ * Measures the validation of the connections of TerraER models.
+ * <p>
+ * Usage: {@code ValidationBenchmark [-rounds n] model.xml...}
+ * <p>
+ * Prints the time it takes to read and compile the rules. Then every
+ * connection of the models is validated n times by scanning the list of
+ * validation rules, and n times by looking it up in the tables compiled
+ * from the rules. Both results are compared, and the time per connection is
+ * printed to System.out.
+ *
+ * @version 1.0 October 16, 2026 Created.
+ */
+public class ValidationBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rounds = 1000;
+        List<LineConnectionFigure> connections = new ArrayList<LineConnectionFigure>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-rounds") && i + 1 < args.length) {
+                rounds = Integer.parseInt(args[++i]);
+            } else {
+                Drawing drawing = new QuadTreeDrawing();
+                new DOMStorableInputOutputFormat(new DrawFigureFactory()).read(new File(args[i]), drawing);
+                for (Figure f : drawing.getFigures()) {
+                    if (f instanceof LineConnectionFigure) {
+                        connections.add((LineConnectionFigure) f);
+                    }
+                }
+            }
+        }
+        if (connections.isEmpty()) {
+            System.err.println("Usage: ValidationBenchmark [-rounds n] model.xml...");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        ModelValidationRules rules = ModelValidationRules.getInstance();
+        System.out.println(rules.getRules().size() + " rules read and compiled in " + rules.getLoadTime() / 1000
+                + " us, " + (System.nanoTime() - start) / 1000 + " us including class loading");
+        List<ValidationRule> list = rules.getRules();
+        for (LineConnectionFigure c : connections) {
+            if (rules.isValid(c) != scan(list, c)) {
+                System.err.println("Mismatch: " + c);
+                System.exit(1);
+            }
+        }
+
+        // Two passes, the first one warms up the virtual machine.
+        for (int pass = 0; pass < 2; pass++) {
+            int count = 0;
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (LineConnectionFigure c : connections) {
+                    if (scan(list, c)) {
+                        count++;
+                    }
+                }
+            }
+            long scanned = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (LineConnectionFigure c : connections) {
+                    if (rules.isValid(c)) {
+                        count--;
+                    }
+                }
+            }
+            long compiled = System.nanoTime() - start;
+            long n = (long) rounds * connections.size();
+            System.out.println(connections.size() + " connections x " + rounds + " rounds: rule scan "
+                    + (scanned / n) + " ns, compiled table " + (compiled / n) + " ns per connection"
+                    + (count == 0 ? "" : " (results differ)"));
+        }
+    }
+
+    /**
+     * Validates a connection by scanning the rules.
+     */
+    private static boolean scan(List<ValidationRule> list, LineConnectionFigure c) {
+        Class<?> origem = c.getStartFigure().getClass();
+        Class<?> destino = c.getEndFigure().getClass();
+        for (ValidationRule regra : list) {
+            if (regra.getConexao().equals(c.getClass())
+                    && ((regra.origemContains(origem) && regra.destinoContains(destino))
+                    || (regra.getBidirecional() && regra.origemContains(destino) && regra.destinoContains(origem)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}